@@ -0,0 +1,138 @@
+package deco2800.skyfall.benchmarks;
+
+import deco2800.skyfall.animation.Direction;
+import deco2800.skyfall.animation.DirectionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the direction lookup in {@link DirectionUtil} with copies of the
+ * angle based code Enemy and MainCharacter used before it, over a batch of
+ * random velocities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectionBenchmark {
+
+    // Number of velocities looked up per benchmark call
+    private static final int BATCH = 1024;
+
+    private final float[] xVelocities = new float[BATCH];
+    private final float[] yVelocities = new float[BATCH];
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < BATCH; i++) {
+            xVelocities[i] = (float) (random.nextDouble() * 2 - 1);
+            yVelocities[i] = (float) (random.nextDouble() * 2 - 1);
+        }
+    }
+
+    @Benchmark
+    public void enemyLegacy(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(legacyEnemyDirection(Math.atan2(yVelocities[i], xVelocities[i])));
+        }
+    }
+
+    @Benchmark
+    public void enemyOctant(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(DirectionUtil.enemyDirection(xVelocities[i], yVelocities[i]));
+        }
+    }
+
+    @Benchmark
+    public void playerLegacy(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(legacyPlayerDirection(xVelocities[i], yVelocities[i]));
+        }
+    }
+
+    @Benchmark
+    public void playerOctant(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(DirectionUtil.playerDirection(xVelocities[i], yVelocities[i]));
+        }
+    }
+
+    /**
+     * The old Enemy.movementDirection.
+     */
+    private static Direction legacyEnemyDirection(double angle) {
+        angle = Math.toDegrees(angle - Math.PI);
+
+        if (angle < 0) {
+            angle += 360;
+        }
+
+        if (between(angle, 0, 45)) {
+            return Direction.WEST;
+        } else if (between(angle, 46, 90)) {
+            return Direction.SOUTH_WEST;
+        } else if (between(angle, 91, 135.5)) {
+            return Direction.SOUTH;
+        } else if (between(angle, 136, 180.5)) {
+            return Direction.SOUTH_EAST;
+        } else if (between(angle, 181, 225.5)) {
+            return Direction.EAST;
+        } else if (between(angle, 226, 270.9)) {
+            return Direction.NORTH_EAST;
+        } else if (between(angle, 271, 315.9)) {
+            return Direction.NORTH;
+        } else if (between(angle, 316, 360)) {
+            return Direction.NORTH_WEST;
+        }
+        return null;
+    }
+
+    private static boolean between(double value, double low, double high) {
+        return value >= low && value <= high;
+    }
+
+    /**
+     * The old MainCharacter.getPlayerDirectionCardinal.
+     */
+    private static String legacyPlayerDirection(float x, float y) {
+        double playerDirectionAngle = -Math.toDegrees(Math.atan2(y, x));
+        int playerDirectionIndex = Math.floorMod((int) Math.floor((playerDirectionAngle + 90.0) / 45), 8);
+
+        switch (playerDirectionIndex) {
+        case 0:
+            return "North";
+        case 1:
+            return "North-East";
+        case 2:
+            return "East";
+        case 3:
+            return "South-East";
+        case 4:
+            return "South";
+        case 5:
+            return "South-West";
+        case 6:
+            return "West";
+        case 7:
+            return "North-West";
+        default:
+            return "Invalid";
+        }
+    }
+}
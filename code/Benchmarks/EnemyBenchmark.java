@@ -0,0 +1,113 @@
+package deco2800.skyfall.benchmarks;
+
+import deco2800.skyfall.entities.enemies.Enemy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an enemy's tick in each of its common states, and the smaller
+ * calls made on enemies every tick, in a headless test world. The enemies do
+ * not move, so each stays in its state however long the benchmark runs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemyBenchmark {
+
+    // Number of enemies or angles used per benchmark call
+    private static final int BATCH = 256;
+
+    // Distance from the main character within which enemies chase
+    private static final float ATTACK_RANGE = 8f;
+
+    private Enemy wandering;
+    private Enemy chasing;
+    private Enemy hurt;
+
+    private final Enemy[] crowd = new Enemy[BATCH];
+    private final double[] angles = new double[BATCH];
+
+    // Every tick is new, so no enemy skips it as already stepped
+    private long tick = 0;
+
+    @Setup
+    public void setup(HeadlessWorld world) {
+        wandering = still(12f, 0f);
+        chasing = still(5f, 0f);
+        hurt = still(0f, 5f);
+        hurt.setHurt(true);
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < BATCH; i++) {
+            crowd[i] = new Enemy((float) random.nextDouble() * 40, (float) random.nextDouble() * 40,
+                    Enemy.EnemyType.SCOUT, 0.06f, "forest", "enemyTexture");
+            angles[i] = random.nextDouble() * 2 * Math.PI - Math.PI;
+        }
+    }
+
+    /**
+     * Make an enemy that decides as usual but never moves.
+     */
+    private static Enemy still(float col, float row) {
+        Enemy enemy = new Enemy(col, row, Enemy.EnemyType.SCOUT, 0f, "forest", "enemyTexture");
+        enemy.setChasingSpeed(0f);
+        enemy.setAttackRange(ATTACK_RANGE);
+        return enemy;
+    }
+
+    @Benchmark
+    public void onTickWander() {
+        wandering.onTick(tick++);
+    }
+
+    @Benchmark
+    public void onTickChase() {
+        chasing.onTick(tick++);
+    }
+
+    @Benchmark
+    public void onTickHurt() {
+        hurt.onTick(tick++);
+    }
+
+    @Benchmark
+    public void movementDirection(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(wandering.movementDirection(angles[i]));
+        }
+    }
+
+    @Benchmark
+    public void hashCodes(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(crowd[i].hashCode());
+        }
+    }
+
+    @Benchmark
+    public void equality(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(crowd[i].equals(crowd[(i + 1) % BATCH]));
+        }
+    }
+
+    @Benchmark
+    public void configureAnimations() {
+        wandering.configureAnimations();
+    }
+}
@@ -0,0 +1,85 @@
+package deco2800.skyfall.benchmarks;
+
+import deco2800.skyfall.entities.EntityIds;
+import deco2800.skyfall.entities.MainCharacter;
+import deco2800.skyfall.managers.GameManager;
+import deco2800.skyfall.managers.RandomManager;
+import deco2800.skyfall.managers.RuntimeServices;
+import deco2800.skyfall.worlds.world.World;
+import deco2800.skyfall.worlds.world.WorldBuilder;
+import deco2800.skyfall.worlds.world.WorldDirector;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A test world with a main character at its centre, run with the headless
+ * {@link RuntimeServices} so benchmarks need no window. Shared by the entity
+ * benchmarks.
+ */
+@State(Scope.Thread)
+public class HeadlessWorld {
+
+    private World world;
+    private MainCharacter player;
+    private RuntimeServices.ScriptedInput input;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        setup(0);
+    }
+
+    /**
+     * Build the world, with the world's random streams seeded from a given
+     * seed, e.g. a load test scenario's.
+     *
+     * @param seed the seed of the world's {@link RandomManager}.
+     */
+    public void setup(long seed) {
+        RuntimeServices services = GameManager.getManagerFromInstance(RuntimeServices.class);
+        services.useHeadless();
+        input = (RuntimeServices.ScriptedInput) services.getInput();
+
+        // Seed the world's random streams and number its entities from the
+        // start, so every run wanders the same way
+        EntityIds.reset();
+        GameManager.getManagerFromInstance(RandomManager.class).setSeed(seed);
+
+        WorldBuilder builder = new WorldBuilder();
+        WorldDirector.constructTestWorld(builder, 0);
+        world = builder.getWorld();
+        GameManager.get().setWorld(world);
+
+        MainCharacter.resetInstance();
+        player = MainCharacter.getInstance(0f, 0f, 0.05f, "Benchmark", 50);
+        world.addEntity(player);
+    }
+
+    /**
+     * Get the world.
+     *
+     * @return the test world.
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Get the main character enemies made in this world chase.
+     *
+     * @return the main character.
+     */
+    public MainCharacter getPlayer() {
+        return player;
+    }
+
+    /**
+     * Get the scripted input the main character reads.
+     *
+     * @return the input.
+     */
+    public RuntimeServices.ScriptedInput getInput() {
+        return input;
+    }
+}
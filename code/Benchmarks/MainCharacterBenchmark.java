@@ -0,0 +1,71 @@
+package deco2800.skyfall.benchmarks;
+
+import com.badlogic.gdx.Input;
+import deco2800.skyfall.entities.MainCharacter;
+import deco2800.skyfall.entities.weapons.Sword;
+import deco2800.skyfall.resources.items.Hatchet;
+import deco2800.skyfall.util.HexVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the main character's tick while walking, a melee attack swinging
+ * round its arc, and checking the resources for a blueprint, in a headless
+ * test world.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MainCharacterBenchmark {
+
+    private MainCharacter walker;
+    private MainCharacter swinger;
+    private Hatchet hatchet;
+
+    private long tick = 0;
+
+    @Setup
+    public void setup(HeadlessWorld world) {
+        // Hold up and right, as the keyboard would
+        walker = world.getPlayer();
+        world.getInput().press(Input.Keys.W);
+        world.getInput().press(Input.Keys.D);
+        walker.notifyKeyDown(Input.Keys.W);
+        walker.notifyKeyDown(Input.Keys.D);
+
+        swinger = new MainCharacter(0f, 0f, 0.05f, "Swinger", 50);
+        world.getWorld().addEntity(swinger);
+        swinger.setEquippedItem(new Sword());
+        swinger.attack(new HexVector(1f, 1f));
+
+        hatchet = new Hatchet();
+    }
+
+    @Benchmark
+    public void onTickMoving() {
+        walker.onTick(tick++);
+    }
+
+    @Benchmark
+    public void meleeSwing() {
+        swinger.updateMeleeSwing();
+    }
+
+    @Benchmark
+    public boolean checkRequiredResources() {
+        return walker.checkRequiredResources(hatchet);
+    }
+}
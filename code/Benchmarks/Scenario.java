@@ -0,0 +1,283 @@
+package deco2800.skyfall.benchmarks;
+
+import deco2800.skyfall.entities.enemies.Abductor;
+import deco2800.skyfall.entities.enemies.Heavy;
+import deco2800.skyfall.entities.enemies.Medium;
+import deco2800.skyfall.entities.enemies.Scout;
+import deco2800.skyfall.managers.SpawnDirector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A load test scenario read from a properties file: the enemies to spawn
+ * around the main character, the path the main character walks and how many
+ * ticks to run. Every key of a scenario starts with its name, e.g.
+ *
+ * <pre>
+ * scenarios=horde
+ * horde.ticks=3000
+ * horde.warmupTicks=500
+ * horde.seed=1
+ * horde.radius=30
+ * horde.biome=forest
+ * horde.scout.density=0.1
+ * horde.heavy.density=0.02
+ * horde.heavy.biome=mountain
+ * horde.path=0,0;20,0;20,20;0,20
+ * </pre>
+ *
+ * Densities are enemies per tile of the circle of the given radius around the
+ * start, and the path is a loop of tile positions walked in order.
+ */
+public class Scenario {
+
+    // Enemy types that can be spawned, by the name used in the file
+    private static final Map<String, SpawnDirector.Archetype> ARCHETYPES = new LinkedHashMap<>();
+
+    static {
+        ARCHETYPES.put("scout", Scout::new);
+        ARCHETYPES.put("medium", Medium::new);
+        ARCHETYPES.put("heavy", Heavy::new);
+        ARCHETYPES.put("abductor", Abductor::new);
+    }
+
+    /**
+     * Enemies of one type to spawn.
+     */
+    public static final class Spawn {
+        private final String type;
+        private final SpawnDirector.Archetype archetype;
+        private final int count;
+        private final String biome;
+
+        private Spawn(String type, SpawnDirector.Archetype archetype, int count, String biome) {
+            this.type = type;
+            this.archetype = archetype;
+            this.count = count;
+            this.biome = biome;
+        }
+
+        /**
+         * Get the name the enemy type is listed under.
+         *
+         * @return the name of the type.
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Get what builds the enemies.
+         *
+         * @return the archetype.
+         */
+        public SpawnDirector.Archetype getArchetype() {
+            return archetype;
+        }
+
+        /**
+         * Get the number of enemies to spawn.
+         *
+         * @return the number of enemies.
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Get the biome the enemies are from.
+         *
+         * @return the name of the biome.
+         */
+        public String getBiome() {
+            return biome;
+        }
+    }
+
+    private final String name;
+    private final int ticks;
+    private final int warmupTicks;
+    private final long seed;
+    private final float radius;
+    private final List<Spawn> spawns;
+    private final float[] path;
+
+    private Scenario(String name, int ticks, int warmupTicks, long seed, float radius, List<Spawn> spawns,
+            float[] path) {
+        this.name = name;
+        this.ticks = ticks;
+        this.warmupTicks = warmupTicks;
+        this.seed = seed;
+        this.radius = radius;
+        this.spawns = Collections.unmodifiableList(spawns);
+        this.path = path;
+    }
+
+    /**
+     * Read the scenarios listed under the "scenarios" key.
+     *
+     * @param properties the scenario file.
+     * @return the scenarios, in the order listed.
+     */
+    public static List<Scenario> parseAll(Properties properties) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String name : properties.getProperty("scenarios", "").split(",")) {
+            if (!name.trim().isEmpty()) {
+                scenarios.add(parse(properties, name.trim()));
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * Read one scenario.
+     *
+     * @param properties the scenario file.
+     * @param name       the name of the scenario.
+     * @return the scenario.
+     */
+    public static Scenario parse(Properties properties, String name) {
+        String prefix = name + ".";
+        int ticks = Integer.parseInt(properties.getProperty(prefix + "ticks", "1000"));
+        int warmupTicks = Integer.parseInt(properties.getProperty(prefix + "warmupTicks", "0"));
+        long seed = Long.parseLong(properties.getProperty(prefix + "seed", "0"));
+        float radius = Float.parseFloat(properties.getProperty(prefix + "radius", "30"));
+        String biome = properties.getProperty(prefix + "biome", "forest");
+        if (ticks < 1 || warmupTicks < 0 || radius <= 0) {
+            throw new IllegalArgumentException("Invalid scenario " + name);
+        }
+
+        List<Spawn> spawns = new ArrayList<>();
+        double area = Math.PI * radius * radius;
+        for (Map.Entry<String, SpawnDirector.Archetype> archetype : ARCHETYPES.entrySet()) {
+            String type = archetype.getKey();
+            float density = Float.parseFloat(properties.getProperty(prefix + type + ".density", "0"));
+            int count = (int) Math.round(density * area);
+            if (count > 0) {
+                String typeBiome = properties.getProperty(prefix + type + ".biome", biome);
+                spawns.add(new Spawn(type, archetype.getValue(), count, typeBiome));
+            }
+        }
+
+        return new Scenario(name, ticks, warmupTicks, seed, radius, spawns,
+                parsePath(properties.getProperty(prefix + "path", "0,0")));
+    }
+
+    /**
+     * Read a path of positions written as "col,row;col,row;...".
+     */
+    private static float[] parsePath(String value) {
+        String[] points = value.split(";");
+        float[] path = new float[points.length * 2];
+        for (int i = 0; i < points.length; i++) {
+            String[] colRow = points[i].split(",");
+            if (colRow.length != 2) {
+                throw new IllegalArgumentException("Invalid path point " + points[i]);
+            }
+            path[i * 2] = Float.parseFloat(colRow[0].trim());
+            path[i * 2 + 1] = Float.parseFloat(colRow[1].trim());
+        }
+        return path;
+    }
+
+    /**
+     * Get the name of the scenario.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of ticks measured.
+     *
+     * @return the number of ticks.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Get the number of ticks run before measuring starts.
+     *
+     * @return the number of warm up ticks.
+     */
+    public int getWarmupTicks() {
+        return warmupTicks;
+    }
+
+    /**
+     * Get the seed enemies are placed with.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get how far from the start enemies are placed.
+     *
+     * @return the radius, in tiles.
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * Get the enemies to spawn, one entry per type.
+     *
+     * @return the spawns.
+     */
+    public List<Spawn> getSpawns() {
+        return spawns;
+    }
+
+    /**
+     * Get the total number of enemies spawned.
+     *
+     * @return the number of enemies.
+     */
+    public int getEnemyCount() {
+        int total = 0;
+        for (Spawn spawn : spawns) {
+            total += spawn.count;
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of positions on the path.
+     *
+     * @return the number of positions.
+     */
+    public int getPathLength() {
+        return path.length / 2;
+    }
+
+    /**
+     * Get the column of a position on the path.
+     *
+     * @param index the index of the position.
+     * @return the column.
+     */
+    public float getPathCol(int index) {
+        return path[index * 2];
+    }
+
+    /**
+     * Get the row of a position on the path.
+     *
+     * @param index the index of the position.
+     * @return the row.
+     */
+    public float getPathRow(int index) {
+        return path[index * 2 + 1];
+    }
+}
@@ -0,0 +1,272 @@
+package deco2800.skyfall.benchmarks;
+
+import com.badlogic.gdx.Input;
+import deco2800.skyfall.entities.MainCharacter;
+import deco2800.skyfall.managers.FlowFieldManager;
+import deco2800.skyfall.managers.GameManager;
+import deco2800.skyfall.managers.RuntimeServices;
+import deco2800.skyfall.util.LatencyHistogram;
+import deco2800.skyfall.worlds.world.World;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Runs load test {@link Scenario}s: builds a headless world, spawns the
+ * scenario's enemies, walks the main character along its path and times every
+ * tick, to find how many enemies the engine can run in a tick.
+ *
+ * For each scenario a CSV of every tick is written, with its wall time, the
+ * bytes allocated by every thread, including the workers enemies decide on,
+ * and the garbage collections during it. A line is added to a summary CSV with
+ * the tick time percentiles and the number of enemies that would fit in a
+ * 20 ms tick at the 99th percentile.
+ *
+ * Usage: {@code ScenarioRunner <scenario file> [output directory] [scenario...]}.
+ * Scenarios share the game's managers, so for the cleanest numbers run one
+ * scenario per JVM.
+ */
+public final class ScenarioRunner {
+
+    // The tick length the game runs at
+    private static final long TICK_BUDGET_NANOS = 20_000_000L;
+
+    // How close, in tiles, the main character gets to a path position before
+    // heading for the next
+    private static final float ARRIVED = 0.5f;
+
+    // Tries at finding dry land for each enemy before it is left out
+    private static final int PLACEMENT_TRIES = 20;
+
+    private static final String SUMMARY_HEADER = "scenario,enemies,ticks,p50_nanos,p99_nanos,p999_nanos,"
+            + "max_nanos,mean_nanos,gc_count,gc_millis,alloc_bytes_per_tick,enemies_per_20ms_tick";
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    // The main character's held movement keys, -1, 0 or 1 on each axis
+    private int heldX = 0;
+    private int heldY = 0;
+
+    private ScenarioRunner() {
+    }
+
+    /**
+     * Run the scenarios in a file.
+     *
+     * @param args the scenario file, then optionally the output directory and
+     *             the names of the scenarios to run.
+     * @throws IOException if the file cannot be read or the results written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ScenarioRunner <scenario file> [output directory] [scenario...]");
+            return;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+            properties.load(in);
+        }
+        Path output = Paths.get(args.length > 1 ? args[1] : ".");
+        Files.createDirectories(output);
+
+        Path summary = output.resolve("scenarios.csv");
+        boolean newSummary = !Files.exists(summary);
+        try (PrintWriter summaryOut = new PrintWriter(Files.newBufferedWriter(summary, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (newSummary) {
+                summaryOut.println(SUMMARY_HEADER);
+            }
+            for (Scenario scenario : Scenario.parseAll(properties)) {
+                if (args.length > 2 && !isListed(scenario.getName(), args)) {
+                    continue;
+                }
+                new ScenarioRunner().run(scenario, output, summaryOut);
+            }
+        }
+    }
+
+    private static boolean isListed(String name, String[] args) {
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Run one scenario, writing its ticks to their own CSV and its summary to
+     * the summary CSV.
+     */
+    private void run(Scenario scenario, Path output, PrintWriter summaryOut) throws IOException {
+        HeadlessWorld headless = new HeadlessWorld();
+        headless.setup(scenario.getSeed());
+        World world = headless.getWorld();
+        MainCharacter player = headless.getPlayer();
+        RuntimeServices services = GameManager.getManagerFromInstance(RuntimeServices.class);
+
+        int enemies = spawn(scenario, world);
+        int waypoint = 0;
+
+        LatencyHistogram tickTimes = new LatencyHistogram();
+        long gcCount = 0;
+        long gcMillis = 0;
+        long allocated = 0;
+
+        Path ticksFile = output.resolve(scenario.getName() + "-ticks.csv");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(ticksFile, StandardCharsets.UTF_8))) {
+            out.println("tick,wall_nanos,alloc_bytes,gc_count,gc_millis");
+
+            int total = scenario.getWarmupTicks() + scenario.getTicks();
+            for (int tick = 0; tick < total; tick++) {
+                waypoint = steer(scenario, player, headless.getInput(), waypoint);
+
+                long gcCountBefore = collectionCount();
+                long gcMillisBefore = collectionMillis();
+                long allocatedBefore = allocatedBytes();
+                long start = System.nanoTime();
+
+                services.tick(world, tick);
+
+                long wall = System.nanoTime() - start;
+                long tickAllocated = allocatedBytes() - allocatedBefore;
+                long tickGcCount = collectionCount() - gcCountBefore;
+                long tickGcMillis = collectionMillis() - gcMillisBefore;
+
+                if (tick >= scenario.getWarmupTicks()) {
+                    tickTimes.record(wall);
+                    gcCount += tickGcCount;
+                    gcMillis += tickGcMillis;
+                    allocated += tickAllocated;
+                    out.println(tick + "," + wall + "," + tickAllocated + "," + tickGcCount + "," + tickGcMillis);
+                }
+            }
+        }
+
+        long p99 = tickTimes.getPercentile(0.99);
+        long capacity = p99 == 0 ? 0 : enemies * TICK_BUDGET_NANOS / p99;
+        summaryOut.println(scenario.getName() + "," + enemies + "," + scenario.getTicks() + ","
+                + tickTimes.getPercentile(0.5) + "," + p99 + "," + tickTimes.getPercentile(0.999) + ","
+                + tickTimes.getMax() + "," + Math.round(tickTimes.getMean()) + "," + gcCount + "," + gcMillis
+                + "," + allocated / scenario.getTicks() + "," + capacity);
+        summaryOut.flush();
+    }
+
+    /**
+     * Place the scenario's enemies at random on dry land around the start.
+     *
+     * @return the number of enemies placed.
+     */
+    private static int spawn(Scenario scenario, World world) {
+        SplittableRandom random = new SplittableRandom(scenario.getSeed());
+        int placed = 0;
+        for (Scenario.Spawn spawn : scenario.getSpawns()) {
+            for (int n = 0; n < spawn.getCount(); n++) {
+                for (int attempt = 0; attempt < PLACEMENT_TRIES; attempt++) {
+                    // Uniform over the circle
+                    double distance = scenario.getRadius() * Math.sqrt(random.nextDouble());
+                    double angle = random.nextDouble() * 2 * Math.PI;
+                    int col = (int) Math.round(distance * Math.cos(angle));
+                    int row = (int) Math.round(distance * Math.sin(angle));
+                    if (FlowFieldManager.isPassable(FlowFieldManager.getTile(world, col, row))) {
+                        world.addEntity(spawn.getArchetype().create(col, row, 1f, spawn.getBiome()));
+                        placed++;
+                        break;
+                    }
+                }
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * Hold the movement keys that take the main character towards the next
+     * position on the path, moving on to the position after once it arrives.
+     *
+     * @return the index of the position being walked to.
+     */
+    private int steer(Scenario scenario, MainCharacter player, RuntimeServices.ScriptedInput input,
+            int waypoint) {
+        float colOffset = scenario.getPathCol(waypoint) - player.getCol();
+        float rowOffset = scenario.getPathRow(waypoint) - player.getRow();
+        if (Math.abs(colOffset) < ARRIVED && Math.abs(rowOffset) < ARRIVED) {
+            waypoint = (waypoint + 1) % scenario.getPathLength();
+        }
+
+        int wantX = Math.abs(colOffset) < ARRIVED ? 0 : (int) Math.signum(colOffset);
+        int wantY = Math.abs(rowOffset) < ARRIVED ? 0 : (int) Math.signum(rowOffset);
+        heldX = hold(player, input, heldX, wantX, Input.Keys.A, Input.Keys.D);
+        heldY = hold(player, input, heldY, wantY, Input.Keys.S, Input.Keys.W);
+        return waypoint;
+    }
+
+    /**
+     * Release and press keys on one axis, as a player would.
+     *
+     * @return the direction now held.
+     */
+    private static int hold(MainCharacter player, RuntimeServices.ScriptedInput input, int held, int wanted,
+            int negativeKey, int positiveKey) {
+        if (held == wanted) {
+            return held;
+        }
+        if (held != 0) {
+            int key = held < 0 ? negativeKey : positiveKey;
+            input.release(key);
+            player.notifyKeyUp(key);
+        }
+        if (wanted != 0) {
+            int key = wanted < 0 ? negativeKey : positiveKey;
+            input.press(key);
+            player.notifyKeyDown(key);
+        }
+        return wanted;
+    }
+
+    /**
+     * Get the bytes allocated so far by all live threads. Threads that end
+     * between two readings take their allocations with them, but the game
+     * thread and the worker pools live for the whole run.
+     */
+    private long allocatedBytes() {
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        long[] ids = threads.getAllThreadIds();
+        long total = 0;
+        for (long bytes : ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(ids)) {
+            total += Math.max(0, bytes);
+        }
+        return total;
+    }
+
+    private long collectionCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionCount());
+        }
+        return total;
+    }
+
+    private long collectionMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,127 @@
+package deco2800.skyfall.benchmarks;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Test reading load test scenarios.
+ */
+public class ScenarioTest {
+
+    private static Properties horde() {
+        Properties properties = new Properties();
+        properties.setProperty("scenarios", "horde");
+        properties.setProperty("horde.ticks", "3000");
+        properties.setProperty("horde.warmupTicks", "500");
+        properties.setProperty("horde.seed", "1");
+        properties.setProperty("horde.radius", "10");
+        properties.setProperty("horde.biome", "forest");
+        properties.setProperty("horde.scout.density", "0.1");
+        properties.setProperty("horde.heavy.density", "0.005");
+        properties.setProperty("horde.heavy.biome", "mountain");
+        properties.setProperty("horde.medium.density", "0.001");
+        properties.setProperty("horde.path", "0,0; 20,0;20,20");
+        return properties;
+    }
+
+    /**
+     * Test a scenario's settings and path are read.
+     */
+    @Test
+    public void parseTest() {
+        Scenario scenario = Scenario.parse(horde(), "horde");
+
+        Assert.assertEquals("horde", scenario.getName());
+        Assert.assertEquals(3000, scenario.getTicks());
+        Assert.assertEquals(500, scenario.getWarmupTicks());
+        Assert.assertEquals(1L, scenario.getSeed());
+        Assert.assertEquals(10f, scenario.getRadius(), 0f);
+
+        Assert.assertEquals(3, scenario.getPathLength());
+        Assert.assertEquals(20f, scenario.getPathCol(1), 0f);
+        Assert.assertEquals(0f, scenario.getPathRow(1), 0f);
+        Assert.assertEquals(20f, scenario.getPathRow(2), 0f);
+    }
+
+    /**
+     * Test densities become counts over the circle, rounded to the nearest
+     * enemy, with types rounding to none left out.
+     */
+    @Test
+    public void densityTest() {
+        List<Scenario.Spawn> spawns = Scenario.parse(horde(), "horde").getSpawns();
+
+        // 0.1 and 0.005 enemies a tile over about 314 tiles, medium rounds to none
+        Assert.assertEquals(2, spawns.size());
+        Assert.assertEquals("scout", spawns.get(0).getType());
+        Assert.assertEquals(31, spawns.get(0).getCount());
+        Assert.assertEquals("heavy", spawns.get(1).getType());
+        Assert.assertEquals(2, spawns.get(1).getCount());
+        Assert.assertEquals(33, Scenario.parse(horde(), "horde").getEnemyCount());
+    }
+
+    /**
+     * Test a type's biome overrides the scenario's.
+     */
+    @Test
+    public void biomeTest() {
+        List<Scenario.Spawn> spawns = Scenario.parse(horde(), "horde").getSpawns();
+
+        Assert.assertEquals("forest", spawns.get(0).getBiome());
+        Assert.assertEquals("mountain", spawns.get(1).getBiome());
+    }
+
+    /**
+     * Test a path point without both a column and a row is rejected.
+     */
+    @Test
+    public void badPathTest() {
+        for (String path : new String[] {"0,0;20", "0,0;1,2,3", "0,0;;1,1"}) {
+            Properties properties = horde();
+            properties.setProperty("horde.path", path);
+            try {
+                Scenario.parse(properties, "horde");
+                Assert.fail("Read path " + path);
+            } catch (IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Invalid path point"));
+            }
+        }
+    }
+
+    /**
+     * Test a scenario must measure at least one tick.
+     */
+    @Test
+    public void noTicksTest() {
+        Properties properties = horde();
+        properties.setProperty("horde.ticks", "0");
+        try {
+            Scenario.parse(properties, "horde");
+            Assert.fail("Read a scenario of no ticks");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Invalid scenario horde", e.getMessage());
+        }
+    }
+
+    /**
+     * Test every listed scenario is read, in order, skipping blank names.
+     */
+    @Test
+    public void parseAllTest() {
+        Properties properties = horde();
+        properties.setProperty("scenarios", "horde, ,empty");
+        properties.setProperty("empty.ticks", "10");
+
+        List<Scenario> scenarios = Scenario.parseAll(properties);
+        Assert.assertEquals(2, scenarios.size());
+        Assert.assertEquals("horde", scenarios.get(0).getName());
+        Assert.assertEquals("empty", scenarios.get(1).getName());
+        Assert.assertEquals(0, scenarios.get(1).getEnemyCount());
+        Assert.assertEquals(1, scenarios.get(1).getPathLength());
+
+        Assert.assertTrue(Scenario.parseAll(new Properties()).isEmpty());
+    }
+}
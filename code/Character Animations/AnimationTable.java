@@ -0,0 +1,160 @@
+package deco2800.skyfall.animation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * An immutable description of the animations and default direction textures of
+ * one kind of entity. Tables are built once per kind through {@link #get} and
+ * shared by every instance, so configuring an entity's animations does not
+ * rebuild the animation names or the direction texture map each time.
+ *
+ * {@link AnimationLinker}s keep the playback time of the animation they run, so
+ * each entity still gets its own linkers, made from the shared entries.
+ */
+public final class AnimationTable {
+
+    // Every table built so far, keyed on the kind of entity it describes
+    private static final Map<String, AnimationTable> tables = new ConcurrentHashMap<>();
+
+    private final List<Entry> entries;
+    private final Map<Direction, String> directionTextures;
+
+    /**
+     * One animation in a table.
+     */
+    public static final class Entry {
+        private final String animationName;
+        private final AnimationRole role;
+        private final Direction direction;
+        private final boolean looping;
+        private final boolean centred;
+
+        private Entry(String animationName, AnimationRole role, Direction direction, boolean looping,
+                      boolean centred) {
+            this.animationName = animationName;
+            this.role = role;
+            this.direction = direction;
+            this.looping = looping;
+            this.centred = centred;
+        }
+
+        public String getAnimationName() {
+            return animationName;
+        }
+
+        public AnimationRole getRole() {
+            return role;
+        }
+
+        public Direction getDirection() {
+            return direction;
+        }
+
+        /**
+         * Make a new linker running this animation, for a single entity.
+         *
+         * @return a new animation linker.
+         */
+        public AnimationLinker newLinker() {
+            return new AnimationLinker(animationName, role, direction, looping, centred);
+        }
+    }
+
+    /**
+     * Builds an animation table.
+     */
+    public static final class Builder {
+        private final List<Entry> entries = new ArrayList<>();
+        private final Map<Direction, String> directionTextures = new EnumMap<>(Direction.class);
+
+        private Builder() {
+        }
+
+        /**
+         * Add an animation to the table.
+         *
+         * @param animationName the name of the animation.
+         * @param role          the role the animation plays.
+         * @param direction     the direction the animation faces.
+         * @param looping       whether the animation loops.
+         * @param centred       whether the animation is centred.
+         * @return this builder.
+         */
+        public Builder animation(String animationName, AnimationRole role, Direction direction, boolean looping,
+                                 boolean centred) {
+            entries.add(new Entry(animationName, role, direction, looping, centred));
+            return this;
+        }
+
+        /**
+         * Set the default texture shown when facing a direction.
+         *
+         * @param direction   the direction.
+         * @param textureName the name of the texture.
+         * @return this builder.
+         */
+        public Builder directionTexture(Direction direction, String textureName) {
+            directionTextures.put(direction, textureName);
+            return this;
+        }
+
+        /**
+         * Build the table.
+         *
+         * @return the immutable table.
+         */
+        public AnimationTable build() {
+            return new AnimationTable(this);
+        }
+    }
+
+    private AnimationTable(Builder builder) {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(builder.entries));
+        this.directionTextures = Collections.unmodifiableMap(new EnumMap<>(builder.directionTextures));
+    }
+
+    /**
+     * Start building a new table.
+     *
+     * @return a new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the shared table for a kind of entity, building it on first use.
+     *
+     * @param key     the name of the kind of entity, e.g. an enemy type.
+     * @param factory builds the table if it does not exist yet.
+     * @return the shared table.
+     */
+    public static AnimationTable get(String key, Supplier<AnimationTable> factory) {
+        return tables.computeIfAbsent(key, k -> factory.get());
+    }
+
+    /**
+     * Get the animations in this table.
+     *
+     * @return an unmodifiable list of the animations.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Get the default texture for each direction. The same map is handed to
+     * every entity using this table.
+     *
+     * @return an unmodifiable map of direction to texture name.
+     */
+    public Map<Direction, String> getDirectionTextures() {
+        return directionTextures;
+    }
+}
@@ -0,0 +1,94 @@
+package deco2800.skyfall.animation;
+
+/**
+ * Maps movement vectors to the {@link Direction} an entity should face. The
+ * octant of a vector is found with sign and magnitude comparisons and looked up
+ * in a table, so no trigonometry is done and every vector maps to a direction.
+ */
+public final class DirectionUtil {
+
+    // Enemy facing for each octant of the mirrored velocity (-x, y). The enemy
+    // sprites are drawn a quarter turn round from the player's.
+    private static final Direction[] ENEMY_DIRECTIONS = {
+            Direction.NORTH_WEST,
+            Direction.NORTH,
+            Direction.NORTH_EAST,
+            Direction.EAST,
+            Direction.SOUTH_EAST,
+            Direction.SOUTH,
+            Direction.SOUTH_WEST,
+            Direction.WEST
+    };
+
+    // Player facing for each octant of the mirrored input (x, -y), starting two
+    // octants round so that moving right faces east.
+    private static final Direction[] PLAYER_DIRECTIONS = {
+            Direction.EAST,
+            Direction.SOUTH_EAST,
+            Direction.SOUTH,
+            Direction.SOUTH_WEST,
+            Direction.WEST,
+            Direction.NORTH_WEST,
+            Direction.NORTH,
+            Direction.NORTH_EAST
+    };
+
+    private DirectionUtil() {
+        // Static helpers only
+    }
+
+    /**
+     * Get the 45 degree sector a vector points into, counting anticlockwise from
+     * the positive x axis. Sector 0 covers [0, 45) degrees, sector 1 covers
+     * [45, 90) degrees and so on. The zero vector is in sector 0.
+     *
+     * @param x the x component of the vector.
+     * @param y the y component of the vector.
+     * @return the sector, from 0 to 7.
+     */
+    public static int octant(float x, float y) {
+        if (x == 0 && y == 0) {
+            return 0;
+        }
+        if (y >= 0) {
+            if (x > 0) {
+                return y < x ? 0 : 1;
+            }
+            if (y == 0) {
+                return 4;
+            }
+            return -x < y ? 2 : 3;
+        }
+        if (x < 0) {
+            return -y < -x ? 4 : 5;
+        }
+        return -y > x ? 6 : 7;
+    }
+
+    /**
+     * Get the direction an enemy moving with a velocity should face. A standing
+     * enemy faces south-east.
+     *
+     * @param xVelocity the x component of the velocity.
+     * @param yVelocity the y component of the velocity.
+     * @return the direction to face.
+     */
+    public static Direction enemyDirection(float xVelocity, float yVelocity) {
+        if (xVelocity == 0 && yVelocity == 0) {
+            return Direction.SOUTH_EAST;
+        }
+        return ENEMY_DIRECTIONS[octant(-xVelocity, yVelocity)];
+    }
+
+    /**
+     * Get the direction the player should face when heading along a vector, such
+     * as their key input. A player with no heading faces east.
+     *
+     * @param x the x component of the heading.
+     * @param y the y component of the heading.
+     * @return the direction to face.
+     */
+    public static Direction playerDirection(float x, float y) {
+        return PLAYER_DIRECTIONS[octant(x, -y)];
+    }
+}
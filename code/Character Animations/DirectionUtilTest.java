@@ -0,0 +1,77 @@
+package deco2800.skyfall.animation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the mapping from movement vectors to facing directions.
+ */
+public class DirectionUtilTest {
+
+    // Directions in the order the old angle based code numbered them
+    private static final Direction[] COMPASS = { Direction.NORTH, Direction.NORTH_EAST, Direction.EAST,
+            Direction.SOUTH_EAST, Direction.SOUTH, Direction.SOUTH_WEST, Direction.WEST, Direction.NORTH_WEST };
+
+    /**
+     * Test the sector boundaries and the zero vector.
+     */
+    @Test
+    public void octantTest() {
+        Assert.assertEquals(0, DirectionUtil.octant(0, 0));
+        Assert.assertEquals(0, DirectionUtil.octant(1, 0));
+        Assert.assertEquals(1, DirectionUtil.octant(1, 1));
+        Assert.assertEquals(2, DirectionUtil.octant(0, 1));
+        Assert.assertEquals(3, DirectionUtil.octant(-1, 1));
+        Assert.assertEquals(4, DirectionUtil.octant(-1, 0));
+        Assert.assertEquals(5, DirectionUtil.octant(-1, -1));
+        Assert.assertEquals(6, DirectionUtil.octant(0, -1));
+        Assert.assertEquals(7, DirectionUtil.octant(1, -1));
+    }
+
+    /**
+     * Test the player faces the way the old angle based code turned them, all
+     * the way round the circle.
+     */
+    @Test
+    public void playerDirectionTest() {
+        Assert.assertEquals(Direction.EAST, DirectionUtil.playerDirection(0, 0));
+        Assert.assertEquals(Direction.NORTH, DirectionUtil.playerDirection(0, 1));
+        Assert.assertEquals(Direction.EAST, DirectionUtil.playerDirection(1, 0));
+        Assert.assertEquals(Direction.SOUTH_WEST, DirectionUtil.playerDirection(-1, -1));
+
+        for (int i = 0; i < 360; i++) {
+            double angle = Math.toRadians(i + 0.5);
+            float x = (float) Math.cos(angle);
+            float y = (float) Math.sin(angle);
+
+            double legacyAngle = -Math.toDegrees(Math.atan2(y, x));
+            Direction legacy = COMPASS[Math.floorMod((int) Math.floor((legacyAngle + 90.0) / 45), 8)];
+            Assert.assertEquals(legacy, DirectionUtil.playerDirection(x, y));
+        }
+    }
+
+    /**
+     * Test enemies face the way the old angle based code turned them, away from
+     * the sector boundaries.
+     */
+    @Test
+    public void enemyDirectionTest() {
+        Assert.assertEquals(Direction.SOUTH_EAST, DirectionUtil.enemyDirection(0, 0));
+        Assert.assertEquals(Direction.SOUTH_EAST, DirectionUtil.enemyDirection(1, 0));
+        Assert.assertEquals(Direction.SOUTH_WEST, DirectionUtil.enemyDirection(0, -1));
+        Assert.assertEquals(Direction.NORTH_EAST, DirectionUtil.enemyDirection(0, 1));
+
+        // The old code counted sectors anticlockwise from the reversed velocity
+        Direction[] legacySectors = { Direction.WEST, Direction.SOUTH_WEST, Direction.SOUTH, Direction.SOUTH_EAST,
+                Direction.EAST, Direction.NORTH_EAST, Direction.NORTH, Direction.NORTH_WEST };
+        for (int i = 0; i < 360; i++) {
+            double angle = Math.toRadians(i + 0.5);
+            float x = (float) Math.cos(angle);
+            float y = (float) Math.sin(angle);
+
+            double reversed = Math.floorMod(i + 180, 360) + 0.5;
+            Direction legacy = legacySectors[(int) (reversed / 45)];
+            Assert.assertEquals(legacy, DirectionUtil.enemyDirection(x, y));
+        }
+    }
+}
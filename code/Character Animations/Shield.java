@@ -7,16 +7,23 @@ import deco2800.skyfall.animation.AnimationRole;
 import deco2800.skyfall.animation.Direction;
 import deco2800.skyfall.entities.MainCharacter;
 import deco2800.skyfall.managers.GameManager;
-import deco2800.skyfall.managers.GameMenuManager;
+import deco2800.skyfall.managers.TimerWheelManager;
 import deco2800.skyfall.util.HexVector;
 
 public class Shield extends Spell implements Animatable {
 
 
     //Keep a reference to the maincharacter so this spell can stay on it's position.
+    //This is the player who cast it, or null until the caster is set.
     protected MainCharacter mc;
 
-    private int shieldTime = 0;
+    // Game time the shield takes to go up
+    private static final long RAISE_MILLIS = 80;
+
+    // Fires once the shield is up
+    private final TimerWheelManager.Timer raiseTimer;
+
+    private boolean raised = false;
 
     /**
      * Key sequence required to cast this spell.
@@ -30,7 +37,7 @@ public class Shield extends Spell implements Animatable {
     };
 
     /**
-     * Construct a new spell.
+     * Construct a new spell. It protects no player until its caster is set.
      *
      * @param movementPosition The position the spell moves to.
      * @param textureName      The name of the texture to render.
@@ -49,32 +56,55 @@ public class Shield extends Spell implements Animatable {
         this.range = 0;
         this.speed = 0;
         this.manaCost = 30;
-        this.mc = GameManager.getManagerFromInstance(GameMenuManager.class).getMainCharacter();
+        
+        setCurrentState(AnimationRole.ATTACK);
 
-        if (this.mc != null) {
-            this.mc.setRecovering(true);
+        TimerWheelManager wheel = GameManager.getManagerFromInstance(TimerWheelManager.class);
+        raiseTimer = wheel.newTimer(this::raise);
+        wheel.schedule(raiseTimer, TimerWheelManager.ticksAfter(RAISE_MILLIS));
+    }
+
+    /**
+     * Put the shield on the player who cast it. Only that player is protected
+     * while the shield is up.
+     *
+     * @param caster the player casting the shield.
+     */
+    public void setCaster(MainCharacter caster) {
+        if (this.mc != null && this.mc != caster) {
+            this.mc.setRecovering(false);
         }
-        
+        this.mc = caster;
+        this.mc.setRecovering(true);
+    }
+
+    /**
+     * Finish putting the shield up.
+     */
+    private void raise() {
+        raised = true;
         setCurrentState(AnimationRole.STILL);
     }
 
     @Override
     public void onTick(long tick) {
         super.onTick(tick);
+        if (this.mc == null) {
+            return;
+        }
         this.setPosition(this.mc.getCol(),this.mc.getRow(),this.mc.getHeight());
 
-        if (shieldTime < 80) {
-            shieldTime += 20;
-            setCurrentState(AnimationRole.ATTACK);
-        } else {
+        if (raised) {
             this.mc.setRecovering(true);
-            setCurrentState(AnimationRole.STILL);
         }
     }
 
     @Override
     public void destroy() {
-        this.mc.setRecovering(false);
+        GameManager.getManagerFromInstance(TimerWheelManager.class).cancel(raiseTimer);
+        if (this.mc != null) {
+            this.mc.setRecovering(false);
+        }
         super.destroy();
     }
 
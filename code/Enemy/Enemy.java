@@ -1,27 +1,55 @@
 package deco2800.skyfall.entities.enemies;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import deco2800.skyfall.Tickable;
 import deco2800.skyfall.entities.Peon;
+import com.badlogic.gdx.math.Vector2;
 import deco2800.skyfall.animation.Direction;
+import deco2800.skyfall.animation.DirectionUtil;
 import deco2800.skyfall.animation.Animatable;
+import deco2800.skyfall.managers.CombatEventLog;
+import deco2800.skyfall.managers.DamageManager;
+import deco2800.skyfall.managers.FlowFieldManager;
 import deco2800.skyfall.managers.GameManager;
+import deco2800.skyfall.managers.PlayerRegistry;
+import deco2800.skyfall.managers.RandomManager;
+import deco2800.skyfall.managers.SoundEventBus;
 import deco2800.skyfall.managers.SoundManager;
+import deco2800.skyfall.managers.TickProfiler;
+import deco2800.skyfall.managers.TickScheduler;
+import deco2800.skyfall.managers.TimerWheelManager;
+import deco2800.skyfall.util.GameEvents;
+import deco2800.skyfall.util.SeparationGrid;
+import deco2800.skyfall.entities.DamageType;
+import deco2800.skyfall.entities.EntityIds;
 import deco2800.skyfall.entities.ICombatEntity;
+import deco2800.skyfall.entities.Identifiable;
 import deco2800.skyfall.entities.MainCharacter;
 import deco2800.skyfall.animation.AnimationRole;
-import deco2800.skyfall.animation.AnimationLinker;
+import deco2800.skyfall.animation.AnimationTable;
+import deco2800.skyfall.managers.EnemyAIManager;
+import deco2800.skyfall.managers.EnemyPoolManager;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * An instance to abstract the basic variables and methods of an enemy.
  */
-public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
+public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable, Identifiable {
 
-    // Logger for tracking enemy information
-    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    // Enemies have no resistances, shared so none is allocated per hit
+    private static final int[] NO_RESISTANCES = new int[0];
+
+    // Closer than this enemies head straight at the player instead of along the flow field
+    private static final float FLOW_FIELD_MIN_DISTANCE = 2f;
+
+    // Distance chasing enemies try to keep from each other, and how strongly
+    // they steer apart and towards the middle of the crowd around them
+    private static final float CROWD_RADIUS = 1.5f;
+    private static final float SEPARATION_WEIGHT = 1.5f;
+    private static final float COHESION_WEIGHT = 0.1f;
+
+    // World-unique id of this enemy, used for identity and hashing
+    private final long worldId = EntityIds.next();
 
     // Basic enemy stats
     private int health;
@@ -30,8 +58,11 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
     private float walkingSpeed;
     private float chasingSpeed;
 
+    // This enemy's own random stream, derived from the world seed
+    private SplittableRandom random;
+
     // Enemy target error
-    private int targetError = -2 + new Random().nextInt(3);
+    private int targetError = -2 + getRandom().nextInt(3);
 
     // Name of the biome the enemy is in.
     private String biome;
@@ -41,12 +72,36 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
         ABDUCTOR, HEAVY, SCOUT, MEDIUM
     }
 
+    // Profiler scopes timing each type of enemy, and enemies with no type
+    private static final int[] PROFILER_SCOPES = new int[EnemyType.values().length];
+    private static final int UNTYPED_PROFILER_SCOPE = TickProfiler.entityScope("Enemy");
+
+    static {
+        for (EnemyType type : EnemyType.values()) {
+            PROFILER_SCOPES[type.ordinal()] = TickProfiler.entityScope(type.name());
+        }
+    }
+
     // type this enemy is
     private Enemy.EnemyType enemy;
 
     // Animation timings
     private long hurtTime = 0;
-    private long deadTime = 0;
+
+    // Game time the hurt and the death animation last
+    private static final long HURT_MILLIS = 340;
+    private static final long DEATH_MILLIS = 500;
+
+    // Timers on the world timer wheel, made on first use
+    private TimerWheelManager.Timer hurtTimer;
+    private TimerWheelManager.Timer deathTimer;
+
+    // Distance within which a chasing enemy hits the main character
+    private static final float ATTACK_REACH = 0.98f;
+
+    // The behaviour state of this enemy
+    private EnemyStateMachine stateMachine = new EnemyStateMachine(null);
+
     // Booleans to check whether Enemy is in a state.
     private boolean isHurt = false;
 
@@ -56,20 +111,58 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
     protected String attackingSound;
     protected String diedSound;
 
-    // Main character instance in the game.
+    // The player this enemy chases, the one nearest it when it last looked, or
+    // null if no player was registered.
     private MainCharacter mainCharacter;
 
+    // Ticks between looks for the nearest player. Enemies look on different
+    // ticks, spread by their ids
+    private static final int RETARGET_TICKS = 25;
+
+    // This enemy's decision for the current tick, reused every tick
+    private final EnemyDecision decision = new EnemyDecision();
+
+    // Pushes from the crowd around this enemy, reused every tick
+    private final float[] crowdSteering = new float[4];
+
+    // The last tick this enemy's decision was applied on
+    private long appliedTick = -1;
+
+    // Number of times this enemy has been respawned from the pool
+    private int life = 0;
+
+    // How much simulation work this enemy currently does
+    private EnemyLod.Tier lodTier = EnemyLod.Tier.NEAR;
+
+    // Whether this enemy has a live physics body. Enemies away from the main
+    // character move on their own position and velocity instead, and are given
+    // a body when they come within the physics radius.
+    private boolean physical = false;
+
+    // Whether a body has been made for this enemy, live or parked
+    private boolean hasBody = false;
+
+    // Velocity of this enemy while it has no live body
+    private final Vector2 velocity = new Vector2();
+
+    // The tick this enemy last moved on without a body
+    private long movedTick = -1;
+
+    // The tick this enemy entered its current tier, used to spread the ticks of
+    // mid tier enemies out over the tick interval
+    private long lodTierEnteredTick = 0;
+
     public Enemy(float col, float row, EnemyType enemyType, float speed, String biome,
                  String textureName) {
         super(row, col, speed, textureName, 10);
 
-        // Sets the spawning location and all the collision
+        // Sets the spawning location and all the collision. The physics body is
+        // only made once the enemy comes near the main character.
         this.setPosition(col, row);
-        this.initialiseBox2D(col, row);
         this.setCollidable(true);
 
-        // Sets the main character in the game.
-        this.setMainCharacter(MainCharacter.getInstance());
+        // Chase the nearest player in the game.
+        this.chooseTarget();
 
         // Set type of enemy
         this.setType(enemyType);
@@ -101,59 +194,384 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
      * Enemy chase the player, if player position is in range, enemy attacks player.
      */
     public void attackAction() {
-        if (!(mainCharacter.isDead() || mainCharacter.isRecovering() || mainCharacter.isHurt())) {
-            this.setSpeed(getChasingSpeed());
+        if (isPlayerTargetable()) {
+            chooseChaseVelocity(GameManager.getManagerFromInstance(FlowFieldManager.class));
+            runChase();
+        }
+    }
 
-            float targetShift = (float) targetError / 2;
+    /**
+     * under normal situation the enemy will random wandering in 100 radius circle
+     */
+    public void randomMoveAction() {
+        chooseWanderVelocity();
+        runWander();
+    }
 
-            double xDestination;
-            double yDestination;
+    /**
+     * Read-only half of the enemy's tick. Chooses between chasing and wandering
+     * and works out the velocity to move at, without writing to the body, the
+     * animation state or the main character. Safe to run concurrently with other
+     * enemies deciding, as it only touches this enemy's own body.
+     *
+     * Looks up the flow field and the crowd on the calling thread, so must be
+     * called on the game thread. Deciding on other threads goes through
+     * {@link #decide(long, FlowFieldManager, SeparationGrid)}.
+     *
+     * @param tick the tick the decision is for.
+     */
+    public void decide(long tick) {
+        decide(tick, GameManager.getManagerFromInstance(FlowFieldManager.class),
+                GameManager.getManagerFromInstance(EnemyAIManager.class).getCrowd());
+    }
 
-            float xDirection;
-            float yDirection;
+    /**
+     * Read-only half of the enemy's tick, with the managers it reads looked up
+     * beforehand on the game thread. Safe to run on any thread while the game
+     * thread waits.
+     *
+     * @param tick      the tick the decision is for.
+     * @param flowField the flow field chasing enemies follow.
+     * @param crowd     the positions of the living enemies this tick.
+     */
+    public void decide(long tick, FlowFieldManager flowField, SeparationGrid crowd) {
+        decision.tick = tick;
 
-            double playerAngle = Math.toRadians(-mainCharacter.getPlayerDirectionAngle() + 90);
+        if (isDead()) {
+            decision.action = EnemyDecision.Action.DIE;
+        } else if (isPlayerTargetable() && this.distance(mainCharacter) < attackRange) {
+            decision.action = EnemyDecision.Action.CHASE;
+            chooseChaseVelocity(flowField);
+            steerThroughCrowd(crowd);
+        } else {
+            decision.action = EnemyDecision.Action.WANDER;
+            chooseWanderVelocity();
+        }
+    }
 
-            if (distance(mainCharacter) < targetShift) {
-                xDirection = mainCharacter.getPosition().getCol() - getBody().getPosition().x;
-                yDirection = mainCharacter.getPosition().getRow() - getBody().getPosition().y;
-            } else {
-                xDestination = mainCharacter.getPosition().getCol() + targetShift * Math.cos(playerAngle);
-                yDestination = mainCharacter.getPosition().getRow() + targetShift * Math.sin(playerAngle);
+    /**
+     * Writing half of the enemy's tick. Moves the state machine to the state the
+     * decision calls for, pushes the decided velocity to the body and deals any
+     * damage to the main character. Must be called on the game thread, one enemy
+     * at a time.
+     */
+    public void applyDecision() {
+        appliedTick = decision.tick;
 
-                xDirection = (float) xDestination - getBody().getPosition().x;
-                yDirection = (float) yDestination - getBody().getPosition().y;
-            }
+        if (decision.action == EnemyDecision.Action.DIE) {
+            changeState(EnemyState.DYING);
+            return;
+        }
 
-            getBody().setLinearVelocity(xDirection, yDirection);
-            getBody().setLinearVelocity(getBody().getLinearVelocity().limit(chasingSpeed));
+        // An enemy applied earlier this tick may have already hurt the player, in
+        // which case this enemy wanders as it would have done if run sequentially.
+        if (decision.action == EnemyDecision.Action.CHASE && !isPlayerTargetable()) {
+            decision.action = EnemyDecision.Action.WANDER;
+            chooseWanderVelocity();
+        }
 
-            this.position.set(getBody().getPosition().x, getBody().getPosition().y);
+        if (decision.action == EnemyDecision.Action.CHASE) {
+            runChase();
+        } else {
+            runWander();
+        }
+        this.updateAnimation();
+    }
 
-            // if the player in attack range then attack player
-            if (distance(mainCharacter) < 0.98f) {
-                setCurrentState(AnimationRole.ATTACK);
-                mainCharacter.setCurrentState(AnimationRole.HURT);
-                dealDamage(mainCharacter);
-            }
+    /**
+     * Move towards the main character, asking for the chase or attack state, and
+     * hit them if the enemy's transition table let it into the attack state and
+     * they are in reach.
+     */
+    private void runChase() {
+        applyChase();
+        boolean inReach = distance(mainCharacter) < ATTACK_REACH;
+        changeState(isHurt ? EnemyState.HURT : inReach ? EnemyState.ATTACK : EnemyState.CHASE);
+        if (inReach && stateMachine.getState() == EnemyState.ATTACK) {
+            mainCharacter.setCurrentState(AnimationRole.HURT);
+            dealDamage(mainCharacter);
         }
     }
 
     /**
-     * under normal situation the enemy will random wandering in 100 radius circle
+     * Wander in the chosen direction, entering the wander state.
      */
-    public void randomMoveAction() {
-        setCurrentState(AnimationRole.MOVE);
+    private void runWander() {
+        changeState(isHurt ? EnemyState.HURT : EnemyState.WANDER);
+        applyWander();
+    }
+
+    /**
+     * Move the state machine towards a state, and if a new state is entered
+     * start its animation and anything else that happens on entry.
+     *
+     * @param wanted the state this enemy wants to be in.
+     */
+    private void changeState(EnemyState wanted) {
+        if (!stateMachine.moveTo(wanted)) {
+            return;
+        }
+        EnemyState entered = stateMachine.getState();
+        setCurrentState(entered.getAnimation());
+
+        if (entered == EnemyState.DYING) {
+            // Play the death animation, then leave the world when the timer fires
+            timers().schedule(deathTimer, TimerWheelManager.ticksAfter(DEATH_MILLIS));
+        }
+    }
+
+    /**
+     * Get the number of times this enemy has been respawned from the pool, so
+     * one spawn of a pooled enemy can be told from the next.
+     *
+     * @return the number of respawns.
+     */
+    public int getLife() {
+        return life;
+    }
+
+    /**
+     * Get the behaviour state this enemy is in.
+     *
+     * @return the current state, or null before the first tick.
+     */
+    public EnemyState getState() {
+        return stateMachine.getState();
+    }
+
+    /**
+     * Check whether this enemy has already been stepped on a tick.
+     *
+     * @param tick the tick to check.
+     * @return true if the enemy's decision for that tick has been applied.
+     */
+    public boolean hasActedOnTick(long tick) {
+        return appliedTick == tick;
+    }
+
+    /**
+     * Check whether the main character can currently be attacked.
+     *
+     * @return true if there is a main character and they are not dead, hurt or
+     *         recovering.
+     */
+    private boolean isPlayerTargetable() {
+        return mainCharacter != null
+                && !(mainCharacter.isDead() || mainCharacter.isRecovering() || mainCharacter.isHurt());
+    }
+
+    /**
+     * Work out the velocity that takes this enemy towards the main character.
+     * Further away it follows the flow field, which leads around water.
+     *
+     * @param flowField the flow field to follow.
+     */
+    private void chooseChaseVelocity(FlowFieldManager flowField) {
+        if (distance(mainCharacter) >= FLOW_FIELD_MIN_DISTANCE && followFlowField(flowField)) {
+            return;
+        }
+
+        float targetShift = (float) targetError / 2;
+
+        double xDestination;
+        double yDestination;
+
+        double playerAngle = Math.toRadians(-mainCharacter.getPlayerDirectionAngle() + 90);
+
+        if (distance(mainCharacter) < targetShift) {
+            decision.xVelocity = mainCharacter.getPosition().getCol() - currentX();
+            decision.yVelocity = mainCharacter.getPosition().getRow() - currentY();
+        } else {
+            xDestination = mainCharacter.getPosition().getCol() + targetShift * Math.cos(playerAngle);
+            yDestination = mainCharacter.getPosition().getRow() + targetShift * Math.sin(playerAngle);
+
+            decision.xVelocity = (float) xDestination - currentX();
+            decision.yVelocity = (float) yDestination - currentY();
+        }
+    }
+
+    /**
+     * Bend the decided velocity away from the enemies close by, and a little
+     * towards the middle of them, keeping its speed. This keeps chasing enemies
+     * apart before their bodies touch, instead of physics contacts pushing them
+     * apart afterwards.
+     *
+     * @param crowd the positions of the living enemies this tick.
+     */
+    private void steerThroughCrowd(SeparationGrid crowd) {
+        // The grid holds the positions enemies had at the start of the tick, so
+        // look this enemy up at the same position to leave itself out
+        if (crowd.steer(getCol(), getRow(), CROWD_RADIUS, crowdSteering) == 0) {
+            return;
+        }
+
+        float speed = (float) Math.sqrt(decision.xVelocity * decision.xVelocity
+                + decision.yVelocity * decision.yVelocity);
+        if (speed == 0) {
+            return;
+        }
+        float x = decision.xVelocity / speed + SEPARATION_WEIGHT * crowdSteering[0]
+                + COHESION_WEIGHT * crowdSteering[2];
+        float y = decision.yVelocity / speed + SEPARATION_WEIGHT * crowdSteering[1]
+                + COHESION_WEIGHT * crowdSteering[3];
+        float length = (float) Math.sqrt(x * x + y * y);
+        if (length > 0) {
+            decision.xVelocity = x / length * speed;
+            decision.yVelocity = y / length * speed;
+        }
+    }
+
+    /**
+     * Head along the flow field from the tile this enemy is on.
+     *
+     * @param flowField the flow field to follow.
+     * @return true if the field gave a direction, false if this enemy is not on
+     *         it.
+     */
+    private boolean followFlowField(FlowFieldManager flowField) {
+        // The field only leads to the player it follows
+        if (mainCharacter != flowField.getPlayer()) {
+            return false;
+        }
+        int direction = flowField.getDirection(Math.round(currentX()), Math.round(currentY()));
+        if (direction == FlowFieldManager.NONE) {
+            return false;
+        }
+
+        // Scaled like the straight line velocity, as both are limited to the chasing speed
+        float speed = distance(mainCharacter);
+        decision.xVelocity = FlowFieldManager.getStepX(direction) * speed;
+        decision.yVelocity = FlowFieldManager.getStepY(direction) * speed;
+        return true;
+    }
+
+    /**
+     * Work out a random velocity for wandering.
+     */
+    private void chooseWanderVelocity() {
+        double moveAngle = getRandom().nextDouble() * 2 * Math.PI;
+
+        decision.xVelocity = (float) Math.cos(moveAngle);
+        decision.yVelocity = (float) Math.sin(moveAngle);
+    }
+
+    /**
+     * Get this enemy's random stream, creating it from the world's
+     * {@link RandomManager} on first use.
+     *
+     * @return the random stream of this enemy.
+     */
+    private SplittableRandom getRandom() {
+        if (random == null) {
+            random = GameManager.getManagerFromInstance(RandomManager.class).streamFor(worldId);
+        }
+        return random;
+    }
+
+    /**
+     * Move towards the main character at chasing speed.
+     */
+    private void applyChase() {
+        this.setSpeed(getChasingSpeed());
+        move(chasingSpeed);
+    }
+
+    /**
+     * Wander at walking speed in the chosen direction.
+     */
+    private void applyWander() {
         setSpeed(getWalkingSpeed());
-        double moveAngle = new Random().nextDouble() * 2 * Math.PI;
+        move(0.01f);
+    }
+
+    /**
+     * Move at the decided velocity, limited to a speed. With a live body the
+     * velocity is handed to the physics step, and without one this enemy moves
+     * itself by the time passed since it last moved.
+     *
+     * @param limit the highest speed.
+     */
+    private void move(float limit) {
+        if (physical) {
+            getBody().setLinearVelocity(decision.xVelocity, decision.yVelocity);
+            getBody().setLinearVelocity(getBody().getLinearVelocity().limit(limit));
+
+            this.position.set(getBody().getPosition().x, getBody().getPosition().y);
+            return;
+        }
+
+        velocity.set(decision.xVelocity, decision.yVelocity).limit(limit);
+        long ticks = movedTick < 0 ? 1 : Math.max(1, decision.tick - movedTick);
+        movedTick = decision.tick;
+        float seconds = ticks * GameManager.getManagerFromInstance(TickScheduler.class).getTickMillis() / 1000f;
+        this.position.set(currentX() + velocity.x * seconds, currentY() + velocity.y * seconds);
+    }
 
-        float xDirection = (float) Math.cos(moveAngle);
-        float yDirection = (float) Math.sin(moveAngle);
+    /**
+     * Get the x-coordinate of this enemy, from its body if it has a live one.
+     *
+     * @return the x-coordinate.
+     */
+    private float currentX() {
+        return physical ? getBody().getPosition().x : getCol();
+    }
 
-        getBody().setLinearVelocity(xDirection, yDirection);
-        getBody().setLinearVelocity(getBody().getLinearVelocity().limit(0.01f));
+    /**
+     * Get the y-coordinate of this enemy, from its body if it has a live one.
+     *
+     * @return the y-coordinate.
+     */
+    private float currentY() {
+        return physical ? getBody().getPosition().y : getRow();
+    }
 
-        this.position.set(getBody().getPosition().x, getBody().getPosition().y);
+    /**
+     * Get the velocity of this enemy, from its body if it has a live one.
+     *
+     * @return the velocity, not to be changed.
+     */
+    public Vector2 getVelocity() {
+        return physical ? getBody().getLinearVelocity() : velocity;
+    }
+
+    /**
+     * Check whether this enemy has a live physics body.
+     *
+     * @return true if the enemy is in the physics simulation.
+     */
+    public boolean isPhysical() {
+        return physical;
+    }
+
+    /**
+     * Put this enemy into the physics simulation, making its body the first
+     * time and reactivating it after that, carrying over its position and
+     * velocity.
+     */
+    private void materialise() {
+        if (hasBody) {
+            getBody().setTransform(getCol(), getRow(), getBody().getAngle());
+            getBody().setActive(true);
+            getBody().setAwake(true);
+        } else {
+            this.initialiseBox2D(getCol(), getRow());
+            hasBody = true;
+        }
+        getBody().setLinearVelocity(velocity);
+        physical = true;
+    }
+
+    /**
+     * Take this enemy out of the physics simulation, copying the position and
+     * velocity of its body back so it carries on moving without it. The body is
+     * deactivated rather than destroyed, leaving the broad phase until needed.
+     */
+    private void dematerialise() {
+        position.set(getBody().getPosition().x, getBody().getPosition().y);
+        velocity.set(getBody().getLinearVelocity());
+        getBody().setActive(false);
+        physical = false;
+        movedTick = appliedTick;
     }
 
     /**
@@ -165,7 +583,10 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
     public void takeDamage(int damage) {
         hurtTime = 0;
         setHurt(true);
+        timers().schedule(hurtTimer, TimerWheelManager.ticksAfter(HURT_MILLIS));
+        changeState(EnemyState.HURT);
         health -= damage;
+        GameManager.getManagerFromInstance(CombatEventLog.class).record(CombatEventLog.Type.HURT, 0, worldId, damage);
 
         // In Peon.class, when the health = 0,
         // isDead will be set true automatically.
@@ -175,16 +596,21 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
     }
 
     /**
-     * Deals damage to the main character by lowering their health
+     * Deals damage to the main character. The damage is queued with the
+     * {@link DamageManager} and lowers their health when it is resolved.
      *
      * @param mc The main character
      */
     @Override
     public void dealDamage(MainCharacter mc) {
         setCurrentState(AnimationRole.ATTACK);
-        mc.playerHurt(this.getDamage());
-        mc.setRecovering(true);
-        SoundManager.playSound(attackingSound);
+        // Mark the player hurt straight away so no other enemy attacks them
+        // before this damage is resolved
+        mc.setHurt(true);
+        GameManager.getManagerFromInstance(DamageManager.class).enqueue(worldId, mc, this.getDamage(),
+                DamageType.PHYSICAL);
+        GameManager.getManagerFromInstance(SoundEventBus.class).request(attackingSound, getCol(), getRow(),
+                SoundEventBus.PRIORITY_NORMAL);
     }
 
     /**
@@ -214,7 +640,7 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
      */
     @Override
     public int[] getResistanceAttributes() {
-        return new int[0];
+        return NO_RESISTANCES;
     }
 
     /**
@@ -224,61 +650,138 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
      */
     public void setType(EnemyType enemyType) {
         this.enemy = enemyType;
+        this.stateMachine.reset();
+        this.stateMachine = new EnemyStateMachine(enemyType);
+    }
+
+    /**
+     * Get the type of enemy.
+     *
+     * @return the type of the enemy.
+     */
+    public EnemyType getEnemyType() {
+        return this.enemy;
     }
 
     /**
-     * If the animation is moving sets the animation state to be Move else NULL.
-     * Also sets the direction
+     * Sets the texture and the direction the enemy faces. The animation state is
+     * set by the state machine when a state is entered.
      */
     public void updateAnimation() {
         setTexture(getDefaultTexture());
-        double angle = Math.atan2(getBody().getLinearVelocity().y, getBody().getLinearVelocity().x);
+        Vector2 current = getVelocity();
 
-        setCurrentDirection(movementDirection(angle));
-
-        /* Short Animations */
-        if (getToBeRun() != null) {
-            if (getToBeRun().getType() == AnimationRole.ATTACK) {
-                return;
-            } else if (getToBeRun().getType() == AnimationRole.DEAD) {
-                setCurrentState(AnimationRole.STILL);
-            }
-        }
-
-        if (isHurt) {
-             setCurrentState(AnimationRole.HURT);
-        }
+        setCurrentDirection(DirectionUtil.enemyDirection(current.x, current.y));
     }
 
     /**
-     * Handles the action of the enemy per time tick in game.
+     * Handles the action of the enemy per time tick in game. Enemies already
+     * stepped this tick by the {@link EnemyAIManager} batch are skipped.
      *
      * @param tick number of second tin the game.
      */
     @Override
     public void onTick(long tick) {
+        if (hasActedOnTick(tick) || !prepareTick(tick)) {
+            return;
+        }
+        TickProfiler profiler = GameManager.getManagerFromInstance(TickProfiler.class);
+        long start = profiler.begin();
+        decide(tick);
+        applyDecision();
+        profiler.end(getProfilerScope(), start);
+    }
+
+    /**
+     * Get the {@link TickProfiler} scope this enemy's tick is timed under, one
+     * per type of enemy.
+     *
+     * @return the id of the scope.
+     */
+    public int getProfilerScope() {
+        return enemy == null ? UNTYPED_PROFILER_SCOPE : PROFILER_SCOPES[enemy.ordinal()];
+    }
+
+    /**
+     * Move this enemy between level-of-detail tiers based on its distance to the
+     * player it chases, and work out whether it should be stepped this tick. Every
+     * so often it looks again for the nearest player. Enemies that are skipped
+     * are marked as having acted on this tick.
+     *
+     * @param tick the current game tick.
+     * @return true if the enemy should decide and apply this tick.
+     */
+    public boolean prepareTick(long tick) {
         if (isDead()) {
-            if (deadTime < 500) {
-                deadTime += 20;
-                setCurrentState(AnimationRole.DEAD);
-            } else {
-                die();
-            }
-        } else {
-            if (this.distance(mainCharacter) < attackRange &&
-                    !(mainCharacter.isDead() || mainCharacter.isRecovering() || mainCharacter.isHurt())) {
-                attackAction();
-                setCurrentState(AnimationRole.ATTACK);
-            } else {
-                setCurrentState(AnimationRole.MOVE);
-                randomMoveAction();
-            }
-            if (isHurt) {
-                setCurrentState(AnimationRole.HURT);
-                checkIfHurtEnded();
+            // Dying enemies always finish dying so they leave the world
+            return true;
+        }
+
+        if ((tick + worldId) % RETARGET_TICKS == 0) {
+            chooseTarget();
+        }
+
+        EnemyLod.Settings lod = EnemyLod.settingsFor(enemy);
+        // With no player to chase the enemy is as far from one as it can be
+        float distance = mainCharacter == null ? Float.MAX_VALUE : distance(mainCharacter);
+        EnemyLod.Tier tier = lod.tierFor(lodTier, distance);
+        if (tier != lodTier) {
+            changeLodTier(tier, tick);
+        }
+
+        boolean wantBody = lod.isPhysicalAt(physical, distance);
+        if (wantBody && !physical) {
+            materialise();
+        } else if (!wantBody && physical) {
+            dematerialise();
+        }
+
+        boolean act;
+        switch (lodTier) {
+            case NEAR:
+                act = true;
+                break;
+            case MID:
+                act = (tick - lodTierEnteredTick) % lod.getMidTickInterval() == 0;
+                break;
+            default:
+                act = false;
+                break;
+        }
+        if (!act) {
+            appliedTick = tick;
+        }
+        return act;
+    }
+
+    /**
+     * Put this enemy in a new level-of-detail tier. Far enemies stop moving and
+     * any live body is put to sleep, and is woken again when they come back.
+     *
+     * @param tier the new tier.
+     * @param tick the current game tick.
+     */
+    private void changeLodTier(EnemyLod.Tier tier, long tick) {
+        if (tier == EnemyLod.Tier.FAR) {
+            velocity.setZero();
+            if (physical) {
+                getBody().setLinearVelocity(0f, 0f);
+                getBody().setAwake(false);
             }
-            this.updateAnimation();
+        } else if (lodTier == EnemyLod.Tier.FAR && physical) {
+            getBody().setAwake(true);
         }
+        lodTier = tier;
+        lodTierEnteredTick = tick;
+    }
+
+    /**
+     * Get the level-of-detail tier this enemy is in.
+     *
+     * @return the level-of-detail tier of this enemy.
+     */
+    public EnemyLod.Tier getLodTier() {
+        return lodTier;
     }
 
     /**
@@ -309,19 +812,12 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
     }
 
     /**
-     * Set default texture of the enemy in 8 different directions.
+     * Set default texture of the enemy in 8 different directions, shared by all
+     * enemies of the same type.
      */
     @Override
     public void setDirectionTextures() {
-        String animationNameStart = "__ANIMATION_" + this.enemy.name();
-        defaultDirectionTextures.put(Direction.EAST, animationNameStart + "MoveE:0");
-        defaultDirectionTextures.put(Direction.WEST, animationNameStart + "MoveW:0");
-        defaultDirectionTextures.put(Direction.SOUTH, animationNameStart + "MoveS:0");
-        defaultDirectionTextures.put(Direction.NORTH, animationNameStart + "MoveN:0");
-        defaultDirectionTextures.put(Direction.NORTH_EAST, animationNameStart + "MoveNE:0");
-        defaultDirectionTextures.put(Direction.NORTH_WEST, animationNameStart + "MoveNW:0");
-        defaultDirectionTextures.put(Direction.SOUTH_EAST, animationNameStart + "MoveSE:0");
-        defaultDirectionTextures.put(Direction.SOUTH_WEST, animationNameStart + "MoveSW:0");
+        defaultDirectionTextures = getAnimationTable().getDirectionTextures();
     }
 
     /**
@@ -340,55 +836,69 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
      */
     @Override
     public void configureAnimations() {
-        String enemyName = this.enemy.name();
-
-        // Move animations
-        this.addAnimations(AnimationRole.MOVE, Direction.NORTH,
-                new AnimationLinker(enemyName + "MoveN", AnimationRole.MOVE, Direction.NORTH, true, true));
-        this.addAnimations(AnimationRole.MOVE, Direction.NORTH_EAST,
-                new AnimationLinker(enemyName + "MoveNE", AnimationRole.MOVE, Direction.NORTH_EAST, true, true));
-        this.addAnimations(AnimationRole.MOVE, Direction.NORTH_WEST,
-                new AnimationLinker(enemyName + "MoveNW", AnimationRole.MOVE, Direction.NORTH_WEST, true, true));
-        this.addAnimations(AnimationRole.MOVE, Direction.SOUTH,
-                new AnimationLinker(enemyName + "MoveS", AnimationRole.MOVE, Direction.SOUTH, true, true));
-        this.addAnimations(AnimationRole.MOVE, Direction.WEST,
-                new AnimationLinker(enemyName + "MoveW", AnimationRole.MOVE, Direction.WEST, true, true));
-        this.addAnimations(AnimationRole.MOVE, Direction.SOUTH_EAST,
-                new AnimationLinker(enemyName + "MoveSE", AnimationRole.MOVE, Direction.SOUTH_EAST, true, true));
-        this.addAnimations(AnimationRole.MOVE, Direction.SOUTH_WEST,
-                new AnimationLinker(enemyName + "MoveSW", AnimationRole.MOVE, Direction.SOUTH_WEST, true, true));
-
-        // Attack animations
-        this.addAnimations(AnimationRole.ATTACK, Direction.EAST,
-                new AnimationLinker(enemyName + "AttackE", AnimationRole.ATTACK, Direction.EAST, true, true));
-        this.addAnimations(AnimationRole.ATTACK, Direction.NORTH,
-                new AnimationLinker(enemyName + "AttackN", AnimationRole.ATTACK, Direction.NORTH, true, true));
-        this.addAnimations(AnimationRole.ATTACK, Direction.SOUTH,
-                new AnimationLinker(enemyName + "AttackS", AnimationRole.ATTACK, Direction.SOUTH, true, true));
-        this.addAnimations(AnimationRole.ATTACK, Direction.SOUTH_EAST,
-                new AnimationLinker(enemyName + "AttackSE", AnimationRole.ATTACK, Direction.SOUTH_EAST, true, true));
-        this.addAnimations(AnimationRole.ATTACK, Direction.SOUTH_WEST,
-                new AnimationLinker(enemyName + "AttackSW", AnimationRole.ATTACK, Direction.SOUTH_WEST, true, true));
-        this.addAnimations(AnimationRole.ATTACK, Direction.WEST,
-                new AnimationLinker(enemyName + "AttackW", AnimationRole.ATTACK, Direction.WEST, true, true));
-
-        // Hurt animations
-        this.addAnimations(AnimationRole.HURT, Direction.EAST,
-                new AnimationLinker(enemyName + "DamageE", AnimationRole.HURT, Direction.EAST, true, true));
-        this.addAnimations(AnimationRole.HURT, Direction.NORTH,
-                new AnimationLinker(enemyName + "DamageN", AnimationRole.HURT, Direction.NORTH, true, true));
-        this.addAnimations(AnimationRole.HURT, Direction.SOUTH,
-                new AnimationLinker(enemyName + "DamageS", AnimationRole.HURT, Direction.SOUTH, true, true));
-        this.addAnimations(AnimationRole.HURT, Direction.SOUTH_EAST,
-                new AnimationLinker(enemyName + "DamageSE", AnimationRole.HURT, Direction.SOUTH_EAST, true, true));
-        this.addAnimations(AnimationRole.HURT, Direction.SOUTH_WEST,
-                new AnimationLinker(enemyName + "DamageSW", AnimationRole.HURT, Direction.SOUTH_WEST, true, true));
-        this.addAnimations(AnimationRole.HURT, Direction.WEST,
-                new AnimationLinker(enemyName + "DamageW", AnimationRole.HURT, Direction.WEST, true, true));
-
-        // Dead animation
-        this.addAnimations(AnimationRole.DEAD, Direction.DEFAULT,
-                new AnimationLinker("enemyDie", AnimationRole.DEAD, Direction.DEFAULT, false, true));
+        for (AnimationTable.Entry entry : getAnimationTable().getEntries()) {
+            this.addAnimations(entry.getRole(), entry.getDirection(), entry.newLinker());
+        }
+    }
+
+    /**
+     * Get the animation table shared by every enemy of this enemy's type.
+     *
+     * @return the animation table for this enemy's type.
+     */
+    private AnimationTable getAnimationTable() {
+        return AnimationTable.get(this.enemy.name(), () -> buildAnimationTable(this.enemy));
+    }
+
+    /**
+     * Build the animation table for a type of enemy. Only called once per type.
+     *
+     * @param enemyType the type of enemy.
+     * @return the animation table for that type.
+     */
+    private static AnimationTable buildAnimationTable(EnemyType enemyType) {
+        String enemyName = enemyType.name();
+        String animationNameStart = "__ANIMATION_" + enemyName;
+
+        return AnimationTable.builder()
+                // Default textures
+                .directionTexture(Direction.EAST, animationNameStart + "MoveE:0")
+                .directionTexture(Direction.WEST, animationNameStart + "MoveW:0")
+                .directionTexture(Direction.SOUTH, animationNameStart + "MoveS:0")
+                .directionTexture(Direction.NORTH, animationNameStart + "MoveN:0")
+                .directionTexture(Direction.NORTH_EAST, animationNameStart + "MoveNE:0")
+                .directionTexture(Direction.NORTH_WEST, animationNameStart + "MoveNW:0")
+                .directionTexture(Direction.SOUTH_EAST, animationNameStart + "MoveSE:0")
+                .directionTexture(Direction.SOUTH_WEST, animationNameStart + "MoveSW:0")
+
+                // Move animations
+                .animation(enemyName + "MoveN", AnimationRole.MOVE, Direction.NORTH, true, true)
+                .animation(enemyName + "MoveNE", AnimationRole.MOVE, Direction.NORTH_EAST, true, true)
+                .animation(enemyName + "MoveNW", AnimationRole.MOVE, Direction.NORTH_WEST, true, true)
+                .animation(enemyName + "MoveS", AnimationRole.MOVE, Direction.SOUTH, true, true)
+                .animation(enemyName + "MoveW", AnimationRole.MOVE, Direction.WEST, true, true)
+                .animation(enemyName + "MoveSE", AnimationRole.MOVE, Direction.SOUTH_EAST, true, true)
+                .animation(enemyName + "MoveSW", AnimationRole.MOVE, Direction.SOUTH_WEST, true, true)
+
+                // Attack animations
+                .animation(enemyName + "AttackE", AnimationRole.ATTACK, Direction.EAST, true, true)
+                .animation(enemyName + "AttackN", AnimationRole.ATTACK, Direction.NORTH, true, true)
+                .animation(enemyName + "AttackS", AnimationRole.ATTACK, Direction.SOUTH, true, true)
+                .animation(enemyName + "AttackSE", AnimationRole.ATTACK, Direction.SOUTH_EAST, true, true)
+                .animation(enemyName + "AttackSW", AnimationRole.ATTACK, Direction.SOUTH_WEST, true, true)
+                .animation(enemyName + "AttackW", AnimationRole.ATTACK, Direction.WEST, true, true)
+
+                // Hurt animations
+                .animation(enemyName + "DamageE", AnimationRole.HURT, Direction.EAST, true, true)
+                .animation(enemyName + "DamageN", AnimationRole.HURT, Direction.NORTH, true, true)
+                .animation(enemyName + "DamageS", AnimationRole.HURT, Direction.SOUTH, true, true)
+                .animation(enemyName + "DamageSE", AnimationRole.HURT, Direction.SOUTH_EAST, true, true)
+                .animation(enemyName + "DamageSW", AnimationRole.HURT, Direction.SOUTH_WEST, true, true)
+                .animation(enemyName + "DamageW", AnimationRole.HURT, Direction.WEST, true, true)
+
+                // Dead animation
+                .animation("enemyDie", AnimationRole.DEAD, Direction.DEFAULT, false, true)
+                .build();
     }
 
     /**
@@ -537,71 +1047,199 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
      */
     public void setHurt(boolean isHurt) {
         this.isHurt = isHurt;
+        // Make sure a hurt started from outside also ends
+        if (isHurt) {
+            TimerWheelManager wheel = timers();
+            if (!hurtTimer.isPending()) {
+                wheel.schedule(hurtTimer, TimerWheelManager.ticksAfter(HURT_MILLIS));
+            }
+        } else if (hurtTimer != null) {
+            timers().cancel(hurtTimer);
+        }
     }
 
     /**
      * Check whether the hurt time is within 2 seconds, therefore casting hurt
-     * effects on enemy.
+     * effects on enemy. The hurt timer ends the hurt on its own, this counts it
+     * down by hand.
      */
     public void checkIfHurtEnded() {
-        hurtTime += 20; // hurt for 1 second
-        if (hurtTime > 340) {
-            logger.info("Hurt ended");
-            setHurt(false);
-            hurtTime = 0;
+        hurtTime += GameManager.getManagerFromInstance(TickScheduler.class).getTickMillis(); // hurt for 1 second
+        if (hurtTime > HURT_MILLIS) {
+            endHurt();
+        }
+    }
+
+    /**
+     * End this enemy's hurt.
+     */
+    private void endHurt() {
+        GameManager.getManagerFromInstance(CombatEventLog.class).record(CombatEventLog.Type.HURT_ENDED, 0,
+                worldId, 0);
+        setHurt(false);
+        hurtTime = 0;
+    }
+
+    /**
+     * Cancel this enemy's hurt and death timers.
+     */
+    private void cancelTimers() {
+        if (hurtTimer != null) {
+            TimerWheelManager wheel = timers();
+            wheel.cancel(hurtTimer);
+            wheel.cancel(deathTimer);
+        }
+    }
+
+    /**
+     * Chase the player nearest this enemy. If no player was registered the enemy
+     * has no target and wanders.
+     */
+    private void chooseTarget() {
+        this.setMainCharacter(GameManager.getManagerFromInstance(PlayerRegistry.class)
+                .getNearest(getCol(), getRow()));
+    }
+
+    /**
+     * Get the timer wheel, making this enemy's timers the first time.
+     *
+     * @return the timer wheel.
+     */
+    private TimerWheelManager timers() {
+        TimerWheelManager wheel = GameManager.getManagerFromInstance(TimerWheelManager.class);
+        if (hurtTimer == null) {
+            hurtTimer = wheel.newTimer(this::endHurt);
+            deathTimer = wheel.newTimer(this::die);
+        }
+        return wheel;
+    }
+
+    /**
+     * Take this enemy out of the physics simulation while it waits in the
+     * {@link EnemyPoolManager}. The body is disabled rather than destroyed so it
+     * can be reused.
+     */
+    public void park() {
+        if (physical) {
+            getBody().setLinearVelocity(0f, 0f);
+            getBody().setActive(false);
+            physical = false;
+        }
+        velocity.setZero();
+    }
+
+    /**
+     * Destroy this enemy's body for good, for enemies the pool will not keep.
+     */
+    public void discard() {
+        stateMachine.reset();
+        if (hasBody) {
+            getBody().getWorld().destroyBody(getBody());
+            hasBody = false;
+            physical = false;
+        }
+    }
+
+    /**
+     * Bring a parked enemy back to life at a new position, with its state reset
+     * as if it had just been constructed.
+     *
+     * @param col     the x-coordinate of the enemy.
+     * @param row     the y-coordinate of the enemy.
+     * @param scaling the factor the enemy's stat is scale in this enemy.
+     * @param biome   the biome this enemy is in.
+     */
+    public void respawn(float col, float row, float scaling, String biome) {
+        // The body, if any, stays parked until the first tick finds the enemy
+        // within the physics radius
+        park();
+        this.setPosition(col, row);
+        this.movedTick = -1;
+
+        this.setBiome(biome);
+        this.setDead(false);
+        this.setHurt(false);
+        this.hurtTime = 0;
+        cancelTimers();
+        this.appliedTick = -1;
+        this.life++;
+        this.lodTier = EnemyLod.Tier.NEAR;
+        this.chooseTarget();
+        this.resetStats(scaling);
+        stateMachine.reset();
+        setCurrentState(AnimationRole.NULL);
+    }
+
+    /**
+     * Reset this enemy's health, damage, range and speeds for a scaling factor.
+     * Spawnable enemies override this with their default values, and it is
+     * called when a pooled enemy is respawned.
+     *
+     * @param scaling the factor the enemy's stat is scale in this enemy.
+     */
+    protected void resetStats(float scaling) {
+        // Plain enemies keep whatever values they were given
+    }
+
+    /**
+     * Get a parked enemy of this enemy's type from the pool and respawn it.
+     *
+     * @param clazz   the class of enemy wanted.
+     * @param col     the x-coordinate of the enemy.
+     * @param row     the y-coordinate of the enemy.
+     * @param scaling the factor the enemy's stat is scale in this enemy.
+     * @param biome   the biome this enemy is in.
+     * @param <T>     the class of enemy wanted.
+     * @return the respawned enemy, or null if the pool has none.
+     */
+    protected <T extends Enemy> T respawnFromPool(Class<T> clazz, float col, float row, float scaling,
+                                                  String biome) {
+        T recycled = GameManager.getManagerFromInstance(EnemyPoolManager.class).acquire(enemy, clazz);
+        if (recycled != null) {
+            recycled.respawn(col, row, scaling, biome);
         }
+        return recycled;
     }
 
     /**
-     * Remove this enemy from the game world.
+     * Remove this enemy from the game world and hand it to the pool for reuse.
      */
     private void die() {
+        if (getState() == EnemyState.DEAD) {
+            // Already gone, e.g. the death timer firing after a second killing blow
+            return;
+        }
         if (isDead()) {
+            SoundEventBus sounds = GameManager.getManagerFromInstance(SoundEventBus.class);
             if (getChaseSound() != null) {
-                SoundManager.stopSound(getChaseSound());
+                sounds.stop(getChaseSound());
             }
             if (getDeadSound() != null) {
-                SoundManager.playSound(getDeadSound());
+                sounds.request(getDeadSound(), getCol(), getRow(), SoundEventBus.PRIORITY_NORMAL);
 
                 this.setDead(true);
-                logger.info("Enemy destroyed.");
+                GameManager.getManagerFromInstance(CombatEventLog.class).record(CombatEventLog.Type.DEATH, 0,
+                        worldId, 0);
+                GameEvents.enemyDied(getEnemyType(), biome);
 
-                setCurrentState(AnimationRole.NULL);
+                // Nothing from this life may fire once the enemy is pooled
+                cancelTimers();
+                changeState(EnemyState.DEAD);
                 GameManager.get().getWorld().removeEntity(this);
+                GameManager.getManagerFromInstance(EnemyPoolManager.class).release(this);
             }
         }
     }
 
     /**
-     * Get movement direction
+     * Get movement direction. The per-tick animation update maps the velocity
+     * straight to a direction with {@link DirectionUtil#enemyDirection}, without
+     * going through an angle.
      *
      * @param angle the angle between to tile
      */
     public Direction movementDirection(double angle) {
-        angle = Math.toDegrees(angle - Math.PI);
-
-        if (angle < 0) {
-            angle += 360;
-        }
-
-        if (between(angle, 0, 45)) {
-            return Direction.WEST;
-        } else if (between(angle, 46, 90)) {
-            return Direction.SOUTH_WEST;
-        } else if (between(angle, 91, 135.5)) {
-            return Direction.SOUTH;
-        } else if (between(angle, 136, 180.5)) {
-            return Direction.SOUTH_EAST;
-        } else if (between(angle, 181, 225.5)) {
-            return Direction.EAST;
-        } else if (between(angle, 226, 270.9)) {
-            return Direction.NORTH_EAST;
-        } else if (between(angle, 271, 315.9)) {
-            return Direction.NORTH;
-        } else if (between(angle, 316, 360)) {
-            return Direction.NORTH_WEST;
-        }
-        return null;
+        return DirectionUtil.enemyDirection((float) Math.cos(angle), (float) Math.sin(angle));
     }
 
     /**
@@ -617,6 +1255,16 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
         this.hurtTime = hurtTime;
     }
 
+    /**
+     * Get the world-unique id of this enemy.
+     *
+     * @return the id of this enemy.
+     */
+    @Override
+    public long getWorldId() {
+        return worldId;
+    }
+
     /**
      * @return string representation of this class including its enemy type, biome
      *         and x,y coordinates
@@ -627,24 +1275,25 @@ public class Enemy extends Peon implements Animatable, ICombatEntity, Tickable {
     }
 
     /**
-     * Check whether the object equals to this enemy instance.
+     * Check whether the object equals to this enemy instance. Enemies are equal
+     * only if they have the same world id.
      *
      * @param obj the object to be checked
      * @return true if the objects equals, false otherwise.
      */
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof Enemy && this.hashCode() == obj.hashCode();
+        return obj instanceof Enemy && this.worldId == ((Enemy) obj).worldId;
     }
 
     /**
-     * The hashcode of the enemy based on {@link #toString()}. It will be used in
+     * The hashcode of the enemy based on its world id. It will be used in
      * {@link #equals(Object)} for comparing objects.
      *
      * @return the hashcode of the enemy instance.
      */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return Long.hashCode(worldId);
     }
 }
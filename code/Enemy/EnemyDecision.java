@@ -0,0 +1,26 @@
+package deco2800.skyfall.entities.enemies;
+
+/**
+ * The outcome of an enemy's read-only decide phase for one tick. Each enemy
+ * owns a single instance that is overwritten every tick, so deciding does not
+ * allocate.
+ */
+class EnemyDecision {
+
+    /**
+     * What the enemy chose to do this tick.
+     */
+    enum Action {
+        WANDER, CHASE, DIE
+    }
+
+    // The tick this decision was made for
+    long tick = -1;
+
+    // The chosen action
+    Action action = Action.WANDER;
+
+    // The velocity the enemy wants its body to move at
+    float xVelocity;
+    float yVelocity;
+}
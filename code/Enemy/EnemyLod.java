@@ -0,0 +1,159 @@
+package deco2800.skyfall.entities.enemies;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Simulation level-of-detail settings for enemies. Enemies close to the main
+ * character run their AI and animation every tick, enemies in the middle band
+ * only every few ticks, and far away enemies put their body to sleep and do not
+ * tick at all. Only enemies within the physics radius have a live physics body;
+ * the rest move on their own position and velocity. The distances can be set
+ * for each {@link Enemy.EnemyType}.
+ */
+public final class EnemyLod {
+
+    /**
+     * How much simulation work an enemy does.
+     */
+    public enum Tier {
+        NEAR, MID, FAR
+    }
+
+    /**
+     * The level-of-detail distances for one type of enemy.
+     */
+    public static final class Settings {
+        private final float nearRadius;
+        private final float farRadius;
+        private final int midTickInterval;
+        private final float hysteresis;
+        private final float physicsRadius;
+
+        /**
+         * Create new level-of-detail settings, with enemies having a physics
+         * body out to the far radius.
+         *
+         * @param nearRadius      the distance within which the enemy ticks every tick.
+         * @param farRadius       the distance beyond which the enemy sleeps.
+         * @param midTickInterval how many ticks apart the enemy ticks in between.
+         * @param hysteresis      how far past a boundary the enemy must move before
+         *                        dropping to a lower tier, so that enemies standing
+         *                        on a boundary do not flick between tiers.
+         */
+        public Settings(float nearRadius, float farRadius, int midTickInterval, float hysteresis) {
+            this(nearRadius, farRadius, midTickInterval, hysteresis, farRadius);
+        }
+
+        /**
+         * Create new level-of-detail settings.
+         *
+         * @param nearRadius      the distance within which the enemy ticks every tick.
+         * @param farRadius       the distance beyond which the enemy sleeps.
+         * @param midTickInterval how many ticks apart the enemy ticks in between.
+         * @param hysteresis      how far past a boundary the enemy must move before
+         *                        dropping to a lower tier or losing its body.
+         * @param physicsRadius   the distance within which the enemy has a live
+         *                        physics body.
+         */
+        public Settings(float nearRadius, float farRadius, int midTickInterval, float hysteresis,
+                        float physicsRadius) {
+            if (nearRadius > farRadius || midTickInterval < 1 || hysteresis < 0 || physicsRadius < 0) {
+                throw new IllegalArgumentException("Invalid enemy level-of-detail settings");
+            }
+            this.nearRadius = nearRadius;
+            this.farRadius = farRadius;
+            this.midTickInterval = midTickInterval;
+            this.hysteresis = hysteresis;
+            this.physicsRadius = physicsRadius;
+        }
+
+        public float getNearRadius() {
+            return nearRadius;
+        }
+
+        public float getFarRadius() {
+            return farRadius;
+        }
+
+        public int getMidTickInterval() {
+            return midTickInterval;
+        }
+
+        public float getHysteresis() {
+            return hysteresis;
+        }
+
+        public float getPhysicsRadius() {
+            return physicsRadius;
+        }
+
+        /**
+         * Work out whether an enemy at a distance from the main character should
+         * have a live physics body.
+         *
+         * @param physical whether the enemy has a live body now.
+         * @param distance the distance to the main character.
+         * @return true if the enemy should have a live body.
+         */
+        public boolean isPhysicalAt(boolean physical, float distance) {
+            return distance <= (physical ? physicsRadius + hysteresis : physicsRadius);
+        }
+
+        /**
+         * Work out the tier for an enemy at a distance from the main character.
+         *
+         * @param current  the tier the enemy is currently in.
+         * @param distance the distance to the main character.
+         * @return the tier the enemy should be in.
+         */
+        public Tier tierFor(Tier current, float distance) {
+            // Moving closer takes effect straight away, moving away only once past
+            // the boundary by the hysteresis margin.
+            float nearLimit = current == Tier.NEAR ? nearRadius + hysteresis : nearRadius;
+            float farLimit = current == Tier.FAR ? farRadius : farRadius + hysteresis;
+
+            if (distance <= nearLimit) {
+                return Tier.NEAR;
+            } else if (distance <= farLimit) {
+                return Tier.MID;
+            }
+            return Tier.FAR;
+        }
+    }
+
+    // Used for enemies without a type and types that have not been configured
+    public static final Settings DEFAULT_SETTINGS = new Settings(15f, 40f, 4, 2f, 20f);
+
+    // Replaced as a whole on every change, so enemies can read it every tick without locking
+    private static volatile Map<Enemy.EnemyType, Settings> settings = new EnumMap<>(Enemy.EnemyType.class);
+
+    private EnemyLod() {
+        // Static settings only
+    }
+
+    /**
+     * Set the level-of-detail distances for a type of enemy.
+     *
+     * @param type         the type of enemy.
+     * @param typeSettings the settings to use for that type.
+     */
+    public static synchronized void configure(Enemy.EnemyType type, Settings typeSettings) {
+        Map<Enemy.EnemyType, Settings> updated = new EnumMap<>(settings);
+        updated.put(type, typeSettings);
+        settings = updated;
+    }
+
+    /**
+     * Get the level-of-detail distances for a type of enemy.
+     *
+     * @param type the type of enemy, may be null.
+     * @return the settings for that type.
+     */
+    public static Settings settingsFor(Enemy.EnemyType type) {
+        if (type == null) {
+            return DEFAULT_SETTINGS;
+        }
+        return settings.getOrDefault(type, DEFAULT_SETTINGS);
+    }
+}
@@ -0,0 +1,76 @@
+package deco2800.skyfall.entities.enemies;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the level-of-detail tiers enemies are put in by distance.
+ */
+public class EnemyLodTest {
+
+    // Near out to 10, far beyond 20, with a margin of 2 before dropping a tier
+    private final EnemyLod.Settings settings = new EnemyLod.Settings(10f, 20f, 4, 2f, 15f);
+
+    @After
+    public void tearDown() {
+        EnemyLod.configure(Enemy.EnemyType.SCOUT, EnemyLod.DEFAULT_SETTINGS);
+    }
+
+    /**
+     * Test enemies come into the near tier at its edge, but only drop out of
+     * it once past the edge by the hysteresis margin.
+     */
+    @Test
+    public void nearEdgeTest() {
+        Assert.assertEquals(EnemyLod.Tier.NEAR, settings.tierFor(EnemyLod.Tier.MID, 10f));
+        Assert.assertEquals(EnemyLod.Tier.MID, settings.tierFor(EnemyLod.Tier.MID, 11f));
+
+        Assert.assertEquals(EnemyLod.Tier.NEAR, settings.tierFor(EnemyLod.Tier.NEAR, 11f));
+        Assert.assertEquals(EnemyLod.Tier.NEAR, settings.tierFor(EnemyLod.Tier.NEAR, 12f));
+        Assert.assertEquals(EnemyLod.Tier.MID, settings.tierFor(EnemyLod.Tier.NEAR, 12.5f));
+    }
+
+    /**
+     * Test enemies come out of the far tier at its edge, but only drop into it
+     * once past the edge by the hysteresis margin.
+     */
+    @Test
+    public void farEdgeTest() {
+        Assert.assertEquals(EnemyLod.Tier.MID, settings.tierFor(EnemyLod.Tier.FAR, 20f));
+        Assert.assertEquals(EnemyLod.Tier.FAR, settings.tierFor(EnemyLod.Tier.FAR, 21f));
+
+        Assert.assertEquals(EnemyLod.Tier.MID, settings.tierFor(EnemyLod.Tier.MID, 21f));
+        Assert.assertEquals(EnemyLod.Tier.MID, settings.tierFor(EnemyLod.Tier.MID, 22f));
+        Assert.assertEquals(EnemyLod.Tier.FAR, settings.tierFor(EnemyLod.Tier.MID, 22.5f));
+
+        // Straight from near to far, past both margins
+        Assert.assertEquals(EnemyLod.Tier.FAR, settings.tierFor(EnemyLod.Tier.NEAR, 30f));
+    }
+
+    /**
+     * Test bodies are made at the physics radius, and kept until past it by the
+     * hysteresis margin.
+     */
+    @Test
+    public void physicsRadiusTest() {
+        Assert.assertTrue(settings.isPhysicalAt(false, 15f));
+        Assert.assertFalse(settings.isPhysicalAt(false, 16f));
+        Assert.assertTrue(settings.isPhysicalAt(true, 17f));
+        Assert.assertFalse(settings.isPhysicalAt(true, 17.5f));
+    }
+
+    /**
+     * Test a type configured with its own settings uses them, while other
+     * types keep the defaults.
+     */
+    @Test
+    public void configureTest() {
+        Assert.assertSame(EnemyLod.DEFAULT_SETTINGS, EnemyLod.settingsFor(Enemy.EnemyType.SCOUT));
+
+        EnemyLod.configure(Enemy.EnemyType.SCOUT, settings);
+        Assert.assertSame(settings, EnemyLod.settingsFor(Enemy.EnemyType.SCOUT));
+        Assert.assertSame(EnemyLod.DEFAULT_SETTINGS, EnemyLod.settingsFor(Enemy.EnemyType.HEAVY));
+        Assert.assertSame(EnemyLod.DEFAULT_SETTINGS, EnemyLod.settingsFor(null));
+    }
+}
@@ -0,0 +1,37 @@
+package deco2800.skyfall.entities.enemies;
+
+import deco2800.skyfall.animation.AnimationRole;
+
+/**
+ * The states of an enemy's behaviour. Each state has the animation the enemy
+ * plays while in it, set once when the state is entered.
+ */
+public enum EnemyState {
+    // Walking about at random
+    WANDER(AnimationRole.MOVE),
+    // Moving towards the main character
+    CHASE(AnimationRole.ATTACK),
+    // In reach of the main character and hitting them
+    ATTACK(AnimationRole.ATTACK),
+    // Flinching after being hit, still moving as decided
+    HURT(AnimationRole.HURT),
+    // Playing the death animation before leaving the world
+    DYING(AnimationRole.DEAD),
+    // Out of the world, waiting in the pool or to be thrown away
+    DEAD(AnimationRole.NULL);
+
+    private final AnimationRole animation;
+
+    EnemyState(AnimationRole animation) {
+        this.animation = animation;
+    }
+
+    /**
+     * Get the animation played in this state.
+     *
+     * @return the animation role.
+     */
+    public AnimationRole getAnimation() {
+        return animation;
+    }
+}
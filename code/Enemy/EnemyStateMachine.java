@@ -0,0 +1,258 @@
+package deco2800.skyfall.entities.enemies;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tracks which {@link EnemyState} an enemy is in. Each tick the enemy works out
+ * the state it wants to be in and the transition table of its
+ * {@link Enemy.EnemyType} gives the state it actually moves to, so types can
+ * differ in what may interrupt what. The number of enemies in each state is
+ * counted for diagnostics.
+ *
+ * State changes and the counts are only made on the game thread.
+ */
+public final class EnemyStateMachine {
+
+    private static final EnemyState[] STATES = EnemyState.values();
+
+    /**
+     * A compiled transition table, giving the next state for every current
+     * state and wanted state.
+     */
+    public static final class Table {
+        private final EnemyState[][] next;
+
+        private Table(EnemyState[][] next) {
+            this.next = next;
+        }
+
+        /**
+         * Get the state to move to.
+         *
+         * @param current the current state.
+         * @param wanted  the state the enemy wants to be in.
+         * @return the state to move to, which may be the current state.
+         */
+        public EnemyState next(EnemyState current, EnemyState wanted) {
+            return next[current.ordinal()][wanted.ordinal()];
+        }
+
+        /**
+         * Start a table where every wanted state is moved to straight away.
+         *
+         * @return a new builder.
+         */
+        public static Builder builder() {
+            return new Builder();
+        }
+    }
+
+    /**
+     * Builds a transition table.
+     */
+    public static final class Builder {
+        private final EnemyState[][] next = new EnemyState[STATES.length][STATES.length];
+
+        private Builder() {
+            for (EnemyState current : STATES) {
+                for (EnemyState wanted : STATES) {
+                    next[current.ordinal()][wanted.ordinal()] = wanted;
+                }
+            }
+        }
+
+        /**
+         * Set the state moved to when in one state and wanting another.
+         *
+         * @param current the current state.
+         * @param wanted  the wanted state.
+         * @param result  the state moved to.
+         * @return this builder.
+         */
+        public Builder transition(EnemyState current, EnemyState wanted, EnemyState result) {
+            next[current.ordinal()][wanted.ordinal()] = result;
+            return this;
+        }
+
+        /**
+         * Stay in a state whatever state is wanted, apart from the given ones.
+         *
+         * @param current the state to stay in.
+         * @param exits   the wanted states that are still moved to.
+         * @return this builder.
+         */
+        public Builder holdUnless(EnemyState current, EnemyState... exits) {
+            for (EnemyState wanted : STATES) {
+                next[current.ordinal()][wanted.ordinal()] = current;
+            }
+            for (EnemyState exit : exits) {
+                next[current.ordinal()][exit.ordinal()] = exit;
+            }
+            return this;
+        }
+
+        /**
+         * Compile the table.
+         *
+         * @return the table.
+         */
+        public Table build() {
+            EnemyState[][] copy = new EnemyState[STATES.length][];
+            for (int i = 0; i < STATES.length; i++) {
+                copy[i] = next[i].clone();
+            }
+            return new Table(copy);
+        }
+    }
+
+    // Dying enemies only go on to be dead, and dead ones stay dead until respawned
+    public static final Table DEFAULT_TABLE = Table.builder()
+            .holdUnless(EnemyState.DYING, EnemyState.DEAD)
+            .holdUnless(EnemyState.DEAD)
+            .build();
+
+    // Scouts close in before they attack, and a hit knocks them back to
+    // closing in again
+    public static final Table SCOUT_TABLE = typeTable()
+            .transition(EnemyState.HURT, EnemyState.ATTACK, EnemyState.CHASE)
+            .build();
+
+    public static final Table MEDIUM_TABLE = typeTable().build();
+
+    // Heavies are not staggered by hits once they are going for the player
+    public static final Table HEAVY_TABLE = typeTable()
+            .transition(EnemyState.CHASE, EnemyState.HURT, EnemyState.CHASE)
+            .transition(EnemyState.ATTACK, EnemyState.HURT, EnemyState.ATTACK)
+            .build();
+
+    // Abductors hold on once they have grabbed the player, until they die or
+    // lose them
+    public static final Table ABDUCTOR_TABLE = typeTable()
+            .holdUnless(EnemyState.ATTACK, EnemyState.DYING, EnemyState.WANDER)
+            .build();
+
+    // Replaced as a whole on every change, so enemies can read it without locking
+    private static volatile Map<Enemy.EnemyType, Table> tables = defaultTables();
+
+    // Enemies in each state, by type, with enemies without a type in the last row
+    private static final int[][] occupancy = new int[Enemy.EnemyType.values().length + 1][STATES.length];
+
+    private final Enemy.EnemyType type;
+    private final Table table;
+
+    // Null until the first state is entered
+    private EnemyState state;
+
+    /**
+     * Creates a state machine for an enemy of a type, in no state.
+     *
+     * @param type the type of the enemy, may be null.
+     */
+    public EnemyStateMachine(Enemy.EnemyType type) {
+        this.type = type;
+        this.table = tableFor(type);
+    }
+
+    /**
+     * Start a table with the rules every type shares: an enemy chases before it
+     * attacks, and dying and dead enemies are held as in {@link #DEFAULT_TABLE}.
+     */
+    private static Builder typeTable() {
+        return Table.builder()
+                .transition(EnemyState.WANDER, EnemyState.ATTACK, EnemyState.CHASE)
+                .holdUnless(EnemyState.DYING, EnemyState.DEAD)
+                .holdUnless(EnemyState.DEAD);
+    }
+
+    private static Map<Enemy.EnemyType, Table> defaultTables() {
+        Map<Enemy.EnemyType, Table> defaults = new EnumMap<>(Enemy.EnemyType.class);
+        defaults.put(Enemy.EnemyType.SCOUT, SCOUT_TABLE);
+        defaults.put(Enemy.EnemyType.MEDIUM, MEDIUM_TABLE);
+        defaults.put(Enemy.EnemyType.HEAVY, HEAVY_TABLE);
+        defaults.put(Enemy.EnemyType.ABDUCTOR, ABDUCTOR_TABLE);
+        return defaults;
+    }
+
+    /**
+     * Set the transition table for a type of enemy. Enemies made afterwards use
+     * the new table.
+     *
+     * @param type  the type of enemy.
+     * @param table the transition table.
+     */
+    public static synchronized void configure(Enemy.EnemyType type, Table table) {
+        Map<Enemy.EnemyType, Table> updated = new EnumMap<>(tables);
+        updated.put(type, table);
+        tables = updated;
+    }
+
+    /**
+     * Get the transition table for a type of enemy.
+     *
+     * @param type the type of enemy, may be null.
+     * @return the table for that type.
+     */
+    public static Table tableFor(Enemy.EnemyType type) {
+        if (type == null) {
+            return DEFAULT_TABLE;
+        }
+        return tables.getOrDefault(type, DEFAULT_TABLE);
+    }
+
+    /**
+     * Get the number of enemies of a type in a state.
+     *
+     * @param type  the type of enemy, or null for enemies without a type.
+     * @param state the state.
+     * @return the number of enemies.
+     */
+    public static int getOccupancy(Enemy.EnemyType type, EnemyState state) {
+        return occupancy[row(type)][state.ordinal()];
+    }
+
+    /**
+     * Move towards a wanted state, as the transition table allows.
+     *
+     * @param wanted the state the enemy wants to be in.
+     * @return true if a new state was entered.
+     */
+    public boolean moveTo(EnemyState wanted) {
+        EnemyState next = state == null ? wanted : table.next(state, wanted);
+        if (next == state) {
+            return false;
+        }
+        leave();
+        state = next;
+        occupancy[row(type)][next.ordinal()]++;
+        return true;
+    }
+
+    /**
+     * Leave the current state without entering another, e.g. when the enemy is
+     * respawned or thrown away.
+     */
+    public void reset() {
+        leave();
+        state = null;
+    }
+
+    /**
+     * Get the current state.
+     *
+     * @return the current state, or null if none has been entered.
+     */
+    public EnemyState getState() {
+        return state;
+    }
+
+    private void leave() {
+        if (state != null) {
+            occupancy[row(type)][state.ordinal()]--;
+        }
+    }
+
+    private static int row(Enemy.EnemyType type) {
+        return type == null ? occupancy.length - 1 : type.ordinal();
+    }
+}
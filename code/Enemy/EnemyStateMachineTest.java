@@ -0,0 +1,156 @@
+package deco2800.skyfall.entities.enemies;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the enemy state machine and its transition tables.
+ */
+public class EnemyStateMachineTest {
+
+    /**
+     * Test states are entered only when they change, and dying enemies can only
+     * go on to be dead.
+     */
+    @Test
+    public void defaultTableTest() {
+        EnemyStateMachine machine = new EnemyStateMachine(Enemy.EnemyType.SCOUT);
+        Assert.assertNull(machine.getState());
+
+        Assert.assertTrue(machine.moveTo(EnemyState.WANDER));
+        Assert.assertFalse(machine.moveTo(EnemyState.WANDER));
+        Assert.assertTrue(machine.moveTo(EnemyState.HURT));
+        Assert.assertTrue(machine.moveTo(EnemyState.DYING));
+
+        Assert.assertFalse(machine.moveTo(EnemyState.HURT));
+        Assert.assertFalse(machine.moveTo(EnemyState.CHASE));
+        Assert.assertEquals(EnemyState.DYING, machine.getState());
+
+        Assert.assertTrue(machine.moveTo(EnemyState.DEAD));
+        Assert.assertFalse(machine.moveTo(EnemyState.WANDER));
+        Assert.assertEquals(EnemyState.DEAD, machine.getState());
+
+        machine.reset();
+        Assert.assertTrue(machine.moveTo(EnemyState.WANDER));
+    }
+
+    /**
+     * Test a type can be given its own table.
+     */
+    @Test
+    public void configuredTableTest() {
+        EnemyStateMachine.Table previous = EnemyStateMachine.tableFor(Enemy.EnemyType.ABDUCTOR);
+        EnemyStateMachine.configure(Enemy.EnemyType.ABDUCTOR, EnemyStateMachine.Table.builder()
+                .transition(EnemyState.ATTACK, EnemyState.HURT, EnemyState.ATTACK)
+                .build());
+        try {
+            EnemyStateMachine machine = new EnemyStateMachine(Enemy.EnemyType.ABDUCTOR);
+            machine.moveTo(EnemyState.ATTACK);
+            Assert.assertFalse(machine.moveTo(EnemyState.HURT));
+            Assert.assertTrue(machine.moveTo(EnemyState.WANDER));
+            Assert.assertTrue(machine.moveTo(EnemyState.HURT));
+        } finally {
+            EnemyStateMachine.configure(Enemy.EnemyType.ABDUCTOR, previous);
+        }
+    }
+
+    /**
+     * Test every type has its own table, and all of them chase before attacking
+     * and keep dying enemies dying.
+     */
+    @Test
+    public void typeTablesTest() {
+        Assert.assertSame(EnemyStateMachine.SCOUT_TABLE, EnemyStateMachine.tableFor(Enemy.EnemyType.SCOUT));
+        Assert.assertSame(EnemyStateMachine.MEDIUM_TABLE, EnemyStateMachine.tableFor(Enemy.EnemyType.MEDIUM));
+        Assert.assertSame(EnemyStateMachine.HEAVY_TABLE, EnemyStateMachine.tableFor(Enemy.EnemyType.HEAVY));
+        Assert.assertSame(EnemyStateMachine.ABDUCTOR_TABLE, EnemyStateMachine.tableFor(Enemy.EnemyType.ABDUCTOR));
+        Assert.assertSame(EnemyStateMachine.DEFAULT_TABLE, EnemyStateMachine.tableFor(null));
+
+        for (Enemy.EnemyType type : Enemy.EnemyType.values()) {
+            EnemyStateMachine.Table table = EnemyStateMachine.tableFor(type);
+            Assert.assertEquals(EnemyState.CHASE, table.next(EnemyState.WANDER, EnemyState.ATTACK));
+            Assert.assertEquals(EnemyState.ATTACK, table.next(EnemyState.CHASE, EnemyState.ATTACK));
+            Assert.assertEquals(EnemyState.DYING, table.next(EnemyState.ATTACK, EnemyState.DYING));
+            Assert.assertEquals(EnemyState.DYING, table.next(EnemyState.DYING, EnemyState.WANDER));
+            Assert.assertEquals(EnemyState.DEAD, table.next(EnemyState.DEAD, EnemyState.CHASE));
+        }
+    }
+
+    /**
+     * Test a hit knocks a scout back to chasing before it can attack again.
+     */
+    @Test
+    public void scoutTableTest() {
+        EnemyStateMachine.Table table = EnemyStateMachine.SCOUT_TABLE;
+        Assert.assertEquals(EnemyState.HURT, table.next(EnemyState.ATTACK, EnemyState.HURT));
+        Assert.assertEquals(EnemyState.CHASE, table.next(EnemyState.HURT, EnemyState.ATTACK));
+        Assert.assertEquals(EnemyState.WANDER, table.next(EnemyState.HURT, EnemyState.WANDER));
+    }
+
+    /**
+     * Test a medium enemy is interrupted by hits and can attack straight after.
+     */
+    @Test
+    public void mediumTableTest() {
+        EnemyStateMachine.Table table = EnemyStateMachine.MEDIUM_TABLE;
+        Assert.assertEquals(EnemyState.HURT, table.next(EnemyState.CHASE, EnemyState.HURT));
+        Assert.assertEquals(EnemyState.HURT, table.next(EnemyState.ATTACK, EnemyState.HURT));
+        Assert.assertEquals(EnemyState.ATTACK, table.next(EnemyState.HURT, EnemyState.ATTACK));
+    }
+
+    /**
+     * Test a heavy is not staggered by hits while chasing or attacking, but is
+     * while wandering.
+     */
+    @Test
+    public void heavyTableTest() {
+        EnemyStateMachine.Table table = EnemyStateMachine.HEAVY_TABLE;
+        Assert.assertEquals(EnemyState.CHASE, table.next(EnemyState.CHASE, EnemyState.HURT));
+        Assert.assertEquals(EnemyState.ATTACK, table.next(EnemyState.ATTACK, EnemyState.HURT));
+        Assert.assertEquals(EnemyState.HURT, table.next(EnemyState.WANDER, EnemyState.HURT));
+        Assert.assertEquals(EnemyState.WANDER, table.next(EnemyState.ATTACK, EnemyState.WANDER));
+    }
+
+    /**
+     * Test an abductor keeps attacking until it dies or loses the player.
+     */
+    @Test
+    public void abductorTableTest() {
+        EnemyStateMachine machine = new EnemyStateMachine(Enemy.EnemyType.ABDUCTOR);
+        machine.moveTo(EnemyState.CHASE);
+        Assert.assertTrue(machine.moveTo(EnemyState.ATTACK));
+        Assert.assertFalse(machine.moveTo(EnemyState.HURT));
+        Assert.assertFalse(machine.moveTo(EnemyState.CHASE));
+        Assert.assertEquals(EnemyState.ATTACK, machine.getState());
+
+        Assert.assertTrue(machine.moveTo(EnemyState.WANDER));
+        machine.moveTo(EnemyState.CHASE);
+        machine.moveTo(EnemyState.ATTACK);
+        Assert.assertTrue(machine.moveTo(EnemyState.DYING));
+        machine.reset();
+    }
+
+    /**
+     * Test the number of enemies in each state is counted.
+     */
+    @Test
+    public void occupancyTest() {
+        int wandering = EnemyStateMachine.getOccupancy(Enemy.EnemyType.MEDIUM, EnemyState.WANDER);
+        int chasing = EnemyStateMachine.getOccupancy(Enemy.EnemyType.MEDIUM, EnemyState.CHASE);
+
+        EnemyStateMachine first = new EnemyStateMachine(Enemy.EnemyType.MEDIUM);
+        EnemyStateMachine second = new EnemyStateMachine(Enemy.EnemyType.MEDIUM);
+        first.moveTo(EnemyState.WANDER);
+        second.moveTo(EnemyState.WANDER);
+        Assert.assertEquals(wandering + 2, EnemyStateMachine.getOccupancy(Enemy.EnemyType.MEDIUM, EnemyState.WANDER));
+
+        second.moveTo(EnemyState.CHASE);
+        Assert.assertEquals(wandering + 1, EnemyStateMachine.getOccupancy(Enemy.EnemyType.MEDIUM, EnemyState.WANDER));
+        Assert.assertEquals(chasing + 1, EnemyStateMachine.getOccupancy(Enemy.EnemyType.MEDIUM, EnemyState.CHASE));
+
+        first.reset();
+        second.reset();
+        Assert.assertEquals(wandering, EnemyStateMachine.getOccupancy(Enemy.EnemyType.MEDIUM, EnemyState.WANDER));
+        Assert.assertEquals(chasing, EnemyStateMachine.getOccupancy(Enemy.EnemyType.MEDIUM, EnemyState.CHASE));
+    }
+}
@@ -1,8 +1,17 @@
 package deco2800.skyfall.entities.enemies;
 
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
 import deco2800.skyfall.animation.AnimationRole;
+import deco2800.skyfall.animation.AnimationTable;
 import deco2800.skyfall.animation.Direction;
 import deco2800.skyfall.entities.MainCharacter;
+import deco2800.skyfall.managers.DamageManager;
+import deco2800.skyfall.managers.GameManager;
+import deco2800.skyfall.managers.PlayerRegistry;
+import deco2800.skyfall.managers.TickScheduler;
+import deco2800.skyfall.managers.TimerWheelManager;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -22,6 +31,9 @@ public class EnemyTest {
     // Strings
     private String biomeName = "Forest";
 
+    // The only registered player, once registerPlayer() is called
+    private MainCharacter lodPlayer;
+
     /**
      * Set up for enemy tests.
      */
@@ -31,25 +43,125 @@ public class EnemyTest {
         testEnemy = new Enemy(30f, 30f, Enemy.EnemyType.HEAVY,
             0.06f, biomeName, "enemyTexture");
         testEnemy.setHealth(10);
-        testEnemy.getMainCharacter().setHurt(false);
-        testEnemy.getMainCharacter().setRecovering(false);
-        testEnemy.getMainCharacter().setDead(false);
 	testEnemy.setStrength(3);
         testEnemy.setChasingSpeed(3f);
         testEnemy.setAttackRange(100);
 
 	// set up main character
         testCharacter = new MainCharacter(30f, 30f, 0.05f, "Main Piece", 50);
+        testEnemy.setMainCharacter(testCharacter);
 	testEnemy.getMainCharacter().setHurt(false);
         testEnemy.getMainCharacter().setRecovering(false);
         testEnemy.getMainCharacter().setDead(false);
-        testEnemy.setMainCharacter(testCharacter);
 	
 	// for testting equals()
         testDummyEnemy = new Enemy(0f, 0f, Enemy.EnemyType.SCOUT,
                 0.06f, biomeName, "dummyTexture");
     }
 
+    @After
+    public void tearDown() {
+        EnemyLod.configure(Enemy.EnemyType.MEDIUM, EnemyLod.DEFAULT_SETTINGS);
+        if (lodPlayer != null) {
+            GameManager.getManagerFromInstance(PlayerRegistry.class).unregister(lodPlayer);
+        }
+    }
+
+    /**
+     * Register a player at the origin as the only player, for enemies made
+     * afterwards to chase.
+     */
+    private void registerPlayer() {
+        MainCharacter.resetInstance();
+        lodPlayer = new MainCharacter(0f, 0f, 0.05f, "Level Of Detail", 50);
+        GameManager.getManagerFromInstance(PlayerRegistry.class).register(lodPlayer);
+    }
+
+    /**
+     * Make a medium enemy chasing a player at the origin, the only player
+     * registered, with the level-of-detail settings of medium enemies replaced.
+     */
+    private Enemy lodEnemy(float col, float row, EnemyLod.Settings settings) {
+        EnemyLod.configure(Enemy.EnemyType.MEDIUM, settings);
+        registerPlayer();
+        return new Enemy(col, row, Enemy.EnemyType.MEDIUM, 0.06f, biomeName, "enemyTexture");
+    }
+
+    /**
+     * Test an enemy made outside the physics radius has no body, and moves
+     * itself on its own velocity by the game time since it last moved.
+     */
+    @Test
+    public void noBodyTest() {
+        // Near enough to act every tick, too far for a body
+        Enemy enemy = lodEnemy(30f, 0f, new EnemyLod.Settings(50f, 60f, 1, 2f, 20f));
+        Assert.assertFalse(enemy.isPhysical());
+        Assert.assertNull(enemy.getBody());
+
+        float seconds = GameManager.getManagerFromInstance(TickScheduler.class).getTickMillis() / 1000f;
+        enemy.onTick(1);
+        Assert.assertFalse(enemy.isPhysical());
+        Assert.assertNull(enemy.getBody());
+        Assert.assertEquals(30f + enemy.getVelocity().x * seconds, enemy.getCol(), 0.0001f);
+        Assert.assertEquals(enemy.getVelocity().y * seconds, enemy.getRow(), 0.0001f);
+
+        // Stepped again three ticks later, it moves for all three
+        float col = enemy.getCol();
+        float row = enemy.getRow();
+        enemy.onTick(4);
+        Assert.assertEquals(col + enemy.getVelocity().x * 3 * seconds, enemy.getCol(), 0.0001f);
+        Assert.assertEquals(row + enemy.getVelocity().y * 3 * seconds, enemy.getRow(), 0.0001f);
+    }
+
+    /**
+     * Test an enemy given a body on coming within the physics radius carries
+     * on from where it was, as fast as it was going, and hands its position
+     * and velocity back when it leaves again. The body is kept for next time.
+     */
+    @Test
+    public void physicsRadiusTest() {
+        Enemy enemy = lodEnemy(30f, 0f, new EnemyLod.Settings(50f, 60f, 1, 2f, 20f));
+        enemy.onTick(1);
+        float col = enemy.getCol();
+        float row = enemy.getRow();
+        Vector2 velocity = enemy.getVelocity().cpy();
+
+        // The player comes within the physics radius
+        lodPlayer.setPosition(15f, 0f);
+        enemy.prepareTick(2);
+        Assert.assertTrue(enemy.isPhysical());
+        Body body = enemy.getBody();
+        Assert.assertNotNull(body);
+        Assert.assertTrue(body.isActive());
+        Assert.assertEquals(col, body.getPosition().x, 0.0001f);
+        Assert.assertEquals(row, body.getPosition().y, 0.0001f);
+        Assert.assertEquals(velocity.x, body.getLinearVelocity().x, 0.0001f);
+        Assert.assertEquals(velocity.y, body.getLinearVelocity().y, 0.0001f);
+
+        // The physics step moved it, then the player leaves it behind
+        body.setTransform(29f, 1f, body.getAngle());
+        body.setLinearVelocity(0.5f, -0.25f);
+        lodPlayer.setPosition(0f, 0f);
+        enemy.prepareTick(3);
+        Assert.assertFalse(enemy.isPhysical());
+        Assert.assertSame(body, enemy.getBody());
+        Assert.assertFalse(body.isActive());
+        Assert.assertEquals(29f, enemy.getCol(), 0.0001f);
+        Assert.assertEquals(1f, enemy.getRow(), 0.0001f);
+        Assert.assertEquals(0.5f, enemy.getVelocity().x, 0.0001f);
+        Assert.assertEquals(-0.25f, enemy.getVelocity().y, 0.0001f);
+
+        // Coming back reuses the same body, moved to where the enemy is now
+        lodPlayer.setPosition(15f, 0f);
+        enemy.prepareTick(4);
+        Assert.assertTrue(enemy.isPhysical());
+        Assert.assertSame(body, enemy.getBody());
+        Assert.assertTrue(body.isActive());
+        Assert.assertEquals(29f, body.getPosition().x, 0.0001f);
+        Assert.assertEquals(1f, body.getPosition().y, 0.0001f);
+        Assert.assertEquals(0.5f, body.getLinearVelocity().x, 0.0001f);
+    }
+
     @Test
     public void setterAndGetterTests() {
 
@@ -114,6 +226,9 @@ public class EnemyTest {
         testEnemy.attackAction();
         Assert.assertEquals(AnimationRole.ATTACK, testEnemy.getCurrentState());
         Assert.assertTrue(testEnemy.getMainCharacter().isHurt());
+        // the damage lands when the damage queue is resolved
+        Assert.assertEquals(50, testEnemy.getMainCharacter().getHealth());
+        GameManager.getManagerFromInstance(DamageManager.class).resolve();
         Assert.assertEquals(47, testEnemy.getMainCharacter().getHealth());
 	// if enemy is close to main character, speed increases 
         Assert.assertEquals(3f, testEnemy.getChasingSpeed(), 0);
@@ -153,6 +268,108 @@ public class EnemyTest {
         testEnemy.randomMoveAction();
     }
 
+    /**
+     * Test an enemy with no registered player to chase has no target and
+     * wanders.
+     */
+    @Test
+    public void noPlayerTest() {
+        MainCharacter.resetInstance();
+        Enemy lonelyEnemy = new Enemy(30f, 30f, Enemy.EnemyType.HEAVY,
+                0.06f, biomeName, "enemyTexture");
+        Assert.assertNull(lonelyEnemy.getMainCharacter());
+
+        lonelyEnemy.decide(1, null, null);
+        lonelyEnemy.applyDecision();
+        Assert.assertEquals(EnemyState.WANDER, lonelyEnemy.getState());
+    }
+
+    /**
+     * Test an enemy in the mid tier only acts every few ticks, counted from the
+     * tick it came into the tier, and is marked as having acted on the rest.
+     */
+    @Test
+    public void midTierTest() {
+        Enemy enemy = lodEnemy(8f, 0f, new EnemyLod.Settings(10f, 50f, 3, 1f, 0f));
+        Assert.assertTrue(enemy.prepareTick(5));
+        Assert.assertEquals(EnemyLod.Tier.NEAR, enemy.getLodTier());
+
+        // The player moves off on tick 7, leaving the enemy in the mid tier
+        lodPlayer.setPosition(-10f, 0f);
+        Assert.assertTrue(enemy.prepareTick(7));
+        Assert.assertEquals(EnemyLod.Tier.MID, enemy.getLodTier());
+        Assert.assertFalse(enemy.prepareTick(8));
+        Assert.assertTrue(enemy.hasActedOnTick(8));
+        Assert.assertFalse(enemy.prepareTick(9));
+        Assert.assertTrue(enemy.prepareTick(10));
+        Assert.assertFalse(enemy.hasActedOnTick(10));
+        Assert.assertFalse(enemy.prepareTick(11));
+        Assert.assertTrue(enemy.prepareTick(13));
+    }
+
+    /**
+     * Test an enemy going into the far tier stops, puts its body to sleep and
+     * stops acting, and wakes its body when it comes back.
+     */
+    @Test
+    public void farTierTest() {
+        // Far beyond 20, with a body out past that
+        Enemy enemy = lodEnemy(5f, 0f, new EnemyLod.Settings(10f, 20f, 3, 1f, 100f));
+        Assert.assertTrue(enemy.prepareTick(1));
+        Body body = enemy.getBody();
+        Assert.assertNotNull(body);
+        body.setLinearVelocity(1f, 1f);
+
+        lodPlayer.setPosition(-30f, 0f);
+        Assert.assertFalse(enemy.prepareTick(2));
+        Assert.assertEquals(EnemyLod.Tier.FAR, enemy.getLodTier());
+        Assert.assertTrue(enemy.isPhysical());
+        Assert.assertFalse(body.isAwake());
+        Assert.assertEquals(0f, enemy.getVelocity().len(), 0f);
+        Assert.assertFalse(enemy.prepareTick(3));
+
+        lodPlayer.setPosition(0f, 0f);
+        Assert.assertTrue(enemy.prepareTick(4));
+        Assert.assertEquals(EnemyLod.Tier.NEAR, enemy.getLodTier());
+        Assert.assertTrue(body.isAwake());
+    }
+
+    /**
+     * Test a respawned enemy is reset as if it had just been made, with full
+     * health, alive, unhurt, with no timers waiting, in no state and in the
+     * near tier.
+     */
+    @Test
+    public void respawnTest() {
+        registerPlayer();
+        Scout scout = new Scout(60f, 0f, 1f, biomeName);
+        int health = scout.getHealth();
+        TimerWheelManager wheel = GameManager.getManagerFromInstance(TimerWheelManager.class);
+        int pending = wheel.getPendingCount();
+
+        // Left far behind, then hit and finished off
+        Assert.assertFalse(scout.prepareTick(1));
+        Assert.assertEquals(EnemyLod.Tier.FAR, scout.getLodTier());
+        scout.takeDamage(10);
+        scout.setDead(true);
+        Assert.assertEquals(health - 10, scout.getHealth());
+        Assert.assertTrue(scout.getHurt());
+        Assert.assertEquals(EnemyState.HURT, scout.getState());
+        Assert.assertEquals(pending + 1, wheel.getPendingCount());
+
+        scout.respawn(1f, 1f, 1f, biomeName);
+        Assert.assertEquals(health, scout.getHealth());
+        Assert.assertFalse(scout.isDead());
+        Assert.assertFalse(scout.getHurt());
+        Assert.assertEquals(0, scout.getHurtTime());
+        Assert.assertEquals(pending, wheel.getPendingCount());
+        Assert.assertNull(scout.getState());
+        Assert.assertEquals(EnemyLod.Tier.NEAR, scout.getLodTier());
+        Assert.assertFalse(scout.hasActedOnTick(1));
+        Assert.assertEquals(1f, scout.getCol(), 0f);
+        Assert.assertEquals(1, scout.getLife());
+    }
+
     /**
      * Test all animations for enemy updateAnimation() 
      */
@@ -186,6 +403,29 @@ public class EnemyTest {
         Assert.assertEquals("died", testEnemy.getDeadSound());
     }
 
+    /**
+     * Test enemies of the same type are configured from one shared animation
+     * table that is only built once.
+     */
+    @Test
+    public void sharedAnimationTableTest() {
+        Enemy otherHeavy = new Enemy(10f, 10f, Enemy.EnemyType.HEAVY,
+                0.06f, biomeName, "enemyTexture");
+
+        // Built when the first heavy enemy was constructed, not rebuilt after
+        AnimationTable heavyTable = AnimationTable.get("HEAVY", () -> null);
+        Assert.assertNotNull(heavyTable);
+        Assert.assertSame(heavyTable, AnimationTable.get("HEAVY", () -> null));
+        Assert.assertNotSame(heavyTable, AnimationTable.get("SCOUT", () -> null));
+        Assert.assertEquals(20, heavyTable.getEntries().size());
+
+        // Both heavy enemies see the same default textures
+        testEnemy.setCurrentDirection(Direction.EAST);
+        otherHeavy.setCurrentDirection(Direction.EAST);
+        Assert.assertEquals("__ANIMATION_HEAVYMoveE:0", testEnemy.getDefaultTexture());
+        Assert.assertEquals(testEnemy.getDefaultTexture(), otherHeavy.getDefaultTexture());
+    }
+
     @Test
     public void testToString() {
         String testString = "HEAVY at (30, 30) Forest biome";
@@ -200,9 +440,14 @@ public class EnemyTest {
         // Not equal due to different instance
         Assert.assertFalse(testEnemy.equals(testCharacter));
 
-        // Equals due to same instance and same hashcode
+        // Not equal even with the same type, biome and tile, as ids differ
         testDummyEnemy =  new Enemy(30f, 30f, Enemy.EnemyType.HEAVY,
                 0.06f, biomeName, "enemyTexture");
-        Assert.assertTrue(testEnemy.equals(testDummyEnemy));
+        Assert.assertFalse(testEnemy.equals(testDummyEnemy));
+        Assert.assertNotEquals(testEnemy.getWorldId(), testDummyEnemy.getWorldId());
+
+        // Equals and hashes the same as itself
+        Assert.assertTrue(testEnemy.equals(testEnemy));
+        Assert.assertEquals(Long.hashCode(testEnemy.getWorldId()), testEnemy.hashCode());
     }
 }
\ No newline at end of file
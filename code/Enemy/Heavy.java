@@ -13,6 +13,16 @@ public class Heavy extends Enemy implements Spawnable {
         this.setType(EnemyType.HEAVY);
 
         // Assign values, includes default values
+        this.resetStats(scaling);
+    }
+
+    /**
+     * Reset the Heavy's stats to its default values for a scaling factor.
+     *
+     * @param scaling the factor the enemy's stat is scale in this enemy.
+     */
+    @Override
+    protected void resetStats(float scaling) {
         this.setValues(scaling, 100, 5, 6, 3f, 4f);
     }
 
@@ -31,6 +41,10 @@ public class Heavy extends Enemy implements Spawnable {
 
     @Override
     public Enemy newInstance(float row, float col) {
+        Heavy recycled = respawnFromPool(Heavy.class, col, row, getScale(), getBiome());
+        if (recycled != null) {
+            return recycled;
+        }
         return new Heavy(col, row, getScale(), getBiome());
     }
 
@@ -38,26 +52,4 @@ public class Heavy extends Enemy implements Spawnable {
     public Enemy newInstance(HexVector spawnPos) {
         return newInstance(spawnPos.getRow(), spawnPos.getCol());
     }
-
-    /**
-     * Check whether the object equals to this enemy instance.
-     *
-     * @param obj the object to be checked
-     * @return true if the objects equals, false otherwise.
-     */
-    @Override
-    public boolean equals(Object obj) {
-        return obj instanceof Heavy && this.hashCode() == obj.hashCode();
-    }
-
-    /**
-     * The hashcode of the enemy based on {@link #toString()}. It will be used in
-     * {@link #equals(Object)} for comparing objects.
-     *
-     * @return the hashcode of the enemy instance.
-     */
-    @Override
-    public int hashCode() {
-        return toString().hashCode();
-    }
 }
@@ -21,6 +21,16 @@ public class Scout extends Enemy implements Spawnable {
         this.setType(EnemyType.SCOUT);
 
         // Assign values, includes default values
+        this.resetStats(scaling);
+    }
+
+    /**
+     * Reset the Scout's stats to its default values for a scaling factor.
+     *
+     * @param scaling the factor the enemy's stat is scale in this enemy.
+     */
+    @Override
+    protected void resetStats(float scaling) {
         this.setValues(scaling, 100, 10, 8, 5f, 7f);
     }
 
@@ -39,6 +49,10 @@ public class Scout extends Enemy implements Spawnable {
 
     @Override
     public Scout newInstance(float row, float col) {
+        Scout recycled = respawnFromPool(Scout.class, col, row, this.getScale(), this.getBiome());
+        if (recycled != null) {
+            return recycled;
+        }
         return new Scout(col, row, this.getScale(), this.getBiome());
     }
 
@@ -0,0 +1,279 @@
+package deco2800.skyfall.managers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records combat events, such as an entity being hurt or dying, into a ring
+ * buffer allocated up front. Recording an event only writes a few primitive
+ * fields, so the game thread does no string formatting or I/O. The events can
+ * be read back with {@link #drain}, or written out as JSON lines by a
+ * background flusher started with {@link #startFlusher}.
+ *
+ * Recording never blocks. When the buffer is full the oldest events are
+ * overwritten, and the reader counts them as dropped.
+ */
+public class CombatEventLog extends AbstractManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(CombatEventLog.class);
+
+    // Default number of events held, must be a power of two
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The kinds of combat event.
+     */
+    public enum Type {
+        HURT, HURT_ENDED, RECOVERED, DAMAGE_DEALT, DEATH, SPELL_CAST
+    }
+
+    /**
+     * Receives events read out of the log.
+     */
+    public interface Reader {
+        /**
+         * Handle one event.
+         *
+         * @param time     when the event was recorded, from {@link System#nanoTime()}.
+         * @param type     the kind of event.
+         * @param sourceId the world id of the entity that caused it, or 0 if none.
+         * @param targetId the world id of the entity it happened to, or 0 if none.
+         * @param value    a value for the event, such as the damage dealt.
+         */
+        void event(long time, Type type, long sourceId, long targetId, int value);
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    private final int mask;
+
+    // The fields of each slot
+    private final long[] times;
+    private final int[] types;
+    private final long[] sourceIds;
+    private final long[] targetIds;
+    private final int[] values;
+
+    // The sequence number last written to each slot, published after its fields
+    private final AtomicLongArray published;
+
+    // Sequence number of the next event to record
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    // Sequence number of the next event to read, only touched by the reader
+    private long readSequence = 0;
+
+    // Events overwritten before they were read
+    private long droppedCount = 0;
+
+    private Thread flusher;
+    private volatile boolean flushing;
+
+    /**
+     * Creates a log holding {@link #DEFAULT_CAPACITY} events.
+     */
+    public CombatEventLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a log holding the given number of events.
+     *
+     * @param capacity the number of events held, a power of two.
+     */
+    public CombatEventLog(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Combat event log capacity must be a power of two");
+        }
+        this.mask = capacity - 1;
+        this.times = new long[capacity];
+        this.types = new int[capacity];
+        this.sourceIds = new long[capacity];
+        this.targetIds = new long[capacity];
+        this.values = new int[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Record an event. Safe to call from any thread.
+     *
+     * @param type     the kind of event.
+     * @param sourceId the world id of the entity that caused it, or 0 if none.
+     * @param targetId the world id of the entity it happened to, or 0 if none.
+     * @param value    a value for the event, such as the damage dealt.
+     */
+    public void record(Type type, long sourceId, long targetId, int value) {
+        long sequence = writeSequence.getAndIncrement();
+        int slot = (int) sequence & mask;
+
+        // Mark the slot as being written so a reader does not take half an event.
+        // The fence keeps the field stores below from moving before the mark
+        published.set(slot, -1);
+        VarHandle.releaseFence();
+        times[slot] = System.nanoTime();
+        types[slot] = type.ordinal();
+        sourceIds[slot] = sourceId;
+        targetIds[slot] = targetId;
+        values[slot] = value;
+        published.set(slot, sequence);
+    }
+
+    /**
+     * Hand every event recorded since the last drain to a reader, oldest first.
+     * Only one thread may drain at a time.
+     *
+     * @param reader receives the events.
+     * @return the number of events read.
+     */
+    public synchronized int drain(Reader reader) {
+        long end = writeSequence.get();
+        int capacity = mask + 1;
+        if (end - readSequence > capacity) {
+            droppedCount += end - readSequence - capacity;
+            readSequence = end - capacity;
+        }
+
+        int read = 0;
+        while (readSequence < end) {
+            int slot = (int) readSequence & mask;
+            if (published.get(slot) != readSequence) {
+                if (published.get(slot) > readSequence) {
+                    // Overwritten while we were reading
+                    droppedCount++;
+                    readSequence++;
+                    continue;
+                }
+                // Still being written, pick it up on the next drain
+                break;
+            }
+
+            long time = times[slot];
+            int type = types[slot];
+            long sourceId = sourceIds[slot];
+            long targetId = targetIds[slot];
+            int value = values[slot];
+            // Keep the field loads above from moving past the second check
+            VarHandle.acquireFence();
+            if (published.get(slot) != readSequence) {
+                droppedCount++;
+            } else {
+                reader.event(time, TYPES[type], sourceId, targetId, value);
+                read++;
+            }
+            readSequence++;
+        }
+        return read;
+    }
+
+    /**
+     * Get the number of events overwritten before they could be read.
+     *
+     * @return the number of dropped events.
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Start writing events to a file as JSON lines, every interval, on a
+     * background thread. Does nothing if a flusher is already running.
+     *
+     * @param file           the file to append to.
+     * @param intervalMillis the time between writes, in milliseconds.
+     */
+    public synchronized void startFlusher(Path file, long intervalMillis) {
+        if (flusher != null) {
+            return;
+        }
+        flushing = true;
+        flusher = new Thread(() -> runFlusher(file, intervalMillis), "combat-event-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stop the background flusher, writing out any events still in the buffer.
+     */
+    public void stopFlusher() {
+        Thread running;
+        synchronized (this) {
+            running = flusher;
+            flusher = null;
+            flushing = false;
+        }
+        if (running == null) {
+            return;
+        }
+        running.interrupt();
+        try {
+            running.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runFlusher(Path file, long intervalMillis) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (flushing) {
+                writeJsonLines(writer);
+                writer.flush();
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            writeJsonLines(writer);
+        } catch (IOException e) {
+            logger.error("Could not write combat events to {}", file, e);
+        }
+    }
+
+    /**
+     * Drain the log into a writer, one JSON object per line.
+     *
+     * @param writer the writer to append to.
+     * @return the number of events written.
+     * @throws IOException if the writer fails.
+     */
+    public int writeJsonLines(Writer writer) throws IOException {
+        IOException[] failure = new IOException[1];
+        StringBuilder line = new StringBuilder(128);
+        int written = drain((time, type, sourceId, targetId, value) -> {
+            if (failure[0] != null) {
+                return;
+            }
+            line.setLength(0);
+            line.append("{\"time\":").append(time)
+                    .append(",\"type\":\"").append(type.name())
+                    .append("\",\"source\":").append(sourceId)
+                    .append(",\"target\":").append(targetId)
+                    .append(",\"value\":").append(value)
+                    .append("}\n");
+            try {
+                writer.write(line.toString());
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return written;
+    }
+}
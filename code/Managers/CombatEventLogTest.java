@@ -0,0 +1,67 @@
+package deco2800.skyfall.managers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test combat events are recorded and read back from the ring buffer.
+ */
+public class CombatEventLogTest {
+
+    /**
+     * Test events are read back in order with their fields, and only once.
+     */
+    @Test
+    public void recordAndDrainTest() {
+        CombatEventLog log = new CombatEventLog(8);
+        log.record(CombatEventLog.Type.DAMAGE_DEALT, 3, 1, 5);
+        log.record(CombatEventLog.Type.DEATH, 0, 3, 0);
+
+        List<String> events = new ArrayList<>();
+        int read = log.drain((time, type, sourceId, targetId, value) ->
+                events.add(type + " " + sourceId + " " + targetId + " " + value));
+
+        Assert.assertEquals(2, read);
+        Assert.assertEquals("DAMAGE_DEALT 3 1 5", events.get(0));
+        Assert.assertEquals("DEATH 0 3 0", events.get(1));
+        Assert.assertEquals(0, log.drain((time, type, sourceId, targetId, value) -> Assert.fail("Read twice")));
+    }
+
+    /**
+     * Test the oldest events are dropped once the buffer wraps.
+     */
+    @Test
+    public void overwriteTest() {
+        CombatEventLog log = new CombatEventLog(4);
+        for (int i = 0; i < 10; i++) {
+            log.record(CombatEventLog.Type.HURT, 0, 1, i);
+        }
+
+        List<Integer> values = new ArrayList<>();
+        log.drain((time, type, sourceId, targetId, value) -> values.add(value));
+
+        Assert.assertEquals(4, values.size());
+        Assert.assertEquals(6, (int) values.get(0));
+        Assert.assertEquals(9, (int) values.get(3));
+        Assert.assertEquals(6, log.getDroppedCount());
+    }
+
+    /**
+     * Test events are written out as JSON lines.
+     */
+    @Test
+    public void jsonLinesTest() throws IOException {
+        CombatEventLog log = new CombatEventLog(8);
+        log.record(CombatEventLog.Type.SPELL_CAST, 2, 0, 1);
+
+        StringWriter writer = new StringWriter();
+        Assert.assertEquals(1, log.writeJsonLines(writer));
+        Assert.assertTrue(writer.toString().endsWith(
+                "\"type\":\"SPELL_CAST\",\"source\":2,\"target\":0,\"value\":1}\n"));
+    }
+}
@@ -0,0 +1,227 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.AbstractEntity;
+import deco2800.skyfall.entities.DamageType;
+import deco2800.skyfall.entities.ICombatEntity;
+import deco2800.skyfall.entities.Identifiable;
+import deco2800.skyfall.entities.MainCharacter;
+import deco2800.skyfall.util.GameEvents;
+import deco2800.skyfall.util.LongMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Queues the damage dealt during a tick and applies it in one pass. Attacks add
+ * a record of the attacker's id, the target's id, the amount and the
+ * {@link DamageType}, kept in parallel primitive arrays. Records may also
+ * carry the target itself, so an entity that joined the world this tick, and
+ * is not in the {@link EntityIndexManager} yet, can still be hit. Resolving
+ * looks each other target up once through the index, takes off its
+ * resistances and adds up everything it was dealt, then hurts each target once
+ * with the total. Damage to a target that cannot be found is dropped and
+ * counted.
+ */
+public class DamageManager extends TickableManager {
+
+    // Records the queue has room for before it grows
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final int[] NO_RESISTANCES = new int[0];
+
+    // The queued records, one per index
+    private long[] sourceIds = new long[INITIAL_CAPACITY];
+    private long[] targetIds = new long[INITIAL_CAPACITY];
+    private int[] amounts = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    // The target of each record, or null where it is looked up by id
+    private AbstractEntity[] targets = new AbstractEntity[INITIAL_CAPACITY];
+    private int count = 0;
+
+    // Records dropped because their target could not be found
+    private long droppedCount = 0;
+
+    /**
+     * The damage a target takes in one resolve.
+     */
+    private static class Hit {
+        private AbstractEntity target;
+        private int[] resistances;
+        private int total;
+        private int records;
+    }
+
+    // Targets hit in the current resolve, by id and in the order first hit
+    private final LongMap<Hit> hits = new LongMap<>(64);
+    private final List<Hit> hitOrder = new ArrayList<>();
+
+    // Hit objects kept from earlier resolves
+    private final List<Hit> spareHits = new ArrayList<>();
+
+    /**
+     * Queue damage to be dealt when the queue is next resolved.
+     *
+     * @param sourceId the world id of the attacker, or 0 if none.
+     * @param targetId the world id of the target.
+     * @param amount   the damage before resistances.
+     * @param type     the kind of damage.
+     */
+    public void enqueue(long sourceId, long targetId, int amount, DamageType type) {
+        add(sourceId, targetId, null, amount, type);
+    }
+
+    /**
+     * Queue damage to be dealt to a given entity when the queue is next
+     * resolved. The target is hit even if it is not in the entity index yet.
+     *
+     * @param sourceId the world id of the attacker, or 0 if none.
+     * @param target   the target, which must have a world id.
+     * @param amount   the damage before resistances.
+     * @param type     the kind of damage.
+     */
+    public void enqueue(long sourceId, AbstractEntity target, int amount, DamageType type) {
+        if (!(target instanceof Identifiable)) {
+            throw new IllegalArgumentException("Damage targets must have a world id");
+        }
+        add(sourceId, ((Identifiable) target).getWorldId(), target, amount, type);
+    }
+
+    private void add(long sourceId, long targetId, AbstractEntity target, int amount, DamageType type) {
+        if (count == sourceIds.length) {
+            int capacity = count * 2;
+            sourceIds = Arrays.copyOf(sourceIds, capacity);
+            targetIds = Arrays.copyOf(targetIds, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            types = Arrays.copyOf(types, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+        }
+        sourceIds[count] = sourceId;
+        targetIds[count] = targetId;
+        amounts[count] = amount;
+        types[count] = (byte) type.ordinal();
+        targets[count] = target;
+        count++;
+    }
+
+    /**
+     * Get the number of records waiting to be resolved.
+     *
+     * @return the number of queued records.
+     */
+    public int getQueuedCount() {
+        return count;
+    }
+
+    /**
+     * Get the number of records dropped because their target could not be
+     * found, e.g. because it left the world.
+     *
+     * @return the number of dropped records.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Resolves the damage queued since the last tick.
+     *
+     * @param i the current game tick.
+     */
+    @Override
+    public void onTick(long i) {
+        resolve();
+    }
+
+    /**
+     * Apply every queued record. Damage queued while the records are applied,
+     * e.g. by an entity reacting to being hurt, waits for the next resolve.
+     */
+    public void resolve() {
+        int resolving = count;
+        if (resolving == 0) {
+            return;
+        }
+
+        EntityIndexManager index = GameManager.getManagerFromInstance(EntityIndexManager.class);
+        CombatEventLog events = GameManager.getManagerFromInstance(CombatEventLog.class);
+
+        for (int r = 0; r < resolving; r++) {
+            Hit hit = hitFor(index, targetIds[r], targets[r]);
+            if (hit == null) {
+                // The target has left the world
+                droppedCount++;
+                continue;
+            }
+
+            int amount = amounts[r];
+            int type = types[r];
+            if (type < hit.resistances.length) {
+                amount -= amount * hit.resistances[type] / 100;
+            }
+            hit.total += amount;
+            hit.records++;
+            events.record(CombatEventLog.Type.DAMAGE_DEALT, sourceIds[r], targetIds[r], amount);
+        }
+
+        // Keep anything queued after this resolve began
+        count -= resolving;
+        System.arraycopy(sourceIds, resolving, sourceIds, 0, count);
+        System.arraycopy(targetIds, resolving, targetIds, 0, count);
+        System.arraycopy(amounts, resolving, amounts, 0, count);
+        System.arraycopy(types, resolving, types, 0, count);
+        System.arraycopy(targets, resolving, targets, 0, count);
+        Arrays.fill(targets, count, count + resolving, null);
+
+        for (Hit hit : hitOrder) {
+            applyHit(hit);
+            hit.target = null;
+            hit.resistances = null;
+            spareHits.add(hit);
+        }
+        hitOrder.clear();
+        hits.clear();
+    }
+
+    /**
+     * Get the hit for a target in this resolve, looking the target up the first
+     * time it is hit unless the record carried it.
+     *
+     * @return the hit, or null if there is no such target.
+     */
+    private Hit hitFor(EntityIndexManager index, long targetId, AbstractEntity queued) {
+        Hit hit = hits.get(targetId);
+        if (hit != null) {
+            return hit;
+        }
+
+        AbstractEntity target = queued != null ? queued : index.getById(targetId);
+        if (!(target instanceof ICombatEntity) && !(target instanceof MainCharacter)) {
+            return null;
+        }
+
+        hit = spareHits.isEmpty() ? new Hit() : spareHits.remove(spareHits.size() - 1);
+        hit.target = target;
+        hit.resistances = target instanceof ICombatEntity ? ((ICombatEntity) target).getResistanceAttributes()
+                : NO_RESISTANCES;
+        hit.total = 0;
+        hit.records = 0;
+        hits.put(targetId, hit);
+        hitOrder.add(hit);
+        return hit;
+    }
+
+    /**
+     * Hurt a target with the total damage it was dealt.
+     */
+    private void applyHit(Hit hit) {
+        if (hit.target instanceof MainCharacter) {
+            MainCharacter mc = (MainCharacter) hit.target;
+            mc.playerHurt(hit.total);
+            mc.setRecovering(true);
+        } else {
+            ((ICombatEntity) hit.target).takeDamage(hit.total);
+        }
+        GameEvents.damageApplied(hit.target, hit.total, hit.records);
+    }
+}
@@ -0,0 +1,96 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.AbstractEntity;
+import deco2800.skyfall.entities.DamageType;
+import deco2800.skyfall.entities.ICombatEntity;
+import deco2800.skyfall.entities.Identifiable;
+import deco2800.skyfall.util.HexVector;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Test queued damage is resolved against the right targets.
+ */
+public class DamageManagerTest {
+
+    private DamageManager damage;
+    private EntityIndexManager index;
+
+    @Before
+    public void setUp() {
+        damage = new DamageManager();
+        index = GameManager.getManagerFromInstance(EntityIndexManager.class);
+    }
+
+    private ICombatEntity target(long id, int[] resistances) {
+        AbstractEntity entity = mock(AbstractEntity.class,
+                withSettings().extraInterfaces(Identifiable.class, ICombatEntity.class));
+        when(entity.getCol()).thenReturn(0f);
+        when(entity.getRow()).thenReturn(0f);
+        when(entity.getPosition()).thenReturn(new HexVector(0f, 0f));
+        when(((Identifiable) entity).getWorldId()).thenReturn(id);
+        when(((ICombatEntity) entity).getResistanceAttributes()).thenReturn(resistances);
+        index.add(entity);
+        return (ICombatEntity) entity;
+    }
+
+    /**
+     * Test hits on the same target are added up and applied once, after
+     * resistances.
+     */
+    @Test
+    public void aggregateTest() {
+        ICombatEntity plain = target(1001L, new int[0]);
+        ICombatEntity armoured = target(1002L, new int[] { 50 });
+
+        damage.enqueue(1L, 1001L, 3, DamageType.PHYSICAL);
+        damage.enqueue(2L, 1001L, 4, DamageType.FIRE);
+        damage.enqueue(1L, 1002L, 10, DamageType.PHYSICAL);
+        damage.enqueue(1L, 1002L, 10, DamageType.MAGIC);
+        Assert.assertEquals(4, damage.getQueuedCount());
+
+        damage.resolve();
+        verify(plain, times(1)).takeDamage(7);
+        verify(armoured, times(1)).takeDamage(15);
+        Assert.assertEquals(0, damage.getQueuedCount());
+    }
+
+    /**
+     * Test damage to targets no longer in the world is dropped.
+     */
+    @Test
+    public void missingTargetTest() {
+        ICombatEntity gone = target(1003L, new int[0]);
+        index.remove((AbstractEntity) gone);
+
+        damage.enqueue(1L, 1003L, 5, DamageType.PHYSICAL);
+        damage.resolve();
+        verify(gone, never()).takeDamage(5);
+        Assert.assertEquals(0, damage.getQueuedCount());
+        Assert.assertEquals(1, damage.getDroppedCount());
+    }
+
+    /**
+     * Test damage queued with its target lands even if the target is not
+     * indexed yet, and is added up with hits queued by id.
+     */
+    @Test
+    public void queuedTargetTest() {
+        ICombatEntity fresh = target(1004L, new int[0]);
+        index.remove((AbstractEntity) fresh);
+
+        damage.enqueue(1L, (AbstractEntity) fresh, 5, DamageType.PHYSICAL);
+        damage.enqueue(2L, 1004L, 2, DamageType.PHYSICAL);
+        damage.resolve();
+        verify(fresh, times(1)).takeDamage(7);
+        Assert.assertEquals(0, damage.getDroppedCount());
+    }
+}
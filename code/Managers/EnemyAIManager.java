@@ -0,0 +1,179 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.AbstractEntity;
+import deco2800.skyfall.entities.enemies.Enemy;
+import deco2800.skyfall.util.GameEvents;
+import deco2800.skyfall.util.SeparationGrid;
+import deco2800.skyfall.worlds.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Steps every enemy in the world in two phases. The read-only decide phase is
+ * spread over a fork/join pool, then the apply phase runs on the game thread in
+ * world order, so the outcome matches stepping each enemy's
+ * {@link Enemy#onTick(long)} one after another.
+ *
+ * Before deciding, the positions of the living enemies are put in a
+ * {@link SeparationGrid} that chasing enemies steer away from each other with.
+ * The grid and the {@link FlowFieldManager} are looked up on the game thread
+ * and handed to each enemy, so deciding never touches the game manager.
+ */
+public class EnemyAIManager extends TickableManager {
+
+    // Below this many enemies the fork/join overhead outweighs the gain
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    // Number of enemies decided by a single fork/join task
+    private static final int BATCH_SIZE = 32;
+
+    // Width of a crowd grid cell, at least the distance enemies keep apart
+    private static final float CROWD_CELL_SIZE = 2f;
+
+    // Profiler scopes of the phases. Types of enemy are timed while applying
+    // only, as deciding is spread over other threads.
+    private static final int PROFILE_PREPARE = TickProfiler.scope("ai.prepare");
+    private static final int PROFILE_DECIDE = TickProfiler.scope("ai.decide");
+
+    private final ForkJoinPool pool;
+
+    // Enemies still to be stepped this tick, in world order
+    private final List<Enemy> enemies = new ArrayList<>();
+
+    // Positions of the living enemies this tick, read while deciding
+    private final SeparationGrid crowd = new SeparationGrid(CROWD_CELL_SIZE);
+
+    /**
+     * Creates a manager that decides on the common fork/join pool.
+     */
+    public EnemyAIManager() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a manager that decides on the given pool.
+     *
+     * @param pool the pool to run the decide phase on.
+     */
+    public EnemyAIManager(ForkJoinPool pool) {
+        this.pool = pool;
+
+        // Make sure the flow field is there, and ticked ahead of this manager,
+        // before any enemy chases along it
+        GameManager.getManagerFromInstance(FlowFieldManager.class);
+    }
+
+    /**
+     * Steps every enemy in the world that has not already acted this tick and
+     * whose level-of-detail tier calls for a step.
+     *
+     * @param i the current game tick.
+     */
+    @Override
+    public void onTick(long i) {
+        World world = GameManager.get().getWorld();
+        if (world == null) {
+            return;
+        }
+
+        TickProfiler profiler = GameManager.getManagerFromInstance(TickProfiler.class);
+        long start = profiler.begin();
+        GameEvents.TickPhase event = GameEvents.beginPhase();
+        enemies.clear();
+        crowd.clear();
+        for (AbstractEntity entity : world.getEntities()) {
+            if (entity instanceof Enemy) {
+                Enemy enemy = (Enemy) entity;
+                if (!enemy.hasActedOnTick(i) && enemy.prepareTick(i)) {
+                    enemies.add(enemy);
+                }
+                if (!enemy.isDead()) {
+                    crowd.add(enemy.getCol(), enemy.getRow());
+                }
+            }
+        }
+        crowd.build();
+        profiler.end(PROFILE_PREPARE, start);
+        GameEvents.endPhase(event, "ai.prepare", i, crowd.size());
+        step(enemies, i);
+    }
+
+    /**
+     * Get the positions of the living enemies at the start of this tick's
+     * decide phase.
+     *
+     * @return the crowd grid, only to be read.
+     */
+    public SeparationGrid getCrowd() {
+        return crowd;
+    }
+
+    /**
+     * Decide for all the given enemies, then apply their decisions in list order.
+     *
+     * @param toStep the enemies to step.
+     * @param tick   the current game tick.
+     */
+    public void step(List<Enemy> toStep, long tick) {
+        TickProfiler profiler = GameManager.getManagerFromInstance(TickProfiler.class);
+        FlowFieldManager flowField = GameManager.getManagerFromInstance(FlowFieldManager.class);
+        long start = profiler.begin();
+        GameEvents.TickPhase event = GameEvents.beginPhase();
+        if (toStep.size() < PARALLEL_THRESHOLD) {
+            for (Enemy enemy : toStep) {
+                enemy.decide(tick, flowField, crowd);
+            }
+        } else {
+            pool.invoke(new DecideTask(toStep, tick, flowField, crowd, 0, toStep.size()));
+        }
+        profiler.end(PROFILE_DECIDE, start);
+        GameEvents.endPhase(event, "ai.decide", tick, toStep.size());
+
+        event = GameEvents.beginPhase();
+        for (Enemy enemy : toStep) {
+            start = profiler.begin();
+            enemy.applyDecision();
+            profiler.end(enemy.getProfilerScope(), start);
+        }
+        GameEvents.endPhase(event, "ai.apply", tick, toStep.size());
+    }
+
+    /**
+     * Runs the decide phase over a slice of the enemy list, splitting in half
+     * until the slice is small enough.
+     */
+    private static class DecideTask extends RecursiveAction {
+        private final transient List<Enemy> enemies;
+        private final long tick;
+        private final transient FlowFieldManager flowField;
+        private final transient SeparationGrid crowd;
+        private final int from;
+        private final int to;
+
+        DecideTask(List<Enemy> enemies, long tick, FlowFieldManager flowField, SeparationGrid crowd,
+                int from, int to) {
+            this.enemies = enemies;
+            this.tick = tick;
+            this.flowField = flowField;
+            this.crowd = crowd;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    enemies.get(i).decide(tick, flowField, crowd);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new DecideTask(enemies, tick, flowField, crowd, from, middle),
+                        new DecideTask(enemies, tick, flowField, crowd, middle, to));
+            }
+        }
+    }
+}
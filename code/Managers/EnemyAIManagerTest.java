@@ -0,0 +1,212 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.AbstractEntity;
+import deco2800.skyfall.entities.EntityIds;
+import deco2800.skyfall.entities.MainCharacter;
+import deco2800.skyfall.entities.enemies.Enemy;
+import deco2800.skyfall.entities.enemies.EnemyState;
+import deco2800.skyfall.util.SeparationGrid;
+import deco2800.skyfall.worlds.world.World;
+import deco2800.skyfall.worlds.world.WorldBuilder;
+import deco2800.skyfall.worlds.world.WorldDirector;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test stepping enemies with a parallel decide phase and an ordered apply
+ * phase ends the same way as stepping each enemy's onTick one after another.
+ */
+public class EnemyAIManagerTest {
+
+    // More enemies than the manager decides on the game thread alone
+    private static final int ENEMY_COUNT = 96;
+
+    // Enemies at the front of the world that start in reach of the player
+    private static final int IN_REACH = 4;
+
+    private static final long SEED = 7;
+
+    /**
+     * A test world with a player at its centre and enemies around them.
+     */
+    private static class Horde {
+        private World world;
+        private MainCharacter player;
+        private final List<Enemy> enemies = new ArrayList<>();
+    }
+
+    private PlayerRegistry registry;
+    private EnemyAIManager manager;
+
+    @Before
+    public void setUp() {
+        GameManager.getManagerFromInstance(RuntimeServices.class).useHeadless();
+        MainCharacter.resetInstance();
+        registry = GameManager.getManagerFromInstance(PlayerRegistry.class);
+        manager = GameManager.getManagerFromInstance(EnemyAIManager.class);
+    }
+
+    @After
+    public void tearDown() {
+        GameManager.get().setWorld(null);
+    }
+
+    /**
+     * Build a horde the same way every time, with its entity ids and random
+     * streams started from the beginning.
+     */
+    private Horde build() {
+        Horde horde = new Horde();
+        EntityIds.reset();
+        GameManager.getManagerFromInstance(RandomManager.class).setSeed(SEED);
+
+        WorldBuilder builder = new WorldBuilder();
+        WorldDirector.constructTestWorld(builder, 0);
+        horde.world = builder.getWorld();
+        horde.player = new MainCharacter(0f, 0f, 0.05f, "Horde", 50);
+        horde.world.addEntity(horde.player);
+
+        enter(horde);
+        try {
+            for (int n = 0; n < ENEMY_COUNT; n++) {
+                // Spiral out from the player, the first few in reach of them
+                float radius = n < IN_REACH ? 0.5f : 1f + n % 12;
+                double angle = n * 2.4;
+                Enemy enemy = new Enemy((float) (radius * Math.cos(angle)), (float) (radius * Math.sin(angle)),
+                        Enemy.EnemyType.values()[n % Enemy.EnemyType.values().length], 0.06f, "Forest",
+                        "enemyTexture");
+                enemy.setStrength(3);
+                enemy.setChasingSpeed(3f);
+                enemy.setAttackRange(8);
+                horde.enemies.add(enemy);
+                horde.world.addEntity(enemy);
+            }
+        } finally {
+            leave(horde);
+        }
+        return horde;
+    }
+
+    /**
+     * Make a horde's world the game's world, with only its player registered.
+     */
+    private void enter(Horde horde) {
+        GameManager.get().setWorld(horde.world);
+        registry.register(horde.player);
+    }
+
+    private void leave(Horde horde) {
+        registry.unregister(horde.player);
+    }
+
+    /**
+     * Step a horde's enemies through the manager, then resolve their damage.
+     */
+    private void stepInPhases(Horde horde, long tick) {
+        enter(horde);
+        try {
+            manager.onTick(tick);
+            GameManager.getManagerFromInstance(DamageManager.class).resolve();
+        } finally {
+            leave(horde);
+        }
+    }
+
+    /**
+     * Step each of a horde's enemies in world order, then resolve their damage.
+     */
+    private void stepInTurn(Horde horde, long tick) {
+        enter(horde);
+        try {
+            // Enemies steer around where the others were at the start of the
+            // tick, as they do when stepped by the manager
+            SeparationGrid crowd = manager.getCrowd();
+            crowd.clear();
+            for (Enemy enemy : horde.enemies) {
+                if (!enemy.isDead()) {
+                    crowd.add(enemy.getCol(), enemy.getRow());
+                }
+            }
+            crowd.build();
+
+            for (AbstractEntity entity : horde.world.getEntities()) {
+                if (entity instanceof Enemy) {
+                    ((Enemy) entity).onTick(tick);
+                }
+            }
+            GameManager.getManagerFromInstance(DamageManager.class).resolve();
+        } finally {
+            leave(horde);
+        }
+    }
+
+    /**
+     * Step both hordes, then fire the timers both set, so players in each are
+     * hurt and recover on the same ticks.
+     */
+    private void step(Horde inPhases, Horde inTurn, long tick) {
+        stepInPhases(inPhases, tick);
+        stepInTurn(inTurn, tick);
+        GameManager.getManagerFromInstance(TimerWheelManager.class).onTick(tick);
+    }
+
+    private static void assertSameOutcome(Horde expected, Horde actual, long tick) {
+        String at = "tick " + tick;
+        Assert.assertEquals(at, expected.player.getHealth(), actual.player.getHealth());
+        Assert.assertEquals(at, expected.player.isHurt(), actual.player.isHurt());
+        for (int n = 0; n < ENEMY_COUNT; n++) {
+            Enemy expectedEnemy = expected.enemies.get(n);
+            Enemy actualEnemy = actual.enemies.get(n);
+            Assert.assertEquals(at, expectedEnemy.getState(), actualEnemy.getState());
+            Assert.assertEquals(at, expectedEnemy.getCol(), actualEnemy.getCol(), 0f);
+            Assert.assertEquals(at, expectedEnemy.getRow(), actualEnemy.getRow(), 0f);
+        }
+    }
+
+    /**
+     * Test a horde stepped by the manager moves, changes state and hurts the
+     * player exactly as one whose enemies are stepped in turn.
+     */
+    @Test
+    public void matchesSequentialTest() {
+        Horde inPhases = build();
+        Horde inTurn = build();
+
+        for (long tick = 0; tick < 200; tick++) {
+            step(inPhases, inTurn, tick);
+            assertSameOutcome(inTurn, inPhases, tick);
+        }
+        Assert.assertTrue(inPhases.player.getHealth() < 50);
+    }
+
+    /**
+     * Test enemies that decided to chase the player, but come after the enemy
+     * that hurt them, wander instead, as they would if stepped in turn.
+     */
+    @Test
+    public void hurtPlayerTest() {
+        Horde inPhases = build();
+        Horde inTurn = build();
+
+        step(inPhases, inTurn, 0);
+        assertSameOutcome(inTurn, inPhases, 0);
+        Assert.assertTrue(inPhases.player.isHurt());
+        Assert.assertEquals(47, inPhases.player.getHealth());
+
+        // Every enemy in reach chose to chase, but only the first one hit
+        int attacking = 0;
+        for (Enemy enemy : inPhases.enemies.subList(0, IN_REACH)) {
+            if (enemy.getState() == EnemyState.ATTACK) {
+                attacking++;
+            } else {
+                Assert.assertEquals(EnemyState.WANDER, enemy.getState());
+            }
+        }
+        Assert.assertEquals(1, attacking);
+    }
+}
@@ -0,0 +1,163 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.enemies.Enemy;
+import deco2800.skyfall.entities.enemies.Spawnable;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Keeps dead enemies of each {@link Enemy.EnemyType} so they can be reset and
+ * reused by {@link Spawnable#newInstance} instead of building a new enemy, its
+ * physics body and its animations every spawn.
+ *
+ * Each type has a low water mark, the number of enemies {@link #prewarm} tops
+ * the pool up to ahead of a spawn wave, and a high water mark, the most enemies
+ * kept. Enemies released while the pool is at its high water mark are disposed
+ * of instead.
+ */
+public class EnemyPoolManager extends AbstractManager {
+
+    // Water marks used for types that have not been configured
+    public static final int DEFAULT_LOW_WATER_MARK = 4;
+    public static final int DEFAULT_HIGH_WATER_MARK = 32;
+
+    private final Map<Enemy.EnemyType, ArrayDeque<Enemy>> pools = new EnumMap<>(Enemy.EnemyType.class);
+    private final Map<Enemy.EnemyType, int[]> waterMarks = new EnumMap<>(Enemy.EnemyType.class);
+
+    // Every enemy in a pool, so one released twice is only kept once
+    private final Set<Enemy> parked = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Creates an empty pool for every enemy type.
+     */
+    public EnemyPoolManager() {
+        for (Enemy.EnemyType type : Enemy.EnemyType.values()) {
+            pools.put(type, new ArrayDeque<>());
+            waterMarks.put(type, new int[] { DEFAULT_LOW_WATER_MARK, DEFAULT_HIGH_WATER_MARK });
+        }
+    }
+
+    /**
+     * Set the water marks of a type of enemy. Pooled enemies above the new high
+     * water mark are disposed of.
+     *
+     * @param type the type of enemy.
+     * @param low  the number of enemies prewarming tops the pool up to.
+     * @param high the most enemies of this type the pool keeps.
+     */
+    public void setWaterMarks(Enemy.EnemyType type, int low, int high) {
+        if (low < 0 || high < low) {
+            throw new IllegalArgumentException("Pool water marks must satisfy 0 <= low <= high");
+        }
+        waterMarks.put(type, new int[] { low, high });
+
+        ArrayDeque<Enemy> pool = pools.get(type);
+        while (pool.size() > high) {
+            Enemy enemy = pool.pop();
+            parked.remove(enemy);
+            enemy.discard();
+        }
+    }
+
+    /**
+     * Get the low water mark of a type of enemy.
+     *
+     * @param type the type of enemy.
+     * @return the low water mark.
+     */
+    public int getLowWaterMark(Enemy.EnemyType type) {
+        return waterMarks.get(type)[0];
+    }
+
+    /**
+     * Get the high water mark of a type of enemy.
+     *
+     * @param type the type of enemy.
+     * @return the high water mark.
+     */
+    public int getHighWaterMark(Enemy.EnemyType type) {
+        return waterMarks.get(type)[1];
+    }
+
+    /**
+     * Get the number of enemies of a type waiting in the pool.
+     *
+     * @param type the type of enemy.
+     * @return the number of pooled enemies.
+     */
+    public int getPooledCount(Enemy.EnemyType type) {
+        return pools.get(type).size();
+    }
+
+    /**
+     * Take a parked enemy out of the pool. The caller must respawn it before
+     * adding it back to the world.
+     *
+     * @param type  the type of enemy wanted.
+     * @param clazz the class of enemy wanted.
+     * @param <T>   the class of enemy wanted.
+     * @return a parked enemy, or null if there is none of that type and class.
+     */
+    public <T extends Enemy> T acquire(Enemy.EnemyType type, Class<T> clazz) {
+        ArrayDeque<Enemy> pool = pools.get(type);
+        Enemy enemy = pool.peek();
+        if (enemy == null || !clazz.isInstance(enemy)) {
+            return null;
+        }
+        pool.pop();
+        parked.remove(enemy);
+        return clazz.cast(enemy);
+    }
+
+    /**
+     * Park an enemy that has left the world and keep it for reuse, or dispose of
+     * it if the pool for its type is full. Only spawnable enemies are pooled, as
+     * they are the only ones handed back out. An enemy already in the pool is
+     * left where it is.
+     *
+     * @param enemy the enemy to release.
+     */
+    public void release(Enemy enemy) {
+        Enemy.EnemyType type = enemy.getEnemyType();
+        if (type == null || !(enemy instanceof Spawnable) || parked.contains(enemy)) {
+            return;
+        }
+
+        ArrayDeque<Enemy> pool = pools.get(type);
+        if (pool.size() >= getHighWaterMark(type)) {
+            enemy.discard();
+            return;
+        }
+        enemy.park();
+        pool.push(enemy);
+        parked.add(enemy);
+    }
+
+    /**
+     * Build enemies ahead of time until the pool for a type reaches its low
+     * water mark, or the creation limit is reached.
+     *
+     * @param type      the type of enemy.
+     * @param factory   builds a new enemy of that type.
+     * @param maxCreate the most enemies to build in this call.
+     * @return the number of enemies built.
+     */
+    public int prewarm(Enemy.EnemyType type, Supplier<? extends Enemy> factory, int maxCreate) {
+        ArrayDeque<Enemy> pool = pools.get(type);
+        int created = 0;
+        while (created < maxCreate && pool.size() < getLowWaterMark(type)) {
+            Enemy enemy = factory.get();
+            enemy.park();
+            pool.push(enemy);
+            parked.add(enemy);
+            created++;
+        }
+        return created;
+    }
+}
@@ -0,0 +1,105 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.enemies.Enemy;
+import deco2800.skyfall.entities.enemies.Medium;
+import deco2800.skyfall.entities.enemies.Spawnable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Test the enemy pool.
+ */
+public class EnemyPoolManagerTest {
+
+    private static Enemy enemy(Enemy.EnemyType type) {
+        Enemy enemy = mock(Enemy.class, withSettings().extraInterfaces(Spawnable.class));
+        when(enemy.getEnemyType()).thenReturn(type);
+        return enemy;
+    }
+
+    /**
+     * Test an enemy released twice is only handed back out once.
+     */
+    @Test
+    public void releaseTwiceTest() {
+        EnemyPoolManager pool = new EnemyPoolManager();
+        Enemy scout = enemy(Enemy.EnemyType.SCOUT);
+
+        pool.release(scout);
+        pool.release(scout);
+        Assert.assertSame(scout, pool.acquire(Enemy.EnemyType.SCOUT, Enemy.class));
+        Assert.assertNull(pool.acquire(Enemy.EnemyType.SCOUT, Enemy.class));
+
+        // Once handed out it can be released again
+        pool.release(scout);
+        Assert.assertSame(scout, pool.acquire(Enemy.EnemyType.SCOUT, Enemy.class));
+    }
+
+    /**
+     * Test enemies released while the pool is at its high water mark are
+     * thrown away rather than parked.
+     */
+    @Test
+    public void highWaterMarkTest() {
+        EnemyPoolManager pool = new EnemyPoolManager();
+        pool.setWaterMarks(Enemy.EnemyType.SCOUT, 0, 2);
+        Enemy first = enemy(Enemy.EnemyType.SCOUT);
+        Enemy second = enemy(Enemy.EnemyType.SCOUT);
+        Enemy third = enemy(Enemy.EnemyType.SCOUT);
+
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+        Assert.assertEquals(2, pool.getPooledCount(Enemy.EnemyType.SCOUT));
+        verify(first).park();
+        verify(second).park();
+        verify(third, never()).park();
+        verify(third).discard();
+
+        // Lowering the mark throws away the extra parked enemy
+        pool.setWaterMarks(Enemy.EnemyType.SCOUT, 0, 1);
+        Assert.assertEquals(1, pool.getPooledCount(Enemy.EnemyType.SCOUT));
+        verify(second).discard();
+    }
+
+    /**
+     * Test prewarming builds enemies up to the low water mark, no more than
+     * its budget at a time.
+     */
+    @Test
+    public void prewarmTest() {
+        EnemyPoolManager pool = new EnemyPoolManager();
+        pool.setWaterMarks(Enemy.EnemyType.HEAVY, 3, 8);
+
+        Assert.assertEquals(2, pool.prewarm(Enemy.EnemyType.HEAVY, () -> enemy(Enemy.EnemyType.HEAVY), 2));
+        Assert.assertEquals(2, pool.getPooledCount(Enemy.EnemyType.HEAVY));
+        Assert.assertEquals(1, pool.prewarm(Enemy.EnemyType.HEAVY, () -> enemy(Enemy.EnemyType.HEAVY), 5));
+        Assert.assertEquals(3, pool.getPooledCount(Enemy.EnemyType.HEAVY));
+        Assert.assertEquals(0, pool.prewarm(Enemy.EnemyType.HEAVY, () -> enemy(Enemy.EnemyType.HEAVY), 5));
+        Assert.assertEquals(0, pool.getPooledCount(Enemy.EnemyType.SCOUT));
+
+        Enemy prewarmed = pool.acquire(Enemy.EnemyType.HEAVY, Enemy.class);
+        verify(prewarmed).park();
+    }
+
+    /**
+     * Test nothing is handed out for a type with no parked enemies, or of the
+     * wrong class.
+     */
+    @Test
+    public void acquireEmptyTest() {
+        EnemyPoolManager pool = new EnemyPoolManager();
+        Assert.assertNull(pool.acquire(Enemy.EnemyType.MEDIUM, Enemy.class));
+
+        pool.release(enemy(Enemy.EnemyType.MEDIUM));
+        Assert.assertNull(pool.acquire(Enemy.EnemyType.HEAVY, Enemy.class));
+        Assert.assertNull(pool.acquire(Enemy.EnemyType.MEDIUM, Medium.class));
+        Assert.assertEquals(1, pool.getPooledCount(Enemy.EnemyType.MEDIUM));
+    }
+}
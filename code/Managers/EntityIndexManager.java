@@ -0,0 +1,306 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.AbstractEntity;
+import deco2800.skyfall.entities.Identifiable;
+import deco2800.skyfall.util.HexVector;
+import deco2800.skyfall.util.LongMap;
+import deco2800.skyfall.worlds.world.World;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps lookup indices over the entities in the game world so that hot paths
+ * do not need to scan {@link World#getEntities()} linearly.
+ *
+ * Entities are bucketed into a uniform grid keyed on their column and row. The
+ * grid is brought up to date once per tick, so radius and nearest queries only
+ * visit the cells around the query position. Entities with a world id can also
+ * be looked up by that id.
+ */
+public class EntityIndexManager extends TickableManager {
+
+    // Default width and height of a grid cell, in tiles
+    public static final float DEFAULT_CELL_SIZE = 4f;
+
+    private final float cellSize;
+
+    // Entities in each grid cell, keyed on the packed cell coordinates
+    private final LongMap<List<AbstractEntity>> cells = new LongMap<>(1024);
+
+    // Where each indexed entity currently lives. Identity based, as not every
+    // entity defines equality.
+    private final Map<AbstractEntity, Slot> slots = new IdentityHashMap<>();
+
+    // Indexed entities that have a world id, keyed on that id
+    private final LongMap<AbstractEntity> byId = new LongMap<>(1024);
+
+    // Incremented every refresh, used to spot entities that left the world
+    private long generation = 0;
+
+    /**
+     * Where an entity lives in the grid and when it was last seen in the world.
+     */
+    private static class Slot {
+        private long cellKey;
+        private long seen;
+    }
+
+    /**
+     * Creates an index with the default cell size.
+     */
+    public EntityIndexManager() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates an index with the given cell size.
+     *
+     * @param cellSize the width and height of a grid cell, in tiles.
+     */
+    public EntityIndexManager(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Brings the index in line with the entities currently in the world.
+     *
+     * @param i the current game tick.
+     */
+    @Override
+    public void onTick(long i) {
+        World world = GameManager.get().getWorld();
+        if (world != null) {
+            refresh(world.getEntities());
+        }
+    }
+
+    /**
+     * Re-bucket every given entity and drop any indexed entity not in the list.
+     *
+     * @param entities the entities currently in the world.
+     */
+    public void refresh(List<AbstractEntity> entities) {
+        generation++;
+        for (AbstractEntity entity : entities) {
+            update(entity).seen = generation;
+        }
+
+        Iterator<Map.Entry<AbstractEntity, Slot>> it = slots.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<AbstractEntity, Slot> entry = it.next();
+            if (entry.getValue().seen != generation) {
+                removeFromCell(entry.getValue().cellKey, entry.getKey());
+                removeId(entry.getKey());
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Index an entity, or move it to its new cell if it has changed cell since it
+     * was last indexed.
+     *
+     * @param entity the entity to index.
+     */
+    public void add(AbstractEntity entity) {
+        update(entity).seen = generation;
+    }
+
+    /**
+     * Remove an entity from the index.
+     *
+     * @param entity the entity to remove.
+     */
+    public void remove(AbstractEntity entity) {
+        Slot slot = slots.remove(entity);
+        if (slot != null) {
+            removeFromCell(slot.cellKey, entity);
+            removeId(entity);
+        }
+    }
+
+    /**
+     * Get an indexed entity by its world id.
+     *
+     * @param worldId the id of the entity.
+     * @return the entity, or null if no indexed entity has that id.
+     */
+    public AbstractEntity getById(long worldId) {
+        return byId.get(worldId);
+    }
+
+    /**
+     * Get the number of entities in the index.
+     *
+     * @return the number of indexed entities.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Get all the entities of a type within a radius of a position.
+     *
+     * @param centre the centre of the search.
+     * @param radius the search radius, in tiles.
+     * @param type   the type of entity wanted.
+     * @param <T>    the type of entity wanted.
+     * @return the matching entities, in no particular order.
+     */
+    public <T> List<T> getWithinRadius(HexVector centre, float radius, Class<T> type) {
+        List<T> found = new ArrayList<>();
+        collectWithinRadius(centre, radius, type, found);
+        return found;
+    }
+
+    /**
+     * Add all the entities of a type within a radius of a position to a list.
+     *
+     * @param centre the centre of the search.
+     * @param radius the search radius, in tiles.
+     * @param type   the type of entity wanted.
+     * @param out    the list to add the matching entities to.
+     * @param <T>    the type of entity wanted.
+     */
+    public <T> void collectWithinRadius(HexVector centre, float radius, Class<T> type, List<? super T> out) {
+        int minX = cellOf(centre.getCol() - radius);
+        int maxX = cellOf(centre.getCol() + radius);
+        int minY = cellOf(centre.getRow() - radius);
+        int maxY = cellOf(centre.getRow() + radius);
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                List<AbstractEntity> cell = cells.get(key(x, y));
+                if (cell == null) {
+                    continue;
+                }
+                for (int j = 0; j < cell.size(); j++) {
+                    AbstractEntity entity = cell.get(j);
+                    if (type.isInstance(entity) && centre.distance(entity.getPosition()) <= radius) {
+                        out.add(type.cast(entity));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the entity of a type closest to a position, searching outward ring by
+     * ring from the cell containing the position.
+     *
+     * @param centre    the centre of the search.
+     * @param maxRadius the furthest an entity can be to be returned, in tiles.
+     * @param type      the type of entity wanted.
+     * @param <T>       the type of entity wanted.
+     * @return the closest matching entity, or null if there is none in range.
+     */
+    public <T> T getNearest(HexVector centre, float maxRadius, Class<T> type) {
+        int cx = cellOf(centre.getCol());
+        int cy = cellOf(centre.getRow());
+        int maxRing = (int) Math.ceil(maxRadius / cellSize);
+
+        AbstractEntity best = null;
+        float bestDistance = maxRadius;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Nothing in this ring or beyond can beat what has been found
+            if (best != null && bestDistance <= (ring - 1) * cellSize) {
+                break;
+            }
+            for (int x = cx - ring; x <= cx + ring; x++) {
+                for (int y = cy - ring; y <= cy + ring; y++) {
+                    if (Math.abs(x - cx) != ring && Math.abs(y - cy) != ring) {
+                        continue;
+                    }
+                    List<AbstractEntity> cell = cells.get(key(x, y));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int j = 0; j < cell.size(); j++) {
+                        AbstractEntity entity = cell.get(j);
+                        if (!type.isInstance(entity)) {
+                            continue;
+                        }
+                        float distance = centre.distance(entity.getPosition());
+                        if (distance <= bestDistance) {
+                            best = entity;
+                            bestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+        return best == null ? null : type.cast(best);
+    }
+
+    /**
+     * Put an entity in the cell for its current position.
+     *
+     * @param entity the entity to place.
+     * @return the slot tracking the entity.
+     */
+    private Slot update(AbstractEntity entity) {
+        long cellKey = key(cellOf(entity.getCol()), cellOf(entity.getRow()));
+        Slot slot = slots.get(entity);
+        if (slot == null) {
+            slot = new Slot();
+            slot.cellKey = cellKey;
+            slots.put(entity, slot);
+            cellFor(cellKey).add(entity);
+            if (entity instanceof Identifiable) {
+                byId.put(((Identifiable) entity).getWorldId(), entity);
+            }
+        } else if (slot.cellKey != cellKey) {
+            removeFromCell(slot.cellKey, entity);
+            slot.cellKey = cellKey;
+            cellFor(cellKey).add(entity);
+        }
+        return slot;
+    }
+
+    private void removeId(AbstractEntity entity) {
+        if (entity instanceof Identifiable) {
+            byId.remove(((Identifiable) entity).getWorldId());
+        }
+    }
+
+    private List<AbstractEntity> cellFor(long cellKey) {
+        List<AbstractEntity> cell = cells.get(cellKey);
+        if (cell == null) {
+            cell = new ArrayList<>(4);
+            cells.put(cellKey, cell);
+        }
+        return cell;
+    }
+
+    private void removeFromCell(long cellKey, AbstractEntity entity) {
+        List<AbstractEntity> cell = cells.get(cellKey);
+        if (cell == null) {
+            return;
+        }
+        for (int j = 0; j < cell.size(); j++) {
+            if (cell.get(j) == entity) {
+                // Order within a cell does not matter, so swap with the last element
+                int last = cell.size() - 1;
+                cell.set(j, cell.get(last));
+                cell.remove(last);
+                break;
+            }
+        }
+        if (cell.isEmpty()) {
+            cells.remove(cellKey);
+        }
+    }
+
+    private int cellOf(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,119 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.AbstractEntity;
+import deco2800.skyfall.entities.Identifiable;
+import deco2800.skyfall.resources.GoldPiece;
+import deco2800.skyfall.util.HexVector;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Test the entity index.
+ */
+public class EntityIndexManagerTest {
+
+    private EntityIndexManager index;
+    private List<AbstractEntity> entities;
+
+    /**
+     * Set up an empty index and world entity list.
+     */
+    @Before
+    public void setUp() {
+        index = new EntityIndexManager(4f);
+        entities = new ArrayList<>();
+    }
+
+    private <T extends AbstractEntity> T place(Class<T> type, float col, float row) {
+        T entity = mock(type);
+        moveTo(entity, col, row);
+        entities.add(entity);
+        return entity;
+    }
+
+    private void moveTo(AbstractEntity entity, float col, float row) {
+        when(entity.getCol()).thenReturn(col);
+        when(entity.getRow()).thenReturn(row);
+        when(entity.getPosition()).thenReturn(new HexVector(col, row));
+    }
+
+    /**
+     * Test radius queries only return entities of the wanted type within range.
+     */
+    @Test
+    public void radiusQueryTest() {
+        GoldPiece near = place(GoldPiece.class, 1f, 1f);
+        place(GoldPiece.class, 20f, 20f);
+        place(AbstractEntity.class, 1f, 1.5f);
+        index.refresh(entities);
+
+        List<GoldPiece> found = index.getWithinRadius(new HexVector(0f, 0f), 3f, GoldPiece.class);
+        Assert.assertEquals(1, found.size());
+        Assert.assertSame(near, found.get(0));
+
+        // Negative coordinates land in their own cells
+        GoldPiece negative = place(GoldPiece.class, -2f, -1f);
+        index.refresh(entities);
+        Assert.assertEquals(2, index.getWithinRadius(new HexVector(0f, 0f), 3f, GoldPiece.class).size());
+        Assert.assertSame(negative, index.getNearest(new HexVector(-3f, -3f), 10f, GoldPiece.class));
+    }
+
+    /**
+     * Test nearest queries search beyond the first cell and respect the range.
+     */
+    @Test
+    public void nearestQueryTest() {
+        GoldPiece close = place(GoldPiece.class, 9f, 0f);
+        place(GoldPiece.class, 15f, 0f);
+        index.refresh(entities);
+
+        Assert.assertSame(close, index.getNearest(new HexVector(0f, 0f), 20f, GoldPiece.class));
+        Assert.assertNull(index.getNearest(new HexVector(0f, 0f), 5f, GoldPiece.class));
+    }
+
+    /**
+     * Test entities with a world id can be looked up by it until they leave.
+     */
+    @Test
+    public void idLookupTest() {
+        AbstractEntity entity = mock(AbstractEntity.class, withSettings().extraInterfaces(Identifiable.class));
+        moveTo(entity, 5f, 5f);
+        when(((Identifiable) entity).getWorldId()).thenReturn(77L);
+        entities.add(entity);
+        index.refresh(entities);
+
+        Assert.assertSame(entity, index.getById(77L));
+        Assert.assertNull(index.getById(78L));
+
+        index.remove(entity);
+        Assert.assertNull(index.getById(77L));
+    }
+
+    /**
+     * Test entities are moved between cells and dropped when they leave the world.
+     */
+    @Test
+    public void refreshTest() {
+        GoldPiece gold = place(GoldPiece.class, 0f, 0f);
+        index.refresh(entities);
+        Assert.assertEquals(1, index.size());
+
+        moveTo(gold, 30f, 30f);
+        index.refresh(entities);
+        Assert.assertTrue(index.getWithinRadius(new HexVector(0f, 0f), 2f, GoldPiece.class).isEmpty());
+        Assert.assertSame(gold, index.getNearest(new HexVector(29f, 29f), 3f, GoldPiece.class));
+
+        entities.clear();
+        index.refresh(entities);
+        Assert.assertEquals(0, index.size());
+        Assert.assertNull(index.getNearest(new HexVector(29f, 29f), 3f, GoldPiece.class));
+    }
+}
@@ -0,0 +1,525 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.MainCharacter;
+import deco2800.skyfall.worlds.Tile;
+import deco2800.skyfall.worlds.world.World;
+
+import java.util.Arrays;
+
+/**
+ * Keeps a flow field over the tiles around the primary player of the
+ * {@link PlayerRegistry}, so that any number of chasing enemies can find their
+ * way around water by looking up the direction to step in from the tile they
+ * are on, instead of each working out its own path.
+ *
+ * The field covers a square window of tiles centred near the player's tile.
+ * When the player moves to another tile the distances are rebuilt with a
+ * breadth first search out from the player, a set number of tiles per tick, so
+ * a rebuild is spread over a few ticks. Enemies keep reading the last finished
+ * field while the next is built, and the window is only moved, keeping the
+ * terrain it already looked at, once the player gets near its edge.
+ *
+ * The field is built on the game thread. The finished field is not written to
+ * until the next one replaces it, so enemies may read it while deciding
+ * concurrently.
+ */
+public class FlowFieldManager extends TickableManager {
+
+    /**
+     * Tells the field which tiles can be walked on.
+     */
+    public interface Terrain {
+        /**
+         * Check whether a tile can be walked on.
+         *
+         * @param col the column of the tile.
+         * @param row the row of the tile.
+         * @return true if the tile exists and can be walked on.
+         */
+        boolean isPassable(int col, int row);
+    }
+
+    // Number of tiles from the window's centre to its edge
+    public static final int DEFAULT_RADIUS = 40;
+
+    // Tiles searched each tick while a field is being built
+    public static final int DEFAULT_TICK_BUDGET = 4096;
+
+    // Returned for tiles with no way to the player, or the player's own tile
+    public static final int NONE = -1;
+
+    // Steps to the eight neighbouring tiles, orthogonal ones first
+    private static final int[] STEP_COLS = {1, 0, -1, 0, 1, -1, -1, 1};
+    private static final int[] STEP_ROWS = {0, 1, 0, -1, 1, 1, -1, -1};
+    private static final float[] STEP_X = new float[8];
+    private static final float[] STEP_Y = new float[8];
+
+    static {
+        for (int i = 0; i < 8; i++) {
+            float length = (float) Math.sqrt(STEP_COLS[i] * STEP_COLS[i] + STEP_ROWS[i] * STEP_ROWS[i]);
+            STEP_X[i] = STEP_COLS[i] / length;
+            STEP_Y[i] = STEP_ROWS[i] / length;
+        }
+    }
+
+    // Distance given to tiles the search has not reached
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final int radius;
+    private final int size;
+    private final Terrain terrain;
+    private int tickBudget = DEFAULT_TICK_BUDGET;
+
+    // Terrain of the window, sampled once for each tile that enters it
+    private boolean[] passable;
+    private boolean[] spare;
+    private int windowCol;
+    private int windowRow;
+    private boolean windowPlaced = false;
+
+    // The field being built
+    private int[] buildDistances;
+    private byte[] buildDirections;
+    private final int[] queue;
+    private int queueHead;
+    private int queueTail;
+    private int directionCursor;
+    private boolean building = false;
+    private int buildGoalCol;
+    private int buildGoalRow;
+    private int buildWindowCol;
+    private int buildWindowRow;
+
+    // The goal to build for once the current build finishes
+    private boolean goalPending = false;
+    private int pendingGoalCol;
+    private int pendingGoalRow;
+
+    // The last finished field, read by enemies
+    private volatile Published published;
+
+    // Number of fields finished since the manager was made
+    private long builtCount = 0;
+
+    // The player the field follows, as of the last tick
+    private MainCharacter player;
+
+    /**
+     * A finished field. Never written to once published.
+     */
+    private static final class Published {
+        private final int[] distances;
+        private final byte[] directions;
+        private final int windowCol;
+        private final int windowRow;
+        private final int goalCol;
+        private final int goalRow;
+
+        private Published(int[] distances, byte[] directions, int windowCol, int windowRow,
+                int goalCol, int goalRow) {
+            this.distances = distances;
+            this.directions = directions;
+            this.windowCol = windowCol;
+            this.windowRow = windowRow;
+            this.goalCol = goalCol;
+            this.goalRow = goalRow;
+        }
+    }
+
+    /**
+     * Creates a field over the world's tiles with a radius of
+     * {@link #DEFAULT_RADIUS}, treating water as impassable.
+     */
+    public FlowFieldManager() {
+        this(DEFAULT_RADIUS, FlowFieldManager::isWorldTilePassable);
+    }
+
+    /**
+     * Creates a field over the given terrain.
+     *
+     * @param radius  the number of tiles from the window's centre to its edge.
+     * @param terrain tells the field which tiles can be walked on.
+     */
+    public FlowFieldManager(int radius, Terrain terrain) {
+        if (radius < 1) {
+            throw new IllegalArgumentException("Flow field radius must be at least 1");
+        }
+        this.radius = radius;
+        this.size = 2 * radius + 1;
+        this.terrain = terrain;
+
+        int cells = size * size;
+        this.passable = new boolean[cells];
+        this.spare = new boolean[cells];
+        this.buildDistances = new int[cells];
+        this.buildDirections = new byte[cells];
+        this.queue = new int[cells];
+    }
+
+    /**
+     * Set how many tiles are searched each tick while building a field.
+     *
+     * @param tickBudget the number of tiles, at least 1.
+     */
+    public void setTickBudget(int tickBudget) {
+        if (tickBudget < 1) {
+            throw new IllegalArgumentException("Flow field budget must be at least 1");
+        }
+        this.tickBudget = tickBudget;
+    }
+
+    /**
+     * Check whether a world tile can be walked on. Water, lake and ocean tiles
+     * cannot be, the same as for the main character when not swimming.
+     *
+     * @param tile the tile, may be null.
+     * @return true if the tile exists and is not water.
+     */
+    public static boolean isPassable(Tile tile) {
+        return tile != null && !isWater(tile);
+    }
+
+    /**
+     * Check whether a tile is water.
+     *
+     * @param tile the tile.
+     * @return true if the tile is water, a lake or ocean.
+     */
+    public static boolean isWater(Tile tile) {
+        String texture = tile.getTextureName();
+        return texture.contains("water") || texture.contains("lake") || texture.contains("ocean");
+    }
+
+    static boolean isWorldTilePassable(int col, int row) {
+        World world = GameManager.get().getWorld();
+        if (world == null) {
+            return false;
+        }
+        return isPassable(getTile(world, col, row));
+    }
+
+    /**
+     * Get the world tile at a tile position. Odd columns are offset half a
+     * tile, as in MainCharacter.getTile.
+     *
+     * @param world the world.
+     * @param col   the column.
+     * @param row   the row.
+     * @return the tile, or null if there is none.
+     */
+    public static Tile getTile(World world, int col, int row) {
+        float tileRow = col % 2 != 0 ? row + 0.5f : row;
+        return world.getTile((float) col, tileRow);
+    }
+
+    /**
+     * Follows the primary player to another tile and builds some more of the
+     * field.
+     *
+     * @param i the current game tick.
+     */
+    @Override
+    public void onTick(long i) {
+        MainCharacter mc = GameManager.getManagerFromInstance(PlayerRegistry.class).getPrimary();
+        player = mc;
+        if (mc == null) {
+            return;
+        }
+        setGoal(Math.round(mc.getPosition().getCol()), Math.round(mc.getPosition().getRow()));
+        update();
+    }
+
+    /**
+     * Set the tile the field leads to. If a field is being built it is finished
+     * first, then another is built for the new goal.
+     *
+     * @param col the column of the goal tile.
+     * @param row the row of the goal tile.
+     */
+    public void setGoal(int col, int row) {
+        if (building ? col == buildGoalCol && row == buildGoalRow : isPublishedGoal(col, row)) {
+            goalPending = false;
+            return;
+        }
+        goalPending = true;
+        pendingGoalCol = col;
+        pendingGoalRow = row;
+    }
+
+    /**
+     * Build as much of the field as the tick budget allows, publishing it if it
+     * is finished.
+     */
+    public void update() {
+        if (!building) {
+            if (!goalPending) {
+                return;
+            }
+            startBuild(pendingGoalCol, pendingGoalRow);
+            goalPending = false;
+        }
+
+        int budget = search(tickBudget);
+        if (queueHead < queueTail) {
+            return;
+        }
+        pointDirections(budget);
+        if (directionCursor < buildDistances.length) {
+            return;
+        }
+        publish();
+    }
+
+    private boolean isPublishedGoal(int col, int row) {
+        Published field = published;
+        return field != null && field.goalCol == col && field.goalRow == row;
+    }
+
+    private void startBuild(int goalCol, int goalRow) {
+        placeWindow(goalCol, goalRow);
+
+        building = true;
+        buildGoalCol = goalCol;
+        buildGoalRow = goalRow;
+        buildWindowCol = windowCol;
+        buildWindowRow = windowRow;
+
+        Arrays.fill(buildDistances, UNREACHED);
+        queueHead = 0;
+        queueTail = 0;
+        directionCursor = 0;
+
+        int goal = (goalRow - windowRow) * size + (goalCol - windowCol);
+        buildDistances[goal] = 0;
+        queue[queueTail++] = goal;
+    }
+
+    /**
+     * Move the window so the goal is well inside it, if it is near the edge.
+     * Terrain already sampled is kept, and only tiles new to the window are
+     * looked at.
+     */
+    private void placeWindow(int goalCol, int goalRow) {
+        int margin = radius / 2;
+        if (windowPlaced
+                && goalCol - windowCol >= margin && windowCol + size - 1 - goalCol >= margin
+                && goalRow - windowRow >= margin && windowRow + size - 1 - goalRow >= margin) {
+            return;
+        }
+
+        int newCol = goalCol - radius;
+        int newRow = goalRow - radius;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int oldC = newCol + c - windowCol;
+                int oldR = newRow + r - windowRow;
+                if (windowPlaced && oldC >= 0 && oldC < size && oldR >= 0 && oldR < size) {
+                    spare[r * size + c] = passable[oldR * size + oldC];
+                } else {
+                    spare[r * size + c] = terrain.isPassable(newCol + c, newRow + r);
+                }
+            }
+        }
+
+        boolean[] swap = passable;
+        passable = spare;
+        spare = swap;
+        windowCol = newCol;
+        windowRow = newRow;
+        windowPlaced = true;
+    }
+
+    /**
+     * Spread the distances out from the goal over orthogonal steps.
+     *
+     * @return the budget left.
+     */
+    private int search(int budget) {
+        while (queueHead < queueTail && budget > 0) {
+            int cell = queue[queueHead++];
+            budget--;
+            int c = cell % size;
+            int r = cell / size;
+            int next = buildDistances[cell] + 1;
+            for (int i = 0; i < 4; i++) {
+                int nc = c + STEP_COLS[i];
+                int nr = r + STEP_ROWS[i];
+                if (nc < 0 || nc >= size || nr < 0 || nr >= size) {
+                    continue;
+                }
+                int neighbour = nr * size + nc;
+                if (passable[neighbour] && buildDistances[neighbour] == UNREACHED) {
+                    buildDistances[neighbour] = next;
+                    queue[queueTail++] = neighbour;
+                }
+            }
+        }
+        return budget;
+    }
+
+    /**
+     * Point every reached tile at its closest neighbour, stepping diagonally
+     * only where both tiles beside the diagonal can be walked on.
+     *
+     * @return the budget left.
+     */
+    private int pointDirections(int budget) {
+        int cells = buildDistances.length;
+        while (directionCursor < cells && budget > 0) {
+            int cell = directionCursor++;
+            budget--;
+            buildDirections[cell] = (byte) closestNeighbour(cell);
+        }
+        return budget;
+    }
+
+    private int closestNeighbour(int cell) {
+        int distance = buildDistances[cell];
+        if (distance == UNREACHED || distance == 0) {
+            return NONE;
+        }
+        int c = cell % size;
+        int r = cell / size;
+        int best = NONE;
+        int bestDistance = distance;
+        for (int i = 0; i < 8; i++) {
+            int nc = c + STEP_COLS[i];
+            int nr = r + STEP_ROWS[i];
+            if (nc < 0 || nc >= size || nr < 0 || nr >= size) {
+                continue;
+            }
+            if (i >= 4 && !(passable[r * size + nc] && passable[nr * size + c])) {
+                continue;
+            }
+            // Distances count orthogonal steps, so in the open a diagonal step
+            // gets two closer and wins over an orthogonal one
+            int nd = buildDistances[nr * size + nc];
+            if (nd < bestDistance) {
+                best = i;
+                bestDistance = nd;
+            }
+        }
+        return best;
+    }
+
+    private void publish() {
+        Published previous = published;
+        published = new Published(buildDistances, buildDirections, buildWindowCol, buildWindowRow,
+                buildGoalCol, buildGoalRow);
+        building = false;
+        builtCount++;
+
+        // Reuse the arrays of the field being replaced for the next build
+        if (previous != null) {
+            buildDistances = previous.distances;
+            buildDirections = previous.directions;
+        } else {
+            buildDistances = new int[size * size];
+            buildDirections = new byte[size * size];
+        }
+    }
+
+    /**
+     * Get the direction to step in from a tile to get closer to the goal.
+     *
+     * @param col the column of the tile.
+     * @param row the row of the tile.
+     * @return the direction, to be read with {@link #getStepX(int)} and
+     *         {@link #getStepY(int)}, or {@link #NONE} if the tile is outside
+     *         the field, has no way to the goal or is the goal.
+     */
+    public int getDirection(int col, int row) {
+        Published field = published;
+        if (field == null) {
+            return NONE;
+        }
+        int c = col - field.windowCol;
+        int r = row - field.windowRow;
+        if (c < 0 || c >= size || r < 0 || r >= size) {
+            return NONE;
+        }
+        return field.directions[r * size + c];
+    }
+
+    /**
+     * Get the number of steps from a tile to the goal, counting a diagonal as
+     * two steps.
+     *
+     * @param col the column of the tile.
+     * @param row the row of the tile.
+     * @return the number of steps, or {@link #NONE} if the tile is outside the
+     *         field or has no way to the goal.
+     */
+    public int getDistance(int col, int row) {
+        Published field = published;
+        if (field == null) {
+            return NONE;
+        }
+        int c = col - field.windowCol;
+        int r = row - field.windowRow;
+        if (c < 0 || c >= size || r < 0 || r >= size) {
+            return NONE;
+        }
+        int distance = field.distances[r * size + c];
+        return distance == UNREACHED ? NONE : distance;
+    }
+
+    /**
+     * Get the x part of a direction as a unit vector.
+     *
+     * @param direction a direction from {@link #getDirection(int, int)}.
+     * @return the x part of the direction.
+     */
+    public static float getStepX(int direction) {
+        return STEP_X[direction];
+    }
+
+    /**
+     * Get the y part of a direction as a unit vector.
+     *
+     * @param direction a direction from {@link #getDirection(int, int)}.
+     * @return the y part of the direction.
+     */
+    public static float getStepY(int direction) {
+        return STEP_Y[direction];
+    }
+
+    /**
+     * Check whether a field has been finished and can be read.
+     *
+     * @return true if there is a field to read.
+     */
+    public boolean isReady() {
+        return published != null;
+    }
+
+    /**
+     * Check whether the finished field leads to a tile.
+     *
+     * @param col the column of the tile.
+     * @param row the row of the tile.
+     * @return true if the finished field's goal is that tile.
+     */
+    public boolean leadsTo(int col, int row) {
+        return isPublishedGoal(col, row);
+    }
+
+    /**
+     * Get the player the field follows, the primary player of the
+     * {@link PlayerRegistry} as of the last tick.
+     *
+     * @return the player, or null if there was none.
+     */
+    public MainCharacter getPlayer() {
+        return player;
+    }
+
+    /**
+     * Get the number of fields finished since the manager was made.
+     *
+     * @return the number of fields built.
+     */
+    public long getBuiltCount() {
+        return builtCount;
+    }
+}
@@ -0,0 +1,190 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.MainCharacter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Test the flow field leads to its goal around impassable tiles.
+ */
+public class FlowFieldManagerTest {
+
+    private Set<Long> water;
+    private int sampled;
+    private FlowFieldManager field;
+
+    @Before
+    public void setUp() {
+        water = new HashSet<>();
+        sampled = 0;
+        field = new FlowFieldManager(8, (col, row) -> {
+            sampled++;
+            return !water.contains(key(col, row));
+        });
+        field.setTickBudget(10_000);
+    }
+
+    private static long key(int col, int row) {
+        return ((long) col << 32) | (row & 0xffffffffL);
+    }
+
+    private void build(int col, int row) {
+        field.setGoal(col, row);
+        field.update();
+    }
+
+    /**
+     * Follow the field from a tile until it stops.
+     *
+     * @return the number of steps taken.
+     */
+    private int walk(int col, int row, int goalCol, int goalRow) {
+        int steps = 0;
+        int direction;
+        while ((direction = field.getDirection(col, row)) != FlowFieldManager.NONE) {
+            col += (int) Math.signum(FlowFieldManager.getStepX(direction));
+            row += (int) Math.signum(FlowFieldManager.getStepY(direction));
+            Assert.assertFalse(water.contains(key(col, row)));
+            Assert.assertTrue(++steps < 100);
+        }
+        Assert.assertEquals(goalCol, col);
+        Assert.assertEquals(goalRow, row);
+        return steps;
+    }
+
+    /**
+     * Test the field points straight at the goal in open ground.
+     */
+    @Test
+    public void openGroundTest() {
+        build(0, 0);
+        Assert.assertTrue(field.isReady());
+        Assert.assertEquals(FlowFieldManager.NONE, field.getDirection(0, 0));
+        Assert.assertEquals(0, field.getDistance(0, 0));
+
+        int east = field.getDirection(5, 0);
+        Assert.assertEquals(-1f, FlowFieldManager.getStepX(east), 0.001f);
+        Assert.assertEquals(0f, FlowFieldManager.getStepY(east), 0.001f);
+
+        int diagonal = field.getDirection(3, 3);
+        Assert.assertTrue(FlowFieldManager.getStepX(diagonal) < 0);
+        Assert.assertTrue(FlowFieldManager.getStepY(diagonal) < 0);
+        Assert.assertEquals(3, walk(3, 3, 0, 0));
+
+        Assert.assertEquals(FlowFieldManager.NONE, field.getDirection(20, 0));
+    }
+
+    /**
+     * Test the field leads around a wall of water through its gap, and not
+     * across water tiles or diagonally past their corners.
+     */
+    @Test
+    public void aroundWaterTest() {
+        for (int row = -8; row <= 8; row++) {
+            if (row != 5) {
+                water.add(key(2, row));
+            }
+        }
+        build(0, 0);
+
+        Assert.assertEquals(FlowFieldManager.NONE, field.getDirection(2, 0));
+        Assert.assertEquals(FlowFieldManager.NONE, field.getDistance(2, 0));
+        Assert.assertTrue(field.getDistance(4, 0) > 4);
+        walk(4, 0, 0, 0);
+        walk(6, -6, 0, 0);
+    }
+
+    /**
+     * Test tiles cut off by water have no direction.
+     */
+    @Test
+    public void unreachableTest() {
+        for (int col = 3; col <= 5; col++) {
+            for (int row = 3; row <= 5; row++) {
+                if (col != 4 || row != 4) {
+                    water.add(key(col, row));
+                }
+            }
+        }
+        build(0, 0);
+        Assert.assertEquals(FlowFieldManager.NONE, field.getDirection(4, 4));
+        Assert.assertEquals(FlowFieldManager.NONE, field.getDistance(4, 4));
+    }
+
+    /**
+     * Test a field built over several ticks is only read once finished, with
+     * the old field read until then.
+     */
+    @Test
+    public void budgetTest() {
+        field.setTickBudget(50);
+        field.setGoal(0, 0);
+        field.update();
+        Assert.assertFalse(field.isReady());
+
+        int ticks = 1;
+        while (!field.isReady()) {
+            field.update();
+            ticks++;
+        }
+        Assert.assertTrue(ticks > 2);
+        Assert.assertEquals(1, field.getBuiltCount());
+
+        field.setGoal(1, 0);
+        field.update();
+        Assert.assertTrue(field.leadsTo(0, 0));
+        Assert.assertEquals(FlowFieldManager.NONE, field.getDirection(0, 0));
+
+        while (field.getBuiltCount() < 2) {
+            field.update();
+        }
+        Assert.assertTrue(field.leadsTo(1, 0));
+        Assert.assertNotEquals(FlowFieldManager.NONE, field.getDirection(0, 0));
+    }
+
+    /**
+     * Test the goal moving within the window does not look at the terrain
+     * again, and moving near the edge only looks at the new tiles.
+     */
+    @Test
+    public void windowTest() {
+        build(0, 0);
+        Assert.assertEquals(17 * 17, sampled);
+
+        build(3, 0);
+        Assert.assertEquals(17 * 17, sampled);
+        Assert.assertEquals(3, field.getDistance(0, 0));
+
+        build(5, 0);
+        Assert.assertEquals(17 * 17 + 5 * 17, sampled);
+        Assert.assertEquals(5, field.getDistance(0, 0));
+        Assert.assertEquals(8, field.getDistance(13, 0));
+
+        // Setting the same goal again does not rebuild
+        build(5, 0);
+        Assert.assertEquals(3, field.getBuiltCount());
+    }
+
+    /**
+     * Test the field follows the primary player, which chasing enemies check
+     * before they follow it.
+     */
+    @Test
+    public void playerTest() {
+        Assert.assertNull(field.getPlayer());
+
+        PlayerRegistry registry = GameManager.getManagerFromInstance(PlayerRegistry.class);
+        MainCharacter player = new MainCharacter(0f, 0f, 0.05f, "Flow Field", 50);
+        registry.register(player);
+        try {
+            field.onTick(0);
+            Assert.assertSame(registry.getPrimary(), field.getPlayer());
+        } finally {
+            registry.unregister(player);
+        }
+    }
+}
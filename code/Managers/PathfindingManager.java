@@ -0,0 +1,1043 @@
+package deco2800.skyfall.managers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds routes over the hex tile grid, going around water. The grid is split
+ * into square clusters the size of a world chunk, and each cluster is boiled
+ * down to the portal tiles where it can be crossed into its neighbours, with
+ * the walking distances between its portals worked out once. A long route is
+ * found over the portals first, then filled in a cluster at a time, so its cost
+ * grows with the number of clusters crossed rather than the number of tiles.
+ *
+ * Tiles use the world's column and row, with odd columns sitting half a tile
+ * higher, as in {@code MainCharacter.getTile}. Each tile has six neighbours.
+ *
+ * Routes asked for with {@link #request} are found on a worker pool and handed
+ * back on the game thread on a later tick. Recent routes are cached until a
+ * tile they pass near changes and {@link #invalidate} is called.
+ *
+ * The terrain is only read on the game thread. Each route is found over a
+ * snapshot of the clusters around its start and goal, so workers never touch
+ * the world. The clusters are sampled a few each tick, so a long route cannot
+ * stall the tick it is asked for, and the route is searched for once they all
+ * are. Sampled clusters are kept until a tile in them changes, so routes over
+ * terrain sampled before are searched for straight away.
+ */
+public class PathfindingManager extends TickableManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(PathfindingManager.class);
+
+    // Number of tiles along each side of a cluster
+    public static final int DEFAULT_CLUSTER_SIZE = 10;
+
+    // Number of routes kept in the cache
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    // Most portals looked at before a route is given up on
+    private static final int MAX_EXPANSIONS = 20_000;
+
+    // Clusters sampled beyond the start and goal on every side. Routes may
+    // stray about as far again as the distance between them, within these
+    private static final int MIN_MARGIN = 2;
+    private static final int MAX_MARGIN = 8;
+
+    // Most sampled clusters kept for later snapshots
+    private static final int MAX_SAMPLED_CLUSTERS = 4096;
+
+    // Clusters sampled for waiting routes each tick, at most
+    public static final int DEFAULT_SAMPLE_BUDGET = 32;
+
+    /**
+     * Receives a route on the game thread.
+     */
+    public interface Callback {
+        /**
+         * Called with the route found.
+         *
+         * @param path the route, which is not found if there is no way there.
+         */
+        void onPath(Path path);
+    }
+
+    /**
+     * A route of tiles, from the start tile to the goal tile. Never changed
+     * once made, so it may be shared.
+     */
+    public static final class Path {
+        private static final Path NOT_FOUND = new Path(new int[0], new int[0]);
+
+        private final int[] cols;
+        private final int[] rows;
+
+        private Path(int[] cols, int[] rows) {
+            this.cols = cols;
+            this.rows = rows;
+        }
+
+        /**
+         * Check whether a route was found.
+         *
+         * @return true if there is a way to the goal.
+         */
+        public boolean isFound() {
+            return cols.length > 0;
+        }
+
+        /**
+         * Get the number of tiles on the route, including the start and goal.
+         *
+         * @return the number of tiles.
+         */
+        public int size() {
+            return cols.length;
+        }
+
+        /**
+         * Get the column of a tile on the route.
+         *
+         * @param i the index of the tile, from 0 at the start.
+         * @return the column.
+         */
+        public int getCol(int i) {
+            return cols[i];
+        }
+
+        /**
+         * Get the row of a tile on the route.
+         *
+         * @param i the index of the tile, from 0 at the start.
+         * @return the row.
+         */
+        public int getRow(int i) {
+            return rows[i];
+        }
+    }
+
+    /**
+     * A route asked for with {@link #request}.
+     */
+    public static final class PathRequest {
+        private final int fromCol;
+        private final int fromRow;
+        private final int toCol;
+        private final int toRow;
+        private final Callback callback;
+
+        private volatile boolean cancelled = false;
+
+        // Set by the worker, then handed back as the path on the next tick
+        private Path found;
+        private Path path;
+
+        // Terrain the route is found over, sampled on the game thread
+        private Snapshot snapshot;
+
+        // Clusters the route may pass through, the ones sampled so far and the
+        // terrain version they were sampled at, while the snapshot is made
+        private long[] area;
+        private int areaSampled;
+        private Map<Long, boolean[]> areaTiles;
+        private long areaVersion;
+
+        private PathRequest(int fromCol, int fromRow, int toCol, int toRow, Callback callback) {
+            this.fromCol = fromCol;
+            this.fromRow = fromRow;
+            this.toCol = toCol;
+            this.toRow = toRow;
+            this.callback = callback;
+        }
+
+        /**
+         * Stop the route being handed back, if it has not been already.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Check whether the route has been cancelled.
+         *
+         * @return true if cancelled.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Get the route, once handed back.
+         *
+         * @return the route, or null if it has not been handed back yet.
+         */
+        public Path getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * A cluster boiled down to its portals. Never changed once made; a changed
+     * cluster is thrown away and made again.
+     */
+    private static final class Cluster {
+        // Portal tiles, sorted by tile key
+        private final long[] portals;
+
+        // Tiles in neighbouring clusters each portal crosses to
+        private final long[][] exits;
+
+        // Walking distance between each pair of portals, or -1 if there is no way
+        private final int[][] costs;
+
+        private Cluster(long[] portals, long[][] exits, int[][] costs) {
+            this.portals = portals;
+            this.exits = exits;
+            this.costs = costs;
+        }
+
+        private int indexOf(long tile) {
+            return Arrays.binarySearch(portals, tile);
+        }
+    }
+
+    /**
+     * The walkable tiles of the clusters around a route, sampled on the game
+     * thread. Tiles outside the sampled clusters cannot be walked on. Read by
+     * one thread at a time once made.
+     */
+    private static final class Snapshot {
+        // Walkable tiles of each sampled cluster, indexed by indexIn
+        private final Map<Long, boolean[]> tiles;
+
+        // Terrain version the clusters were sampled at
+        private final long version;
+
+        // Clusters boiled down over this snapshot and not shared
+        private final Map<Long, Cluster> local = new HashMap<>();
+
+        private Snapshot(Map<Long, boolean[]> tiles, long version) {
+            this.tiles = tiles;
+            this.version = version;
+        }
+    }
+
+    /**
+     * A cached route, with the clusters it passes through.
+     */
+    private static final class CachedPath {
+        private final Path path;
+        private final long[] clusters;
+
+        private CachedPath(Path path, long[] clusters) {
+            this.path = path;
+            this.clusters = clusters;
+        }
+    }
+
+    /**
+     * A portal tile reached by the search over the portals.
+     */
+    private static final class Node {
+        private final long tile;
+        private int cost;
+        private Node parent;
+        private boolean closed = false;
+
+        private Node(long tile) {
+            this.tile = tile;
+        }
+    }
+
+    /**
+     * A node waiting in the open set with the estimate it was added at.
+     */
+    private static final class Open {
+        private final Node node;
+        private final int estimate;
+
+        private Open(Node node, int estimate) {
+            this.node = node;
+            this.estimate = estimate;
+        }
+    }
+
+    private final int clusterSize;
+    private final FlowFieldManager.Terrain terrain;
+    private final Executor workers;
+    private final int cacheSize;
+
+    private final Map<Long, Cluster> clusters = new ConcurrentHashMap<>();
+
+    // Walkable tiles of recently sampled clusters, only touched on the game thread
+    private final Map<Long, boolean[]> sampled = new LinkedHashMap<Long, boolean[]>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, boolean[]> eldest) {
+            return size() > MAX_SAMPLED_CLUSTERS;
+        }
+    };
+
+    // Recent routes by start and goal, least recently used first
+    private final Map<List<Long>, CachedPath> cache;
+
+    // Changed whenever a tile changes, so routes found meanwhile are found again
+    private final AtomicLong terrainVersion = new AtomicLong();
+
+    // Routes found and waiting for the next tick
+    private final Queue<PathRequest> completed = new ConcurrentLinkedQueue<>();
+
+    // Routes waiting for their clusters to be sampled, oldest first. Only
+    // touched on the game thread
+    private final Queue<PathRequest> sampling = new ArrayDeque<>();
+
+    private int sampleBudget = DEFAULT_SAMPLE_BUDGET;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    /**
+     * Creates a pathfinder over the world's tiles, finding routes on the common
+     * fork/join pool.
+     */
+    public PathfindingManager() {
+        this(DEFAULT_CLUSTER_SIZE, FlowFieldManager::isWorldTilePassable, ForkJoinPool.commonPool(),
+                DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a pathfinder over the given terrain.
+     *
+     * @param clusterSize the number of tiles along each side of a cluster.
+     * @param terrain     tells the pathfinder which tiles can be walked on.
+     *                    Only read on the game thread.
+     * @param workers     runs route finding off the game thread.
+     * @param cacheSize   the number of routes kept in the cache.
+     */
+    public PathfindingManager(int clusterSize, FlowFieldManager.Terrain terrain, Executor workers, int cacheSize) {
+        if (clusterSize < 2) {
+            throw new IllegalArgumentException("Clusters must be at least two tiles across");
+        }
+        this.clusterSize = clusterSize;
+        this.terrain = terrain;
+        this.workers = workers;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<List<Long>, CachedPath>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Long>, CachedPath> eldest) {
+                return size() > PathfindingManager.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Set the most clusters sampled for waiting routes each tick.
+     *
+     * @param sampleBudget the number of clusters, each clusterSize squared tiles.
+     */
+    public void setSampleBudget(int sampleBudget) {
+        if (sampleBudget < 1) {
+            throw new IllegalArgumentException("At least one cluster must be sampled each tick");
+        }
+        this.sampleBudget = sampleBudget;
+    }
+
+    /**
+     * Ask for a route, found off the game thread. The terrain around the route
+     * is sampled over the following ticks, so this must be called on the game
+     * thread, but does not read the terrain itself. The callback is run on the
+     * game thread on a later tick, and never on the tick the route was asked for.
+     *
+     * @param fromCol  the column of the start tile.
+     * @param fromRow  the row of the start tile.
+     * @param toCol    the column of the goal tile.
+     * @param toRow    the row of the goal tile.
+     * @param callback receives the route.
+     * @return the request, which can be cancelled.
+     */
+    public PathRequest request(int fromCol, int fromRow, int toCol, int toRow, Callback callback) {
+        PathRequest request = new PathRequest(fromCol, fromRow, toCol, toRow, callback);
+        submit(request);
+        return request;
+    }
+
+    /**
+     * Start sampling the terrain for a route, searching for it straight away if
+     * every cluster it needs was sampled before.
+     */
+    private void submit(PathRequest request) {
+        request.area = area(key(request.fromCol, request.fromRow), key(request.toCol, request.toRow));
+        request.areaSampled = 0;
+        request.areaTiles = new HashMap<>();
+        request.areaVersion = terrainVersion.get();
+        sampleArea(request, 0);
+        if (request.areaSampled == request.area.length) {
+            startSearch(request);
+        } else {
+            sampling.add(request);
+        }
+    }
+
+    /**
+     * Take the clusters a waiting route needs, sampling those not sampled
+     * before within a budget.
+     *
+     * @return the budget left.
+     */
+    private int sampleArea(PathRequest request, int budget) {
+        while (request.areaSampled < request.area.length) {
+            long clusterKey = request.area[request.areaSampled];
+            boolean[] tiles = sampled.get(clusterKey);
+            if (tiles == null) {
+                if (budget == 0) {
+                    break;
+                }
+                tiles = sampleCluster(clusterKey);
+                sampled.put(clusterKey, tiles);
+                budget--;
+            }
+            request.areaTiles.put(clusterKey, tiles);
+            request.areaSampled++;
+        }
+        return budget;
+    }
+
+    /**
+     * Search for a route over its sampled clusters on a worker.
+     */
+    private void startSearch(PathRequest request) {
+        long start = key(request.fromCol, request.fromRow);
+        long goal = key(request.toCol, request.toRow);
+        request.snapshot = new Snapshot(request.areaTiles, request.areaVersion);
+        request.area = null;
+        request.areaTiles = null;
+        workers.execute(() -> {
+            if (request.cancelled) {
+                return;
+            }
+            try {
+                Path cached = cachedPath(start, goal);
+                request.found = cached != null ? cached : find(start, goal, request.snapshot);
+            } catch (RuntimeException e) {
+                logger.error("Finding a route failed", e);
+                request.found = Path.NOT_FOUND;
+            }
+            completed.add(request);
+        });
+    }
+
+    /**
+     * Samples clusters for the routes waiting on them, within the budget, then
+     * hands back the routes found since the last tick. Routes found while the
+     * terrain changed are found again instead.
+     *
+     * @param i the current game tick.
+     */
+    @Override
+    public void onTick(long i) {
+        long version = terrainVersion.get();
+        int budget = sampleBudget;
+        while (!sampling.isEmpty()) {
+            PathRequest request = sampling.peek();
+            if (request.cancelled) {
+                sampling.poll();
+                continue;
+            }
+            if (request.areaVersion != version) {
+                // Clusters already taken may have changed, so start again
+                request.areaSampled = 0;
+                request.areaTiles.clear();
+                request.areaVersion = version;
+            }
+            budget = sampleArea(request, budget);
+            if (request.areaSampled < request.area.length) {
+                break;
+            }
+            sampling.poll();
+            startSearch(request);
+        }
+
+        // Only hand back what was waiting before this loop, not routes found
+        // again in it
+        for (int n = completed.size(); n > 0; n--) {
+            PathRequest request = completed.poll();
+            if (request == null) {
+                break;
+            }
+            if (request.cancelled) {
+                continue;
+            }
+            if (request.snapshot.version != version) {
+                submit(request);
+                continue;
+            }
+            request.snapshot = null;
+            request.path = request.found;
+            request.callback.onPath(request.path);
+        }
+    }
+
+    /**
+     * Tell the pathfinder a tile has changed, e.g. whether it can be walked on.
+     * Must be called on the game thread.
+     *
+     * @param col the column of the tile.
+     * @param row the row of the tile.
+     */
+    public void invalidate(int col, int row) {
+        terrainVersion.incrementAndGet();
+
+        // Portals of the neighbouring clusters depend on the tiles along the border
+        int cx = Math.floorDiv(col, clusterSize);
+        int cy = Math.floorDiv(row, clusterSize);
+        sampled.remove(key(cx, cy));
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                clusters.remove(key(cx + dx, cy + dy));
+            }
+        }
+
+        long changed = key(cx, cy);
+        synchronized (cache) {
+            Iterator<CachedPath> cached = cache.values().iterator();
+            while (cached.hasNext()) {
+                if (passesThrough(cached.next(), changed)) {
+                    cached.remove();
+                }
+            }
+        }
+    }
+
+    private static boolean passesThrough(CachedPath cached, long cluster) {
+        for (long passed : cached.clusters) {
+            if (passed == cluster) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find a route straight away. The terrain is sampled on the calling thread,
+     * so this must be called on the game thread.
+     *
+     * @param fromCol the column of the start tile.
+     * @param fromRow the row of the start tile.
+     * @param toCol   the column of the goal tile.
+     * @param toRow   the row of the goal tile.
+     * @return the route, which is not found if there is no way there.
+     */
+    public Path findPath(int fromCol, int fromRow, int toCol, int toRow) {
+        long start = key(fromCol, fromRow);
+        long goal = key(toCol, toRow);
+        Path cached = cachedPath(start, goal);
+        return cached != null ? cached : find(start, goal, sample(start, goal));
+    }
+
+    /**
+     * Get a route from the cache.
+     *
+     * @return the cached route, or null if there is none.
+     */
+    private Path cachedPath(long start, long goal) {
+        synchronized (cache) {
+            CachedPath cached = cache.get(Arrays.asList(start, goal));
+            if (cached == null) {
+                return null;
+            }
+            cacheHits.incrementAndGet();
+            return cached.path;
+        }
+    }
+
+    /**
+     * Find a route over a snapshot and cache it. Safe to call from several
+     * threads at once, each with its own snapshot.
+     */
+    private Path find(long start, long goal, Snapshot snapshot) {
+        Path path = search(snapshot, start, goal);
+        if (path.isFound()) {
+            CachedPath cached = new CachedPath(path, clustersOf(path));
+            synchronized (cache) {
+                // Not kept if the terrain changed since it was sampled
+                if (terrainVersion.get() == snapshot.version) {
+                    cache.put(Arrays.asList(start, goal), cached);
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Sample the clusters a route from one tile to another may pass through all
+     * at once, reusing clusters sampled before. Must be called on the game
+     * thread.
+     */
+    private Snapshot sample(long start, long goal) {
+        Map<Long, boolean[]> tiles = new HashMap<>();
+        for (long clusterKey : area(start, goal)) {
+            tiles.put(clusterKey, sampled.computeIfAbsent(clusterKey, this::sampleCluster));
+        }
+        return new Snapshot(tiles, terrainVersion.get());
+    }
+
+    /**
+     * Get the clusters a route from one tile to another may pass through.
+     *
+     * @return the keys of the clusters.
+     */
+    private long[] area(long start, long goal) {
+        long startCluster = clusterOf(start);
+        long goalCluster = clusterOf(goal);
+        int minX = Math.min(col(startCluster), col(goalCluster));
+        int maxX = Math.max(col(startCluster), col(goalCluster));
+        int minY = Math.min(row(startCluster), row(goalCluster));
+        int maxY = Math.max(row(startCluster), row(goalCluster));
+        int margin = Math.max(MIN_MARGIN, Math.min(MAX_MARGIN, Math.max(maxX - minX, maxY - minY) + 1));
+
+        long[] area = new long[(maxX - minX + 2 * margin + 1) * (maxY - minY + 2 * margin + 1)];
+        int n = 0;
+        for (int x = minX - margin; x <= maxX + margin; x++) {
+            for (int y = minY - margin; y <= maxY + margin; y++) {
+                area[n++] = key(x, y);
+            }
+        }
+        return area;
+    }
+
+    private boolean[] sampleCluster(long clusterKey) {
+        int minCol = col(clusterKey) * clusterSize;
+        int minRow = row(clusterKey) * clusterSize;
+        boolean[] tiles = new boolean[clusterSize * clusterSize];
+        for (int r = 0; r < clusterSize; r++) {
+            for (int c = 0; c < clusterSize; c++) {
+                tiles[r * clusterSize + c] = terrain.isPassable(minCol + c, minRow + r);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Get the number of routes in the cache.
+     *
+     * @return the number of cached routes.
+     */
+    public int getCachedCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Get the number of routes found in the cache since the pathfinder was made.
+     *
+     * @return the number of cache hits.
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Get the number of clusters that have been boiled down and kept.
+     *
+     * @return the number of clusters.
+     */
+    public int getClusterCount() {
+        return clusters.size();
+    }
+
+    private Path search(Snapshot snapshot, long start, long goal) {
+        if (!passable(snapshot, start) || !passable(snapshot, goal)) {
+            return Path.NOT_FOUND;
+        }
+        if (start == goal) {
+            return new Path(new int[] {col(start)}, new int[] {row(start)});
+        }
+
+        long startCluster = clusterOf(start);
+        long goalCluster = clusterOf(goal);
+
+        // Routes within a cluster are found directly
+        if (startCluster == goalCluster) {
+            List<Long> tiles = new ArrayList<>();
+            tiles.add(start);
+            if (walk(snapshot, start, goal, startCluster, tiles)) {
+                return toPath(tiles);
+            }
+        }
+
+        int[] startDistances = distances(snapshot, startCluster, start);
+        int[] goalDistances = distances(snapshot, goalCluster, goal);
+        List<Long> waypoints = searchPortals(snapshot, start, goal, startCluster, goalCluster, startDistances,
+                goalDistances);
+        if (waypoints == null) {
+            return Path.NOT_FOUND;
+        }
+
+        // Fill in the tiles between each pair of waypoints
+        List<Long> tiles = new ArrayList<>();
+        tiles.add(start);
+        for (int i = 1; i < waypoints.size(); i++) {
+            long from = waypoints.get(i - 1);
+            long to = waypoints.get(i);
+            if (clusterOf(from) != clusterOf(to)) {
+                tiles.add(to);
+            } else if (!walk(snapshot, from, to, clusterOf(from), tiles)) {
+                return Path.NOT_FOUND;
+            }
+        }
+        return toPath(tiles);
+    }
+
+    /**
+     * Search over the portals from the start to the goal.
+     *
+     * @return the tiles passed through, from the start to the goal, or null if
+     *         there is no way.
+     */
+    private List<Long> searchPortals(Snapshot snapshot, long start, long goal, long startCluster,
+            long goalCluster, int[] startDistances, int[] goalDistances) {
+        Map<Long, Node> nodes = new HashMap<>();
+        PriorityQueue<Open> open = new PriorityQueue<>((a, b) -> Integer.compare(a.estimate, b.estimate));
+
+        Node first = new Node(start);
+        nodes.put(start, first);
+        open.add(new Open(first, distance(start, goal)));
+
+        int expanded = 0;
+        while (!open.isEmpty()) {
+            Node node = open.poll().node;
+            if (node.closed) {
+                continue;
+            }
+            if (node.tile == goal) {
+                List<Long> waypoints = new ArrayList<>();
+                for (Node at = node; at != null; at = at.parent) {
+                    waypoints.add(at.tile);
+                }
+                Collections.reverse(waypoints);
+                return waypoints;
+            }
+            node.closed = true;
+            if (++expanded > MAX_EXPANSIONS) {
+                return null;
+            }
+
+            long nodeCluster = clusterOf(node.tile);
+            if (node.tile == start) {
+                Cluster cluster = cluster(snapshot, startCluster);
+                for (long portal : cluster.portals) {
+                    relax(nodes, open, node, portal, startDistances[indexIn(startCluster, portal)], goal);
+                }
+            }
+            if (nodeCluster == goalCluster) {
+                relax(nodes, open, node, goal, goalDistances[indexIn(goalCluster, node.tile)], goal);
+            }
+
+            Cluster cluster = cluster(snapshot, nodeCluster);
+            int index = cluster.indexOf(node.tile);
+            if (index < 0) {
+                continue;
+            }
+            for (int other = 0; other < cluster.portals.length; other++) {
+                relax(nodes, open, node, cluster.portals[other], cluster.costs[index][other], goal);
+            }
+            for (long exit : cluster.exits[index]) {
+                relax(nodes, open, node, exit, 1, goal);
+            }
+        }
+        return null;
+    }
+
+    private void relax(Map<Long, Node> nodes, PriorityQueue<Open> open, Node from, long tile, int cost, long goal) {
+        if (cost < 0 || tile == from.tile) {
+            return;
+        }
+        Node node = nodes.computeIfAbsent(tile, Node::new);
+        int reached = from.cost + cost;
+        if (node.closed || (node.parent != null && node.cost <= reached)) {
+            return;
+        }
+        node.cost = reached;
+        node.parent = from;
+        open.add(new Open(node, reached + distance(tile, goal)));
+    }
+
+    /**
+     * Get a cluster, boiling it down first if it has not been. Clusters are
+     * shared once boiled down if they and all their neighbours were sampled
+     * from the current terrain, and are otherwise only kept for this snapshot.
+     */
+    private Cluster cluster(Snapshot snapshot, long clusterKey) {
+        Cluster cluster = clusters.get(clusterKey);
+        if (cluster != null) {
+            return cluster;
+        }
+        cluster = snapshot.local.get(clusterKey);
+        if (cluster != null) {
+            return cluster;
+        }
+
+        cluster = buildCluster(snapshot, clusterKey);
+        if (coversNeighbours(snapshot, clusterKey) && terrainVersion.get() == snapshot.version) {
+            Cluster shared = clusters.putIfAbsent(clusterKey, cluster);
+            return shared != null ? shared : cluster;
+        }
+        snapshot.local.put(clusterKey, cluster);
+        return cluster;
+    }
+
+    private static boolean coversNeighbours(Snapshot snapshot, long clusterKey) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (!snapshot.tiles.containsKey(key(col(clusterKey) + dx, row(clusterKey) + dy))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private Cluster buildCluster(Snapshot snapshot, long clusterKey) {
+        int minCol = col(clusterKey) * clusterSize;
+        int minRow = row(clusterKey) * clusterSize;
+        int maxCol = minCol + clusterSize - 1;
+        int maxRow = minRow + clusterSize - 1;
+
+        // Every step across the border into each neighbouring cluster, as the
+        // lower and higher tile keys, so both clusters see the same list
+        Map<Long, List<long[]>> crossings = new HashMap<>();
+        long[] neighbours = new long[6];
+        for (int c = minCol; c <= maxCol; c++) {
+            for (int r = minRow; r <= maxRow; r++) {
+                if (c != minCol && c != maxCol && r != minRow && r != maxRow) {
+                    continue;
+                }
+                long tile = key(c, r);
+                if (!passable(snapshot, tile)) {
+                    continue;
+                }
+                neighbours(c, r, neighbours);
+                for (long neighbour : neighbours) {
+                    long neighbourCluster = clusterOf(neighbour);
+                    if (neighbourCluster != clusterKey && passable(snapshot, neighbour)) {
+                        crossings.computeIfAbsent(neighbourCluster, k -> new ArrayList<>())
+                                .add(new long[] {Math.min(tile, neighbour), Math.max(tile, neighbour)});
+                    }
+                }
+            }
+        }
+
+        // One portal in the middle of each unbroken stretch of crossings
+        Map<Long, List<Long>> exitsByPortal = new HashMap<>();
+        for (List<long[]> border : crossings.values()) {
+            border.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            int runStart = 0;
+            for (int i = 1; i <= border.size(); i++) {
+                if (i < border.size() && continues(border.get(i - 1), border.get(i))) {
+                    continue;
+                }
+                long[] crossing = border.get((runStart + i - 1) / 2);
+                boolean lowInside = clusterOf(crossing[0]) == clusterKey;
+                long inside = lowInside ? crossing[0] : crossing[1];
+                long outside = lowInside ? crossing[1] : crossing[0];
+                exitsByPortal.computeIfAbsent(inside, k -> new ArrayList<>()).add(outside);
+                runStart = i;
+            }
+        }
+
+        long[] portals = new long[exitsByPortal.size()];
+        int n = 0;
+        for (long portal : exitsByPortal.keySet()) {
+            portals[n++] = portal;
+        }
+        Arrays.sort(portals);
+
+        long[][] exits = new long[portals.length][];
+        int[][] costs = new int[portals.length][portals.length];
+        for (int i = 0; i < portals.length; i++) {
+            List<Long> out = exitsByPortal.get(portals[i]);
+            exits[i] = new long[out.size()];
+            for (int j = 0; j < exits[i].length; j++) {
+                exits[i][j] = out.get(j);
+            }
+            int[] walked = distances(snapshot, clusterKey, portals[i]);
+            for (int j = 0; j < portals.length; j++) {
+                costs[i][j] = walked[indexIn(clusterKey, portals[j])];
+            }
+        }
+        return new Cluster(portals, exits, costs);
+    }
+
+    /**
+     * Check whether two crossings in sorted order are side by side, so belong
+     * to the same stretch of border.
+     */
+    private static boolean continues(long[] previous, long[] next) {
+        return touches(previous[0], next[0]) && touches(previous[1], next[1]);
+    }
+
+    private static boolean touches(long a, long b) {
+        return a == b || distance(a, b) == 1;
+    }
+
+    /**
+     * Get the walking distance from a tile to every tile in a cluster, staying
+     * within the cluster.
+     *
+     * @return the distances, indexed by {@link #indexIn}, with -1 for tiles
+     *         there is no way to.
+     */
+    private int[] distances(Snapshot snapshot, long clusterKey, long from) {
+        int minCol = col(clusterKey) * clusterSize;
+        int minRow = row(clusterKey) * clusterSize;
+        int[] distances = new int[clusterSize * clusterSize];
+        Arrays.fill(distances, -1);
+
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+        int first = indexIn(clusterKey, from);
+        distances[first] = 0;
+        queue[tail++] = first;
+
+        long[] neighbours = new long[6];
+        while (head < tail) {
+            int index = queue[head++];
+            int c = minCol + index % clusterSize;
+            int r = minRow + index / clusterSize;
+            neighbours(c, r, neighbours);
+            for (long neighbour : neighbours) {
+                if (clusterOf(neighbour) != clusterKey) {
+                    continue;
+                }
+                int next = indexIn(clusterKey, neighbour);
+                if (distances[next] < 0 && passable(snapshot, neighbour)) {
+                    distances[next] = distances[index] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Add the tiles after a tile on the way to another in the same cluster,
+     * staying within the cluster.
+     *
+     * @return false if there is no way.
+     */
+    private boolean walk(Snapshot snapshot, long from, long to, long clusterKey, List<Long> tiles) {
+        int[] distances = distances(snapshot, clusterKey, to);
+        if (distances[indexIn(clusterKey, from)] < 0) {
+            return false;
+        }
+
+        long[] neighbours = new long[6];
+        long at = from;
+        while (at != to) {
+            int left = distances[indexIn(clusterKey, at)];
+            neighbours(col(at), row(at), neighbours);
+            for (long neighbour : neighbours) {
+                if (clusterOf(neighbour) == clusterKey && distances[indexIn(clusterKey, neighbour)] == left - 1) {
+                    at = neighbour;
+                    break;
+                }
+            }
+            tiles.add(at);
+        }
+        return true;
+    }
+
+    /**
+     * Get the six tiles around a tile. Odd columns sit half a tile higher, so
+     * the side neighbours of an even column tile are level with it and a row
+     * below, and those of an odd column tile are level with it and a row above.
+     */
+    private static void neighbours(int col, int row, long[] out) {
+        int side = (col & 1) == 0 ? -1 : 1;
+        out[0] = key(col, row - 1);
+        out[1] = key(col, row + 1);
+        out[2] = key(col - 1, row);
+        out[3] = key(col - 1, row + side);
+        out[4] = key(col + 1, row);
+        out[5] = key(col + 1, row + side);
+    }
+
+    /**
+     * Get the number of steps between two tiles on open ground.
+     */
+    private static int distance(long a, long b) {
+        int cols = Math.abs(col(a) - col(b));
+        // Rows in half tiles, counting the offset of odd columns
+        int halfRows = Math.abs((2 * row(a) + (col(a) & 1)) - (2 * row(b) + (col(b) & 1)));
+        return cols + Math.max(0, (halfRows - cols) / 2);
+    }
+
+    private boolean passable(Snapshot snapshot, long tile) {
+        long clusterKey = clusterOf(tile);
+        boolean[] tiles = snapshot.tiles.get(clusterKey);
+        return tiles != null && tiles[indexIn(clusterKey, tile)];
+    }
+
+    private long clusterOf(long tile) {
+        return key(Math.floorDiv(col(tile), clusterSize), Math.floorDiv(row(tile), clusterSize));
+    }
+
+    private int indexIn(long clusterKey, long tile) {
+        return (row(tile) - row(clusterKey) * clusterSize) * clusterSize + col(tile) - col(clusterKey) * clusterSize;
+    }
+
+    private long[] clustersOf(Path path) {
+        List<Long> passed = new ArrayList<>();
+        long last = 0;
+        for (int i = 0; i < path.size(); i++) {
+            long cluster = clusterOf(key(path.getCol(i), path.getRow(i)));
+            if (i == 0 || cluster != last) {
+                passed.add(cluster);
+                last = cluster;
+            }
+        }
+        long[] out = new long[passed.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = passed.get(i);
+        }
+        return out;
+    }
+
+    private static Path toPath(List<Long> tiles) {
+        int[] cols = new int[tiles.size()];
+        int[] rows = new int[tiles.size()];
+        for (int i = 0; i < cols.length; i++) {
+            cols[i] = col(tiles.get(i));
+            rows[i] = row(tiles.get(i));
+        }
+        return new Path(cols, rows);
+    }
+
+    private static long key(int col, int row) {
+        return ((long) col << 32) | (row & 0xffffffffL);
+    }
+
+    private static int col(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int row(long key) {
+        return (int) key;
+    }
+}
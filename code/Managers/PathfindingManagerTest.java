@@ -0,0 +1,231 @@
+package deco2800.skyfall.managers;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test routes found over the hex grid go around water and are handed back once
+ * the terrain around them has been sampled, a few clusters a tick.
+ */
+public class PathfindingManagerTest {
+
+    private Set<Long> water;
+    private PathfindingManager pathfinder;
+
+    @Before
+    public void setUp() {
+        water = new HashSet<>();
+        pathfinder = new PathfindingManager(8,
+                (col, row) -> Math.abs(col) <= 64 && Math.abs(row) <= 64 && !water.contains(key(col, row)),
+                Runnable::run, 16);
+    }
+
+    private static long key(int col, int row) {
+        return ((long) col << 32) | (row & 0xffffffffL);
+    }
+
+    /**
+     * Check two tiles are next to each other, with odd columns half a tile
+     * higher.
+     */
+    private static boolean adjacent(int col, int row, int otherCol, int otherRow) {
+        int side = (col & 1) == 0 ? -1 : 1;
+        if (col == otherCol) {
+            return Math.abs(row - otherRow) == 1;
+        }
+        return Math.abs(col - otherCol) == 1 && (otherRow == row || otherRow == row + side);
+    }
+
+    /**
+     * Check a route is made of neighbouring dry tiles from start to goal.
+     */
+    private void assertRoute(PathfindingManager.Path path, int fromCol, int fromRow, int toCol, int toRow) {
+        Assert.assertTrue(path.isFound());
+        Assert.assertEquals(fromCol, path.getCol(0));
+        Assert.assertEquals(fromRow, path.getRow(0));
+        Assert.assertEquals(toCol, path.getCol(path.size() - 1));
+        Assert.assertEquals(toRow, path.getRow(path.size() - 1));
+        for (int i = 0; i < path.size(); i++) {
+            Assert.assertFalse(water.contains(key(path.getCol(i), path.getRow(i))));
+            if (i > 0) {
+                Assert.assertTrue(adjacent(path.getCol(i - 1), path.getRow(i - 1), path.getCol(i), path.getRow(i)));
+            }
+        }
+    }
+
+    /**
+     * Test routes within a cluster and across many clusters on open ground are
+     * close to the shortest.
+     */
+    @Test
+    public void openGroundTest() {
+        PathfindingManager.Path near = pathfinder.findPath(1, 1, 4, 2);
+        assertRoute(near, 1, 1, 4, 2);
+        Assert.assertEquals(4, near.size());
+
+        PathfindingManager.Path vertical = pathfinder.findPath(3, -40, 3, 40);
+        assertRoute(vertical, 3, -40, 3, 40);
+        // Crossing at portals costs a little over the shortest route of 81 tiles
+        Assert.assertTrue(vertical.size() <= 81 * 5 / 4);
+
+        PathfindingManager.Path far = pathfinder.findPath(-50, -50, 50, 50);
+        assertRoute(far, -50, -50, 50, 50);
+        Assert.assertEquals(151, far.size());
+        Assert.assertTrue(pathfinder.getClusterCount() > 0);
+    }
+
+    /**
+     * Test a route goes through the only gap in a long wall of water.
+     */
+    @Test
+    public void aroundWaterTest() {
+        for (int row = -64; row <= 64; row++) {
+            if (row != 30) {
+                water.add(key(0, row));
+            }
+        }
+        PathfindingManager.Path path = pathfinder.findPath(-20, 0, 20, 0);
+        assertRoute(path, -20, 0, 20, 0);
+
+        boolean throughGap = false;
+        for (int i = 0; i < path.size(); i++) {
+            throughGap |= path.getCol(i) == 0 && path.getRow(i) == 30;
+        }
+        Assert.assertTrue(throughGap);
+    }
+
+    /**
+     * Test there is no route to water or across a sealed wall.
+     */
+    @Test
+    public void notFoundTest() {
+        for (int row = -64; row <= 64; row++) {
+            water.add(key(0, row));
+        }
+        Assert.assertFalse(pathfinder.findPath(-5, 0, 5, 0).isFound());
+        Assert.assertFalse(pathfinder.findPath(-5, 0, 0, 3).isFound());
+    }
+
+    /**
+     * Test routes are cached until a tile they pass changes.
+     */
+    @Test
+    public void cacheTest() {
+        PathfindingManager.Path first = pathfinder.findPath(-30, 0, 30, 0);
+        Assert.assertSame(first, pathfinder.findPath(-30, 0, 30, 0));
+        Assert.assertEquals(1, pathfinder.getCacheHits());
+        Assert.assertEquals(1, pathfinder.getCachedCount());
+
+        // Block the route where it crosses the middle column
+        int middle = 0;
+        for (int i = 0; i < first.size(); i++) {
+            if (first.getCol(i) == 0) {
+                middle = i;
+            }
+        }
+        water.add(key(0, first.getRow(middle)));
+        pathfinder.invalidate(0, first.getRow(middle));
+        Assert.assertEquals(0, pathfinder.getCachedCount());
+
+        PathfindingManager.Path second = pathfinder.findPath(-30, 0, 30, 0);
+        Assert.assertNotSame(first, second);
+        assertRoute(second, -30, 0, 30, 0);
+    }
+
+    /**
+     * Test asked for routes are only handed back on a later tick, and not at
+     * all once cancelled.
+     */
+    @Test
+    public void requestTest() {
+        List<PathfindingManager.Path> delivered = new ArrayList<>();
+        PathfindingManager.PathRequest request = pathfinder.request(0, 0, 20, 20, delivered::add);
+        PathfindingManager.PathRequest cancelled = pathfinder.request(0, 0, -20, 20, delivered::add);
+        cancelled.cancel();
+        Assert.assertTrue(delivered.isEmpty());
+
+        long tick = 0;
+        while (delivered.isEmpty()) {
+            pathfinder.onTick(tick++);
+            Assert.assertTrue(tick < 100);
+        }
+        Assert.assertEquals(1, delivered.size());
+        Assert.assertSame(request.getPath(), delivered.get(0));
+        assertRoute(delivered.get(0), 0, 0, 20, 20);
+
+        pathfinder.onTick(tick);
+        Assert.assertEquals(1, delivered.size());
+    }
+
+    /**
+     * Test asking for a route reads no terrain, and the terrain around it is
+     * then read at most a budget of clusters a tick. A route over terrain read
+     * before reads none.
+     */
+    @Test
+    public void sampleBudgetTest() {
+        int[] reads = new int[1];
+        PathfindingManager counted = new PathfindingManager(8, (col, row) -> {
+            reads[0]++;
+            return true;
+        }, Runnable::run, 16);
+        counted.setSampleBudget(4);
+
+        List<PathfindingManager.Path> delivered = new ArrayList<>();
+        counted.request(0, 0, 60, 4, delivered::add);
+        Assert.assertEquals(0, reads[0]);
+
+        long tick = 0;
+        while (delivered.isEmpty()) {
+            int before = reads[0];
+            counted.onTick(tick++);
+            Assert.assertTrue(reads[0] - before <= 4 * 8 * 8);
+            Assert.assertTrue(tick < 1000);
+        }
+        Assert.assertTrue(tick > 1);
+        assertRoute(delivered.get(0), 0, 0, 60, 4);
+
+        reads[0] = 0;
+        counted.request(1, 1, 59, 5, delivered::add);
+        counted.onTick(tick);
+        Assert.assertEquals(2, delivered.size());
+        Assert.assertEquals(0, reads[0]);
+    }
+
+    /**
+     * Test routes found on a worker thread only read the terrain sampled on
+     * the thread that asked for them.
+     */
+    @Test
+    public void workerSnapshotTest() throws InterruptedException {
+        Thread gameThread = Thread.currentThread();
+        boolean[] readOffThread = new boolean[1];
+        List<Runnable> queued = new ArrayList<>();
+        PathfindingManager threaded = new PathfindingManager(8, (col, row) -> {
+            readOffThread[0] |= Thread.currentThread() != gameThread;
+            return !water.contains(key(col, row));
+        }, queued::add, 16);
+
+        List<PathfindingManager.Path> delivered = new ArrayList<>();
+        threaded.request(-20, 0, 20, 0, delivered::add);
+        long tick = 0;
+        while (queued.isEmpty()) {
+            threaded.onTick(tick++);
+            Assert.assertTrue(tick < 100);
+        }
+        Thread worker = new Thread(() -> queued.forEach(Runnable::run));
+        worker.start();
+        worker.join();
+
+        threaded.onTick(tick);
+        Assert.assertFalse(readOffThread[0]);
+        Assert.assertEquals(1, delivered.size());
+        assertRoute(delivered.get(0), -20, 0, 20, 0);
+    }
+}
@@ -0,0 +1,139 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.MainCharacter;
+import deco2800.skyfall.util.HexVector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps track of the players in the world, so any number of main characters
+ * can share a world, e.g. on a co-op server. Players are registered when they
+ * join and unregistered when they leave.
+ *
+ * Enemies pick who to chase with {@link #getNearest}. Players are bucketed
+ * into a coarse grid, brought up to date once per tick, so the query only
+ * visits the cells around the enemy rather than every player.
+ */
+public class PlayerRegistry extends TickableManager {
+
+    // Width and height of a grid cell, in tiles. Players are few and spread out,
+    // so cells are much larger than in the entity index
+    public static final float CELL_SIZE = 16f;
+
+    // Default furthest a player is searched for before falling back to the
+    // primary player, in tiles
+    public static final float DEFAULT_SEARCH_RADIUS = 64f;
+
+    // Registered players, in the order they joined
+    private final List<MainCharacter> players = new ArrayList<>();
+
+    // Grid over the registered players only
+    private final EntityIndexManager index = new EntityIndexManager(CELL_SIZE);
+
+    private float searchRadius = DEFAULT_SEARCH_RADIUS;
+
+    /**
+     * Moves each player to the grid cell for where it now is.
+     *
+     * @param i the current game tick.
+     */
+    @Override
+    public void onTick(long i) {
+        for (int n = 0; n < players.size(); n++) {
+            index.add(players.get(n));
+        }
+    }
+
+    /**
+     * Add a player to the world. Adding a player already registered does
+     * nothing.
+     *
+     * @param player the player joining.
+     */
+    public void register(MainCharacter player) {
+        if (!players.contains(player)) {
+            players.add(player);
+            index.add(player);
+        }
+    }
+
+    /**
+     * Remove a player from the world.
+     *
+     * @param player the player leaving.
+     */
+    public void unregister(MainCharacter player) {
+        if (players.remove(player)) {
+            index.remove(player);
+        }
+    }
+
+    /**
+     * Check whether a player is registered.
+     *
+     * @param player the player.
+     * @return true if the player is in the world.
+     */
+    public boolean isRegistered(MainCharacter player) {
+        return players.contains(player);
+    }
+
+    /**
+     * Get the registered players.
+     *
+     * @return the players, in the order they joined, only to be read.
+     */
+    public List<MainCharacter> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /**
+     * Get the number of registered players.
+     *
+     * @return the number of players.
+     */
+    public int size() {
+        return players.size();
+    }
+
+    /**
+     * Get the player who joined first, e.g. the host of a co-op game, or the
+     * only player of a single player game.
+     *
+     * @return the primary player, or null if there are no players.
+     */
+    public MainCharacter getPrimary() {
+        return players.isEmpty() ? null : players.get(0);
+    }
+
+    /**
+     * Set the furthest a player is searched for by {@link #getNearest}.
+     *
+     * @param searchRadius the search radius, in tiles.
+     */
+    public void setSearchRadius(float searchRadius) {
+        if (searchRadius <= 0) {
+            throw new IllegalArgumentException("Invalid search radius");
+        }
+        this.searchRadius = searchRadius;
+    }
+
+    /**
+     * Get the player closest to a position, as of the last tick. A position
+     * with no player within the search radius gets the primary player, so an
+     * enemy always has someone to chase while anyone is in the world.
+     *
+     * @param col the column of the position.
+     * @param row the row of the position.
+     * @return the nearest player, or null if there are no players.
+     */
+    public MainCharacter getNearest(float col, float row) {
+        if (players.size() < 2) {
+            return getPrimary();
+        }
+        MainCharacter nearest = index.getNearest(new HexVector(col, row), searchRadius, MainCharacter.class);
+        return nearest != null ? nearest : getPrimary();
+    }
+}
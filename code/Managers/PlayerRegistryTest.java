@@ -0,0 +1,98 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.MainCharacter;
+import deco2800.skyfall.util.HexVector;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test the player registry.
+ */
+public class PlayerRegistryTest {
+
+    private PlayerRegistry registry;
+
+    /**
+     * Set up an empty registry.
+     */
+    @Before
+    public void setUp() {
+        registry = new PlayerRegistry();
+    }
+
+    private static MainCharacter player(float col, float row) {
+        MainCharacter player = mock(MainCharacter.class);
+        moveTo(player, col, row);
+        return player;
+    }
+
+    private static void moveTo(MainCharacter player, float col, float row) {
+        when(player.getCol()).thenReturn(col);
+        when(player.getRow()).thenReturn(row);
+        when(player.getPosition()).thenReturn(new HexVector(col, row));
+    }
+
+    /**
+     * Test players join once, in order, and can leave.
+     */
+    @Test
+    public void registerTest() {
+        Assert.assertNull(registry.getPrimary());
+        Assert.assertNull(registry.getNearest(0f, 0f));
+
+        MainCharacter host = player(0f, 0f);
+        MainCharacter guest = player(10f, 0f);
+        registry.register(host);
+        registry.register(guest);
+        registry.register(host);
+        Assert.assertEquals(2, registry.size());
+        Assert.assertSame(host, registry.getPrimary());
+        Assert.assertSame(guest, registry.getPlayers().get(1));
+
+        registry.unregister(host);
+        Assert.assertFalse(registry.isRegistered(host));
+        Assert.assertSame(guest, registry.getPrimary());
+    }
+
+    /**
+     * Test the nearest player is found, falling back to the primary player when
+     * none is in range.
+     */
+    @Test
+    public void nearestTest() {
+        MainCharacter host = player(0f, 0f);
+        MainCharacter east = player(40f, 0f);
+        MainCharacter north = player(0f, 40f);
+        registry.register(host);
+        registry.register(east);
+        registry.register(north);
+
+        Assert.assertSame(host, registry.getNearest(3f, 3f));
+        Assert.assertSame(east, registry.getNearest(35f, 2f));
+        Assert.assertSame(north, registry.getNearest(-2f, 30f));
+
+        registry.setSearchRadius(10f);
+        Assert.assertSame(host, registry.getNearest(200f, 200f));
+    }
+
+    /**
+     * Test players are found where they moved to after a tick.
+     */
+    @Test
+    public void moveTest() {
+        MainCharacter host = player(0f, 0f);
+        MainCharacter guest = player(50f, 50f);
+        registry.register(host);
+        registry.register(guest);
+
+        moveTo(guest, 2f, 2f);
+        moveTo(host, 60f, 60f);
+        registry.onTick(1);
+        Assert.assertSame(guest, registry.getNearest(0f, 0f));
+        Assert.assertSame(host, registry.getNearest(55f, 55f));
+    }
+}
@@ -0,0 +1,86 @@
+package deco2800.skyfall.managers;
+
+import java.util.SplittableRandom;
+
+/**
+ * Hands out seeded random number streams for the simulation. Each entity gets
+ * its own {@link SplittableRandom} derived from the world seed and a key unique
+ * to that entity, so a run can be replayed exactly from the world seed and
+ * entities never share or allocate a random number generator per tick.
+ */
+public class RandomManager extends AbstractManager {
+
+    // Seed used until the world sets its own
+    public static final long DEFAULT_SEED = 0x5EED5EEDL;
+
+    private long seed;
+
+    // Key given to the next stream handed out by newStream()
+    private long nextStreamKey = 0;
+
+    /**
+     * Creates a random manager with the default seed.
+     */
+    public RandomManager() {
+        this(DEFAULT_SEED);
+    }
+
+    /**
+     * Creates a random manager with the given seed.
+     *
+     * @param seed the world seed.
+     */
+    public RandomManager(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Set the world seed. Streams handed out afterwards are derived from it, and
+     * the key sequence used by {@link #newStream()} starts again.
+     *
+     * @param seed the world seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.nextStreamKey = 0;
+    }
+
+    /**
+     * Get the world seed.
+     *
+     * @return the world seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the random stream for an entity. The same seed and key always give the
+     * same sequence of numbers.
+     *
+     * @param key a key unique to the entity, such as its id.
+     * @return a new random stream for the entity.
+     */
+    public SplittableRandom streamFor(long key) {
+        return new SplittableRandom(mix(seed ^ mix(key + 0x9E3779B97F4A7C15L)));
+    }
+
+    /**
+     * Get a random stream keyed on the order streams are requested in. Runs that
+     * create entities in the same order get the same streams.
+     *
+     * @return a new random stream.
+     */
+    public SplittableRandom newStream() {
+        return streamFor(nextStreamKey++);
+    }
+
+    /**
+     * The SplitMix64 finaliser, spreading nearby keys across the seed space.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
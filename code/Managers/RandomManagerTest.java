@@ -0,0 +1,39 @@
+package deco2800.skyfall.managers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the seeded random streams.
+ */
+public class RandomManagerTest {
+
+    /**
+     * Test the same seed and key always give the same stream, and different keys
+     * give different streams.
+     */
+    @Test
+    public void reproducibleStreamTest() {
+        RandomManager first = new RandomManager(42);
+        RandomManager second = new RandomManager(42);
+
+        Assert.assertEquals(first.streamFor(7).nextLong(), second.streamFor(7).nextLong());
+        Assert.assertNotEquals(first.streamFor(7).nextLong(), first.streamFor(8).nextLong());
+        Assert.assertNotEquals(first.streamFor(7).nextLong(), new RandomManager(43).streamFor(7).nextLong());
+    }
+
+    /**
+     * Test streams handed out in order repeat after the seed is reset.
+     */
+    @Test
+    public void newStreamOrderTest() {
+        RandomManager rng = new RandomManager(1);
+        double firstRun = rng.newStream().nextDouble();
+        double secondStream = rng.newStream().nextDouble();
+        Assert.assertNotEquals(firstRun, secondStream, 0);
+
+        rng.setSeed(1);
+        Assert.assertEquals(firstRun, rng.newStream().nextDouble(), 0);
+        Assert.assertEquals(1, rng.getSeed());
+    }
+}
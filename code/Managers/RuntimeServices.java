@@ -0,0 +1,590 @@
+package deco2800.skyfall.managers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import deco2800.skyfall.GameScreen;
+import deco2800.skyfall.util.WorldUtil;
+import deco2800.skyfall.worlds.world.World;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The input, camera, UI and audio the game's entities talk to. In the game
+ * these are libGDX's input, the game camera, the {@link GameMenuManager} and
+ * the {@link SoundManager}. In headless mode, set with {@link #useHeadless()},
+ * they are replaced with scripted input and recording stand ins, so a world
+ * full of enemies and a main character can be stepped with {@link #step} as
+ * fast as the CPU allows, without a window, e.g. for servers, soak tests and
+ * benchmarks.
+ */
+public class RuntimeServices extends AbstractManager {
+
+    /**
+     * The keyboard and pointer.
+     */
+    public interface Input {
+        /**
+         * Check whether a key is held down.
+         *
+         * @param keycode the key, one of libGDX's Input.Keys.
+         * @return true if the key is held down.
+         */
+        boolean isKeyPressed(int keycode);
+
+        /**
+         * Check whether a key was pressed since the last frame.
+         *
+         * @param keycode the key, one of libGDX's Input.Keys.
+         * @return true if the key was just pressed.
+         */
+        boolean isKeyJustPressed(int keycode);
+
+        /**
+         * Get where the pointer is in the world.
+         *
+         * @return the world coordinates of the pointer, x then y.
+         */
+        float[] getPointer();
+    }
+
+    /**
+     * The camera the world is viewed through.
+     */
+    public interface Camera {
+        /**
+         * Centre the camera on a point.
+         *
+         * @param x the world x-coordinate.
+         * @param y the world y-coordinate.
+         */
+        void moveTo(float x, float y);
+
+        /**
+         * Check whether there is a camera to follow.
+         *
+         * @return true if the camera has a position.
+         */
+        boolean isPresent();
+
+        /**
+         * Get the world x-coordinate the camera is centred on.
+         *
+         * @return the x-coordinate.
+         */
+        float getX();
+
+        /**
+         * Get the world y-coordinate the camera is centred on.
+         *
+         * @return the y-coordinate.
+         */
+        float getY();
+    }
+
+    /**
+     * The game's menus and pop ups.
+     */
+    public interface Ui {
+        /**
+         * Check whether the game is paused by a menu.
+         *
+         * @return true if the game is paused.
+         */
+        boolean isPaused();
+
+        /**
+         * Get a pop up, e.g. to fill it in before it is shown.
+         *
+         * @param name the name of the pop up.
+         * @return the pop up, or null if there is none.
+         */
+        Object getPopUp(String name);
+
+        /**
+         * Get an element of the game's UI.
+         *
+         * @param name the name of the element.
+         * @return the element, or null if there is none.
+         */
+        Object getUIElement(String name);
+
+        /**
+         * Show a pop up.
+         *
+         * @param name the name of the pop up.
+         */
+        void showPopUp(String name);
+
+        /**
+         * Hide the pop up currently open.
+         */
+        void hideOpened();
+    }
+
+    /**
+     * Plays sounds. Also used as the default sink of the {@link SoundEventBus}.
+     */
+    public interface Audio extends SoundEventBus.Sink {
+        /**
+         * Play a sound over and over until it is stopped.
+         *
+         * @param soundId the name of the sound.
+         */
+        void loop(String soundId);
+    }
+
+    /**
+     * Reads libGDX's input.
+     */
+    private static final class GdxInput implements Input {
+        @Override
+        public boolean isKeyPressed(int keycode) {
+            return Gdx.input.isKeyPressed(keycode);
+        }
+
+        @Override
+        public boolean isKeyJustPressed(int keycode) {
+            return Gdx.input.isKeyJustPressed(keycode);
+        }
+
+        @Override
+        public float[] getPointer() {
+            return WorldUtil.screenToWorldCoordinates(Gdx.input.getX(), Gdx.input.getY());
+        }
+    }
+
+    /**
+     * Moves the game camera.
+     */
+    private static final class GameCamera implements Camera {
+        @Override
+        public void moveTo(float x, float y) {
+            OrthographicCamera camera = GameManager.get().getCamera();
+            if (camera != null) {
+                camera.position.set(x, y, 0);
+            }
+        }
+
+        @Override
+        public boolean isPresent() {
+            return GameManager.get().getCamera() != null;
+        }
+
+        @Override
+        public float getX() {
+            return GameManager.get().getCamera().position.x;
+        }
+
+        @Override
+        public float getY() {
+            return GameManager.get().getCamera().position.y;
+        }
+    }
+
+    /**
+     * Shows the game menu manager's pop ups.
+     */
+    private static final class GameMenuUi implements Ui {
+        @Override
+        public boolean isPaused() {
+            return GameScreen.getIsPaused();
+        }
+
+        @Override
+        public Object getPopUp(String name) {
+            GameMenuManager menus = GameManager.getManagerFromInstance(GameMenuManager.class);
+            return menus == null ? null : menus.getPopUp(name);
+        }
+
+        @Override
+        public Object getUIElement(String name) {
+            GameMenuManager menus = GameManager.getManagerFromInstance(GameMenuManager.class);
+            return menus == null ? null : menus.getUIElement(name);
+        }
+
+        @Override
+        public void showPopUp(String name) {
+            GameMenuManager menus = GameManager.getManagerFromInstance(GameMenuManager.class);
+            if (menus != null) {
+                menus.setPopUp(name);
+            }
+        }
+
+        @Override
+        public void hideOpened() {
+            GameMenuManager menus = GameManager.getManagerFromInstance(GameMenuManager.class);
+            if (menus != null) {
+                menus.hideOpened();
+            }
+        }
+    }
+
+    /**
+     * Plays sounds through the sound manager.
+     */
+    private static final class SoundManagerAudio implements Audio {
+        @Override
+        public void play(String soundId) {
+            SoundManager.playSound(soundId);
+        }
+
+        @Override
+        public void stop(String soundId) {
+            SoundManager.stopSound(soundId);
+        }
+
+        @Override
+        public void loop(String soundId) {
+            SoundManager.loopSound(soundId);
+        }
+    }
+
+    /**
+     * Input set by a script or test rather than a keyboard.
+     */
+    public static class ScriptedInput implements Input {
+        private final Set<Integer> pressed = new HashSet<>();
+        private final Set<Integer> justPressed = new HashSet<>();
+        private final float[] pointer = new float[2];
+
+        /**
+         * Press a key and hold it down until it is released. It counts as just
+         * pressed the first time it is checked.
+         *
+         * @param keycode the key, one of libGDX's Input.Keys.
+         */
+        public void press(int keycode) {
+            if (pressed.add(keycode)) {
+                justPressed.add(keycode);
+            }
+        }
+
+        /**
+         * Release a key.
+         *
+         * @param keycode the key, one of libGDX's Input.Keys.
+         */
+        public void release(int keycode) {
+            pressed.remove(keycode);
+            justPressed.remove(keycode);
+        }
+
+        /**
+         * Move the pointer.
+         *
+         * @param x the world x-coordinate.
+         * @param y the world y-coordinate.
+         */
+        public void setPointer(float x, float y) {
+            pointer[0] = x;
+            pointer[1] = y;
+        }
+
+        @Override
+        public boolean isKeyPressed(int keycode) {
+            return pressed.contains(keycode);
+        }
+
+        @Override
+        public boolean isKeyJustPressed(int keycode) {
+            return justPressed.remove(keycode);
+        }
+
+        @Override
+        public float[] getPointer() {
+            return new float[] { pointer[0], pointer[1] };
+        }
+    }
+
+    /**
+     * A camera that only remembers where it was moved to.
+     */
+    public static class RecordingCamera implements Camera {
+        private float x;
+        private float y;
+        private long moveCount = 0;
+
+        @Override
+        public void moveTo(float x, float y) {
+            this.x = x;
+            this.y = y;
+            moveCount++;
+        }
+
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public float getX() {
+            return x;
+        }
+
+        @Override
+        public float getY() {
+            return y;
+        }
+
+        /**
+         * Get the number of times the camera was moved.
+         *
+         * @return the number of moves.
+         */
+        public long getMoveCount() {
+            return moveCount;
+        }
+    }
+
+    /**
+     * A UI with no pop ups, which remembers the ones asked for.
+     */
+    public static class RecordingUi implements Ui {
+        private boolean paused = false;
+        private final List<String> shown = new ArrayList<>();
+
+        /**
+         * Pause or unpause the game, as a menu would.
+         *
+         * @param paused whether the game is paused.
+         */
+        public void setPaused(boolean paused) {
+            this.paused = paused;
+        }
+
+        @Override
+        public boolean isPaused() {
+            return paused;
+        }
+
+        @Override
+        public Object getPopUp(String name) {
+            return null;
+        }
+
+        @Override
+        public Object getUIElement(String name) {
+            return null;
+        }
+
+        @Override
+        public void showPopUp(String name) {
+            shown.add(name);
+        }
+
+        @Override
+        public void hideOpened() {
+            // Nothing is ever open
+        }
+
+        /**
+         * Get the pop ups asked to be shown, oldest first.
+         *
+         * @return the names of the pop ups.
+         */
+        public List<String> getShown() {
+            return shown;
+        }
+    }
+
+    /**
+     * Audio that plays nothing, but remembers what it was asked to play.
+     */
+    public static class RecordingAudio implements Audio {
+        private final List<String> played = new ArrayList<>();
+        private final List<String> looped = new ArrayList<>();
+        private final List<String> stopped = new ArrayList<>();
+
+        @Override
+        public void play(String soundId) {
+            played.add(soundId);
+        }
+
+        @Override
+        public void stop(String soundId) {
+            stopped.add(soundId);
+        }
+
+        @Override
+        public void loop(String soundId) {
+            looped.add(soundId);
+        }
+
+        /**
+         * Forget the sounds asked for so far, e.g. between long runs.
+         */
+        public void clear() {
+            played.clear();
+            looped.clear();
+            stopped.clear();
+        }
+
+        /**
+         * Get the sounds played, oldest first.
+         *
+         * @return the names of the sounds.
+         */
+        public List<String> getPlayed() {
+            return played;
+        }
+
+        /**
+         * Get the sounds looped, oldest first.
+         *
+         * @return the names of the sounds.
+         */
+        public List<String> getLooped() {
+            return looped;
+        }
+
+        /**
+         * Get the sounds stopped, oldest first.
+         *
+         * @return the names of the sounds.
+         */
+        public List<String> getStopped() {
+            return stopped;
+        }
+    }
+
+    private Input input = new GdxInput();
+    private Camera camera = new GameCamera();
+    private Ui ui = new GameMenuUi();
+    private Audio audio = new SoundManagerAudio();
+    private boolean headless = false;
+
+    /**
+     * Replace the input, camera, UI and audio with scripted input and recording
+     * stand ins that need no window.
+     */
+    public void useHeadless() {
+        input = new ScriptedInput();
+        camera = new RecordingCamera();
+        ui = new RecordingUi();
+        audio = new RecordingAudio();
+        headless = true;
+    }
+
+    /**
+     * Check whether the services were replaced by {@link #useHeadless()}.
+     *
+     * @return true in headless mode.
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Step a world and the game's tickable managers a number of ticks, back to
+     * back, through the world's {@link TickScheduler}.
+     *
+     * @param world the world to step.
+     * @param ticks the number of ticks to run.
+     * @return the real time the ticks took, in nanoseconds.
+     */
+    public long step(World world, int ticks) {
+        long start = System.nanoTime();
+        GameManager.getManagerFromInstance(TickScheduler.class).runTicks(ticks, tick -> tick(world, tick));
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Run the ticks due after a frame of real time, through the world's
+     * {@link TickScheduler}. The render loop calls this once a frame with the
+     * time since the last, so a slow frame is caught up on by running several
+     * ticks rather than slowing the game down.
+     *
+     * @param world        the world to step.
+     * @param elapsedNanos the real time since the last frame, in nanoseconds.
+     * @return the number of ticks run.
+     */
+    public int frame(World world, long elapsedNanos) {
+        return GameManager.getManagerFromInstance(TickScheduler.class).update(elapsedNanos, tick -> tick(world, tick));
+    }
+
+    /**
+     * Run one tick of a world and the game's tickable managers.
+     *
+     * @param world the world to tick.
+     * @param tick  the number of the tick.
+     */
+    public void tick(World world, long tick) {
+        world.onTick(tick);
+        GameManager.get().onTick(tick);
+    }
+
+    /**
+     * Get the keyboard and pointer.
+     *
+     * @return the input.
+     */
+    public Input getInput() {
+        return input;
+    }
+
+    /**
+     * Set the keyboard and pointer, e.g. to script a test.
+     *
+     * @param input the input.
+     */
+    public void setInput(Input input) {
+        this.input = input;
+    }
+
+    /**
+     * Get the camera.
+     *
+     * @return the camera.
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Set the camera.
+     *
+     * @param camera the camera.
+     */
+    public void setCamera(Camera camera) {
+        this.camera = camera;
+    }
+
+    /**
+     * Get the menus and pop ups.
+     *
+     * @return the UI.
+     */
+    public Ui getUi() {
+        return ui;
+    }
+
+    /**
+     * Set the menus and pop ups.
+     *
+     * @param ui the UI.
+     */
+    public void setUi(Ui ui) {
+        this.ui = ui;
+    }
+
+    /**
+     * Get where sounds are played.
+     *
+     * @return the audio.
+     */
+    public Audio getAudio() {
+        return audio;
+    }
+
+    /**
+     * Set where sounds are played.
+     *
+     * @param audio the audio.
+     */
+    public void setAudio(Audio audio) {
+        this.audio = audio;
+    }
+}
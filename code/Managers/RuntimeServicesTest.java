@@ -0,0 +1,116 @@
+package deco2800.skyfall.managers;
+
+import com.badlogic.gdx.Input;
+import deco2800.skyfall.worlds.world.World;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test the headless stand ins for the game's input, camera, UI and audio.
+ */
+public class RuntimeServicesTest {
+
+    private RuntimeServices services;
+
+    @Before
+    public void setUp() {
+        services = new RuntimeServices();
+        services.useHeadless();
+    }
+
+    /**
+     * Test scripted keys stay held until released, but count as just pressed
+     * only once.
+     */
+    @Test
+    public void scriptedInputTest() {
+        Assert.assertTrue(services.isHeadless());
+        RuntimeServices.ScriptedInput input = (RuntimeServices.ScriptedInput) services.getInput();
+
+        input.press(Input.Keys.W);
+        Assert.assertTrue(services.getInput().isKeyPressed(Input.Keys.W));
+        Assert.assertFalse(services.getInput().isKeyPressed(Input.Keys.S));
+        Assert.assertTrue(services.getInput().isKeyJustPressed(Input.Keys.W));
+        Assert.assertFalse(services.getInput().isKeyJustPressed(Input.Keys.W));
+        Assert.assertTrue(services.getInput().isKeyPressed(Input.Keys.W));
+
+        input.release(Input.Keys.W);
+        Assert.assertFalse(services.getInput().isKeyPressed(Input.Keys.W));
+
+        input.setPointer(3f, -2f);
+        Assert.assertArrayEquals(new float[] { 3f, -2f }, services.getInput().getPointer(), 0f);
+    }
+
+    /**
+     * Test the camera, UI and audio remember what they were asked to do.
+     */
+    @Test
+    public void recordingTest() {
+        services.getCamera().moveTo(4f, 5f);
+        Assert.assertTrue(services.getCamera().isPresent());
+        Assert.assertEquals(4f, services.getCamera().getX(), 0f);
+        Assert.assertEquals(5f, services.getCamera().getY(), 0f);
+        Assert.assertEquals(1, ((RuntimeServices.RecordingCamera) services.getCamera()).getMoveCount());
+
+        RuntimeServices.RecordingUi ui = (RuntimeServices.RecordingUi) services.getUi();
+        Assert.assertFalse(ui.isPaused());
+        ui.setPaused(true);
+        Assert.assertTrue(ui.isPaused());
+        Assert.assertNull(ui.getPopUp("constructionTable"));
+        ui.showPopUp("gameOverTable");
+        Assert.assertEquals(Collections.singletonList("gameOverTable"), ui.getShown());
+
+        RuntimeServices.RecordingAudio audio = (RuntimeServices.RecordingAudio) services.getAudio();
+        audio.play("sword");
+        audio.loop("people_walk_normal");
+        audio.stop("people_walk_normal");
+        Assert.assertEquals(Collections.singletonList("sword"), audio.getPlayed());
+        Assert.assertEquals(Collections.singletonList("people_walk_normal"), audio.getLooped());
+        Assert.assertEquals(Collections.singletonList("people_walk_normal"), audio.getStopped());
+
+        audio.clear();
+        Assert.assertTrue(audio.getPlayed().isEmpty());
+    }
+
+    /**
+     * Test a stalled frame is caught up on by running a tick for every step it
+     * took, so the game keeps to real time.
+     */
+    @Test
+    public void frameTest() {
+        World world = mock(World.class);
+        TickScheduler scheduler = GameManager.getManagerFromInstance(TickScheduler.class);
+        long firstTick = scheduler.getNextTick();
+
+        // A 100 ms stall is five 20 ms ticks
+        Assert.assertEquals(5, services.frame(world, 100_000_000L));
+        Assert.assertEquals(100_000_000L, scheduler.getFrameNanos());
+        Assert.assertEquals(firstTick + 5, scheduler.getNextTick());
+        verify(world, times(5)).onTick(anyLong());
+        verify(world).onTick(firstTick + 4);
+    }
+
+    /**
+     * Test the sound bus plays through headless audio set as its sink.
+     */
+    @Test
+    public void soundBusTest() {
+        SoundEventBus bus = new SoundEventBus();
+        bus.setSink(services.getAudio());
+        bus.request("died", SoundEventBus.PRIORITY_HIGH);
+        bus.request("fist_attack", SoundEventBus.PRIORITY_LOW);
+        bus.flush(0);
+
+        Assert.assertEquals(Arrays.asList("died", "fist_attack"),
+                ((RuntimeServices.RecordingAudio) services.getAudio()).getPlayed());
+    }
+}
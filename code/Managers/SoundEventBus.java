@@ -0,0 +1,336 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.util.WorldUtil;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the sounds entities ask to play during a tick and plays them once at
+ * the end of it. Requests for the same sound in one tick are merged into a
+ * single play, sounds further than the audible radius from the camera are not
+ * played at all, and only a fixed number of voices play at once. When every
+ * voice is taken a new sound replaces the lowest priority one playing, or is
+ * dropped if nothing playing has a lower priority.
+ *
+ * Sounds are handed to a {@link Sink}, which plays them through the audio of
+ * the {@link RuntimeServices} unless another sink is set, e.g. for tests.
+ */
+public class SoundEventBus extends TickableManager {
+
+    // Priorities, higher priority sounds replace lower ones when voices run out
+    public static final int PRIORITY_LOW = 0;
+    public static final int PRIORITY_NORMAL = 1;
+    public static final int PRIORITY_HIGH = 2;
+
+    // Distance from the camera, in tiles, beyond which sounds are not played
+    public static final float DEFAULT_AUDIBLE_RADIUS = 25f;
+
+    // Most sounds played at once
+    public static final int DEFAULT_MAX_VOICES = 8;
+
+    // Ticks a sound is assumed to hold its voice for
+    public static final int DEFAULT_VOICE_TICKS = 50;
+
+    // Profiler scope of playing the tick's sounds
+    private static final int PROFILE_SOUND = TickProfiler.scope("sound");
+
+    /**
+     * Plays and stops sounds for the bus.
+     */
+    public interface Sink {
+        /**
+         * Play a sound.
+         *
+         * @param soundId the name of the sound.
+         */
+        void play(String soundId);
+
+        /**
+         * Stop a sound.
+         *
+         * @param soundId the name of the sound.
+         */
+        void stop(String soundId);
+    }
+
+    // Plays through the runtime's audio, the sound manager unless headless
+    private static final Sink RUNTIME_SINK = new Sink() {
+        @Override
+        public void play(String soundId) {
+            GameManager.getManagerFromInstance(RuntimeServices.class).getAudio().play(soundId);
+        }
+
+        @Override
+        public void stop(String soundId) {
+            GameManager.getManagerFromInstance(RuntimeServices.class).getAudio().stop(soundId);
+        }
+    };
+
+    // Plays the highest priority first, then the closest
+    private static final Comparator<Request> PLAY_ORDER =
+            Comparator.comparingInt((Request request) -> -request.priority)
+                    .thenComparingDouble(request -> request.distance);
+
+    /**
+     * A sound asked for this tick, or one currently holding a voice.
+     */
+    private static class Request {
+        private String soundId;
+        private int priority;
+        private float distance;
+        private long startTick;
+    }
+
+    private Sink sink = RUNTIME_SINK;
+    private float audibleRadius = DEFAULT_AUDIBLE_RADIUS;
+    private int maxVoices = DEFAULT_MAX_VOICES;
+    private int voiceTicks = DEFAULT_VOICE_TICKS;
+
+    // Where the listener is, in tiles
+    private float listenerCol;
+    private float listenerRow;
+
+    // Sounds asked for this tick, one per sound id, and the order they came in
+    private final Map<String, Request> pending = new HashMap<>();
+    private final List<Request> pendingOrder = new ArrayList<>();
+
+    // Sounds currently holding a voice
+    private final List<Request> voices = new ArrayList<>();
+
+    // Request objects no longer in use, kept to avoid allocating every tick
+    private final ArrayDeque<Request> spare = new ArrayDeque<>();
+
+    // Requests merged into another or culled for distance, since the bus was made
+    private long coalescedCount = 0;
+    private long culledCount = 0;
+
+    /**
+     * Set where sounds are played to.
+     *
+     * @param sink the sink, or null to play through the runtime's audio.
+     */
+    public void setSink(Sink sink) {
+        this.sink = sink == null ? RUNTIME_SINK : sink;
+    }
+
+    /**
+     * Set the distance from the listener beyond which sounds are not played.
+     *
+     * @param audibleRadius the audible radius, in tiles.
+     */
+    public void setAudibleRadius(float audibleRadius) {
+        this.audibleRadius = audibleRadius;
+    }
+
+    /**
+     * Set the most sounds that play at once, and how long each holds its voice.
+     *
+     * @param maxVoices  the most sounds playing at once.
+     * @param voiceTicks the ticks a sound holds its voice for.
+     */
+    public void setVoiceLimits(int maxVoices, int voiceTicks) {
+        if (maxVoices < 1 || voiceTicks < 1) {
+            throw new IllegalArgumentException("Voice limits must be positive");
+        }
+        this.maxVoices = maxVoices;
+        this.voiceTicks = voiceTicks;
+    }
+
+    /**
+     * Move the listener. The bus follows the camera each tick while there is one.
+     *
+     * @param col the column of the listener.
+     * @param row the row of the listener.
+     */
+    public void setListener(float col, float row) {
+        this.listenerCol = col;
+        this.listenerRow = row;
+    }
+
+    /**
+     * Ask for a sound to be played at a position this tick.
+     *
+     * @param soundId  the name of the sound.
+     * @param col      the column the sound comes from.
+     * @param row      the row the sound comes from.
+     * @param priority how important the sound is, one of the PRIORITY constants.
+     */
+    public void request(String soundId, float col, float row, int priority) {
+        float colDistance = col - listenerCol;
+        float rowDistance = row - listenerRow;
+        float distance = (float) Math.sqrt(colDistance * colDistance + rowDistance * rowDistance);
+        if (distance > audibleRadius) {
+            culledCount++;
+            return;
+        }
+        enqueue(soundId, distance, priority);
+    }
+
+    /**
+     * Ask for a sound to be played this tick that is always heard, such as one
+     * made by the player.
+     *
+     * @param soundId  the name of the sound.
+     * @param priority how important the sound is, one of the PRIORITY constants.
+     */
+    public void request(String soundId, int priority) {
+        enqueue(soundId, 0, priority);
+    }
+
+    /**
+     * Stop a sound straight away and free its voice.
+     *
+     * @param soundId the name of the sound.
+     */
+    public void stop(String soundId) {
+        Iterator<Request> it = voices.iterator();
+        while (it.hasNext()) {
+            Request voice = it.next();
+            if (voice.soundId.equals(soundId)) {
+                it.remove();
+                spare.push(voice);
+            }
+        }
+        sink.stop(soundId);
+    }
+
+    private void enqueue(String soundId, float distance, int priority) {
+        if (soundId == null) {
+            return;
+        }
+
+        Request existing = pending.get(soundId);
+        if (existing != null) {
+            coalescedCount++;
+            existing.priority = Math.max(existing.priority, priority);
+            existing.distance = Math.min(existing.distance, distance);
+            return;
+        }
+
+        Request request = spare.isEmpty() ? new Request() : spare.pop();
+        request.soundId = soundId;
+        request.priority = priority;
+        request.distance = distance;
+        pending.put(soundId, request);
+        pendingOrder.add(request);
+    }
+
+    /**
+     * Follows the camera and plays the sounds asked for this tick.
+     *
+     * @param i the current game tick.
+     */
+    @Override
+    public void onTick(long i) {
+        TickProfiler profiler = GameManager.getManagerFromInstance(TickProfiler.class);
+        long start = profiler.begin();
+        RuntimeServices.Camera camera = GameManager.getManagerFromInstance(RuntimeServices.class).getCamera();
+        if (camera.isPresent()) {
+            float[] colRow = WorldUtil.worldCoordinatesToColRow(camera.getX(), camera.getY());
+            setListener(colRow[0], colRow[1]);
+        }
+        flush(i);
+        profiler.end(PROFILE_SOUND, start);
+    }
+
+    /**
+     * Play the sounds asked for since the last flush, within the voice limit.
+     *
+     * @param tick the current game tick.
+     */
+    public void flush(long tick) {
+        expireVoices(tick);
+
+        pendingOrder.sort(PLAY_ORDER);
+        for (Request request : pendingOrder) {
+            if (claimVoice(request)) {
+                request.startTick = tick;
+                voices.add(request);
+                sink.play(request.soundId);
+            } else {
+                spare.push(request);
+            }
+        }
+        pendingOrder.clear();
+        pending.clear();
+    }
+
+    /**
+     * Free the voices of sounds that have had their time.
+     */
+    private void expireVoices(long tick) {
+        Iterator<Request> it = voices.iterator();
+        while (it.hasNext()) {
+            Request voice = it.next();
+            if (tick - voice.startTick >= voiceTicks) {
+                it.remove();
+                spare.push(voice);
+            }
+        }
+    }
+
+    /**
+     * Find a voice for a sound, restarting the same sound if it is already
+     * playing or stopping a lower priority one if every voice is taken.
+     *
+     * @return whether the sound may play.
+     */
+    private boolean claimVoice(Request request) {
+        Request lowest = null;
+        for (Request voice : voices) {
+            if (voice.soundId.equals(request.soundId)) {
+                voices.remove(voice);
+                spare.push(voice);
+                return true;
+            }
+            if (lowest == null || voice.priority < lowest.priority
+                    || (voice.priority == lowest.priority && voice.startTick < lowest.startTick)) {
+                lowest = voice;
+            }
+        }
+
+        if (voices.size() < maxVoices) {
+            return true;
+        }
+        if (lowest.priority >= request.priority) {
+            return false;
+        }
+        voices.remove(lowest);
+        spare.push(lowest);
+        sink.stop(lowest.soundId);
+        return true;
+    }
+
+    /**
+     * Get the number of sounds currently holding a voice.
+     *
+     * @return the number of voices in use.
+     */
+    public int getActiveVoiceCount() {
+        return voices.size();
+    }
+
+    /**
+     * Get the number of requests merged into another request in the same tick.
+     *
+     * @return the number of merged requests.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Get the number of requests dropped for being out of earshot.
+     *
+     * @return the number of culled requests.
+     */
+    public long getCulledCount() {
+        return culledCount;
+    }
+}
@@ -0,0 +1,118 @@
+package deco2800.skyfall.managers;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test sounds are merged, culled and limited by the sound event bus.
+ */
+public class SoundEventBusTest {
+
+    private SoundEventBus bus;
+    private List<String> played;
+    private List<String> stopped;
+
+    @Before
+    public void setup() {
+        played = new ArrayList<>();
+        stopped = new ArrayList<>();
+
+        bus = new SoundEventBus();
+        bus.setSink(new SoundEventBus.Sink() {
+            @Override
+            public void play(String soundId) {
+                played.add(soundId);
+            }
+
+            @Override
+            public void stop(String soundId) {
+                stopped.add(soundId);
+            }
+        });
+        bus.setListener(0, 0);
+    }
+
+    /**
+     * Test requests for one sound in the same tick play it once.
+     */
+    @Test
+    public void coalesceTest() {
+        for (int i = 0; i < 20; i++) {
+            bus.request("fist_attack", i % 5, 0, SoundEventBus.PRIORITY_NORMAL);
+        }
+        bus.request("died", 1, 1, SoundEventBus.PRIORITY_NORMAL);
+        bus.flush(0);
+
+        Assert.assertEquals(Arrays.asList("fist_attack", "died"), played);
+        Assert.assertEquals(19, bus.getCoalescedCount());
+
+        // The next tick starts afresh
+        bus.request("fist_attack", 0, 0, SoundEventBus.PRIORITY_NORMAL);
+        bus.flush(1);
+        Assert.assertEquals(3, played.size());
+    }
+
+    /**
+     * Test sounds out of earshot are not played.
+     */
+    @Test
+    public void cullTest() {
+        bus.setAudibleRadius(10);
+        bus.request("far", 30, 0, SoundEventBus.PRIORITY_HIGH);
+        bus.request("near", 3, 4, SoundEventBus.PRIORITY_LOW);
+        bus.request("player", SoundEventBus.PRIORITY_LOW);
+        bus.flush(0);
+
+        Assert.assertTrue(played.containsAll(Arrays.asList("near", "player")));
+        Assert.assertFalse(played.contains("far"));
+        Assert.assertEquals(1, bus.getCulledCount());
+    }
+
+    /**
+     * Test higher priority sounds take the voices of lower priority ones, and
+     * voices free up once a sound has had its time.
+     */
+    @Test
+    public void voiceLimitTest() {
+        bus.setVoiceLimits(2, 10);
+        bus.request("a", 0, 0, SoundEventBus.PRIORITY_LOW);
+        bus.request("b", 0, 0, SoundEventBus.PRIORITY_NORMAL);
+        bus.request("c", 0, 0, SoundEventBus.PRIORITY_LOW);
+        bus.flush(0);
+
+        Assert.assertEquals(Arrays.asList("b", "a"), played);
+        Assert.assertEquals(2, bus.getActiveVoiceCount());
+
+        bus.request("d", 0, 0, SoundEventBus.PRIORITY_HIGH);
+        bus.flush(1);
+        Assert.assertEquals(Arrays.asList("a"), stopped);
+        Assert.assertEquals("d", played.get(2));
+
+        bus.request("e", 0, 0, SoundEventBus.PRIORITY_LOW);
+        bus.flush(2);
+        Assert.assertEquals(3, played.size());
+
+        bus.request("e", 0, 0, SoundEventBus.PRIORITY_LOW);
+        bus.flush(11);
+        Assert.assertEquals("e", played.get(3));
+    }
+
+    /**
+     * Test stopping a sound frees its voice.
+     */
+    @Test
+    public void stopTest() {
+        bus.request("pick up", 0, 0, SoundEventBus.PRIORITY_NORMAL);
+        bus.flush(0);
+        Assert.assertEquals(1, bus.getActiveVoiceCount());
+
+        bus.stop("pick up");
+        Assert.assertEquals(0, bus.getActiveVoiceCount());
+        Assert.assertEquals(Arrays.asList("pick up"), stopped);
+    }
+}
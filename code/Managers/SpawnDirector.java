@@ -0,0 +1,402 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.enemies.Enemy;
+import deco2800.skyfall.util.GameEvents;
+import deco2800.skyfall.worlds.world.World;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Decides which enemies spawn, where and when. Each biome has a spawn table of
+ * enemy archetypes with weights, and each chunk of the world has a cap on the
+ * number of living enemies spawned in it.
+ *
+ * Spawns are asked for with {@link #request} and queued, and each tick only a
+ * set number are carried out, so a wave of spawns when the player enters a new
+ * biome is spread over several ticks rather than landing on one. Ticks with
+ * spawns to spare build enemies ahead of time for the biomes asked for, so
+ * later spawns take a parked enemy from the {@link EnemyPoolManager} instead
+ * of building one.
+ */
+public class SpawnDirector extends TickableManager {
+
+    // Number of tiles along each side of a chunk
+    public static final int DEFAULT_CHUNK_SIZE = 10;
+
+    // Most living enemies spawned in one chunk
+    public static final int DEFAULT_CHUNK_CAP = 6;
+
+    // Spawns carried out, or enemies built ahead of time, each tick
+    public static final int DEFAULT_TICK_BUDGET = 2;
+
+    /**
+     * Builds a new enemy of an archetype, e.g. an enemy's constructor.
+     */
+    public interface Archetype {
+        /**
+         * Build a new enemy.
+         *
+         * @param col     the x-coordinate of the enemy.
+         * @param row     the y-coordinate of the enemy.
+         * @param scaling the factor the enemy's stats are scaled by.
+         * @param biome   the biome the enemy is in.
+         * @return the new enemy.
+         */
+        Enemy create(float col, float row, float scaling, String biome);
+    }
+
+    /**
+     * An archetype in a biome's spawn table.
+     */
+    private static final class Entry {
+        private final Enemy.EnemyType type;
+        private final Archetype archetype;
+        private final float scaling;
+
+        private Entry(Enemy.EnemyType type, Archetype archetype, float scaling) {
+            this.type = type;
+            this.archetype = archetype;
+            this.scaling = scaling;
+        }
+    }
+
+    /**
+     * The archetypes of a biome, with running totals of their weights so one
+     * can be picked with a binary search.
+     */
+    private static final class Table {
+        private final List<Entry> entries = new ArrayList<>();
+        private int[] totals = new int[0];
+
+        private void add(Entry entry, int weight) {
+            int total = totals.length == 0 ? 0 : totals[totals.length - 1];
+            totals = Arrays.copyOf(totals, totals.length + 1);
+            totals[totals.length - 1] = total + weight;
+            entries.add(entry);
+        }
+
+        private Entry pick(SplittableRandom random) {
+            int roll = random.nextInt(totals[totals.length - 1]);
+            int index = Arrays.binarySearch(totals, roll + 1);
+            return entries.get(index >= 0 ? index : -index - 1);
+        }
+    }
+
+    /**
+     * A living enemy this director spawned.
+     */
+    private static final class Spawned {
+        private final Enemy enemy;
+        private final long chunk;
+        private final int life;
+
+        private Spawned(Enemy enemy, long chunk) {
+            this.enemy = enemy;
+            this.chunk = chunk;
+            this.life = enemy.getLife();
+        }
+
+        /**
+         * Check whether the enemy has died, or gone back to the pool and been
+         * spawned again as another enemy, since this spawn.
+         */
+        private boolean isOver() {
+            return enemy.isDead() || enemy.getLife() != life;
+        }
+    }
+
+    /**
+     * A queued spawn.
+     */
+    private static final class Pending {
+        private final String biome;
+        private final float col;
+        private final float row;
+
+        private Pending(String biome, float col, float row) {
+            this.biome = biome;
+            this.col = col;
+            this.row = row;
+        }
+    }
+
+    private final EnemyPoolManager pool;
+    private final Consumer<Enemy> addToWorld;
+    private SplittableRandom random;
+
+    private final Map<String, Table> tables = new HashMap<>();
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+
+    // Biomes to build enemies ahead of time for, oldest first
+    private final Set<String> warming = new LinkedHashSet<>();
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int chunkCap = DEFAULT_CHUNK_CAP;
+    private int tickBudget = DEFAULT_TICK_BUDGET;
+
+    // Living enemies this director spawned, and how many are in each chunk.
+    // Only chunks with living enemies are kept
+    private final List<Spawned> living = new ArrayList<>();
+    private final Map<Long, int[]> population = new HashMap<>();
+
+    private long spawnedCount = 0;
+    private long droppedCount = 0;
+
+    /**
+     * Creates a director that spawns into the game world, using the world's
+     * enemy pool.
+     */
+    public SpawnDirector() {
+        this(GameManager.getManagerFromInstance(EnemyPoolManager.class), SpawnDirector::addToGameWorld, null);
+    }
+
+    /**
+     * Creates a director.
+     *
+     * @param pool       the pool enemies are taken from and built ahead into.
+     * @param addToWorld adds a spawned enemy to the world.
+     * @param random     picks archetypes, or null to use a stream from the
+     *                   world's {@link RandomManager}.
+     */
+    public SpawnDirector(EnemyPoolManager pool, Consumer<Enemy> addToWorld, SplittableRandom random) {
+        this.pool = pool;
+        this.addToWorld = addToWorld;
+        this.random = random;
+    }
+
+    private static void addToGameWorld(Enemy enemy) {
+        World world = GameManager.get().getWorld();
+        if (world != null) {
+            world.addEntity(enemy);
+        }
+    }
+
+    /**
+     * Add an archetype to a biome's spawn table.
+     *
+     * @param biome     the name of the biome.
+     * @param type      the type of enemy the archetype builds.
+     * @param archetype builds a new enemy.
+     * @param scaling   the factor the enemy's stats are scaled by.
+     * @param weight    how likely the archetype is to be picked, relative to
+     *                  the others in the biome.
+     */
+    public void addSpawn(String biome, Enemy.EnemyType type, Archetype archetype, float scaling, int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Spawn weight must be at least 1");
+        }
+        tables.computeIfAbsent(biome, k -> new Table()).add(new Entry(type, archetype, scaling), weight);
+    }
+
+    /**
+     * Set the size of a chunk and the most living enemies spawned in each.
+     *
+     * @param chunkSize the number of tiles along each side of a chunk.
+     * @param chunkCap  the most living enemies spawned in one chunk.
+     */
+    public void setChunkCap(int chunkSize, int chunkCap) {
+        if (chunkSize < 1 || chunkCap < 0) {
+            throw new IllegalArgumentException("Invalid chunk cap");
+        }
+        this.chunkSize = chunkSize;
+        this.chunkCap = chunkCap;
+    }
+
+    /**
+     * Set the number of spawns carried out, or enemies built ahead of time,
+     * each tick.
+     *
+     * @param tickBudget the number of spawns, at least 1.
+     */
+    public void setTickBudget(int tickBudget) {
+        if (tickBudget < 1) {
+            throw new IllegalArgumentException("Spawn budget must be at least 1");
+        }
+        this.tickBudget = tickBudget;
+    }
+
+    /**
+     * Build enemies of a biome ahead of time on ticks with spawns to spare,
+     * e.g. when the player gets near it.
+     *
+     * @param biome the name of the biome.
+     */
+    public void prepare(String biome) {
+        if (tables.containsKey(biome)) {
+            warming.add(biome);
+        }
+    }
+
+    /**
+     * Queue an enemy to spawn. It is carried out on a later tick, unless the
+     * chunk is full by then.
+     *
+     * @param biome the name of the biome, picking the spawn table.
+     * @param col   the x-coordinate to spawn at.
+     * @param row   the y-coordinate to spawn at.
+     */
+    public void request(String biome, float col, float row) {
+        pending.add(new Pending(biome, col, row));
+        prepare(biome);
+    }
+
+    /**
+     * Carries out this tick's share of the queued spawns, then builds enemies
+     * ahead of time with any spawns to spare.
+     *
+     * @param i the current game tick.
+     */
+    @Override
+    public void onTick(long i) {
+        forgetDead();
+
+        int budget = tickBudget;
+        while (budget > 0 && !pending.isEmpty()) {
+            if (spawn(pending.poll())) {
+                budget--;
+            }
+        }
+        warm(budget);
+    }
+
+    /**
+     * Stop counting enemies that have died against their chunks. A pooled enemy
+     * spawned again counts as a new enemy, so its earlier spawn is forgotten
+     * even if it never looked dead here.
+     */
+    private void forgetDead() {
+        for (int n = living.size() - 1; n >= 0; n--) {
+            Spawned spawned = living.get(n);
+            if (spawned.isOver()) {
+                if (--population.get(spawned.chunk)[0] == 0) {
+                    population.remove(spawned.chunk);
+                }
+                int last = living.size() - 1;
+                living.set(n, living.get(last));
+                living.remove(last);
+            }
+        }
+    }
+
+    /**
+     * Carry out a spawn, if its chunk has room.
+     *
+     * @return true if an enemy was spawned.
+     */
+    private boolean spawn(Pending spawn) {
+        Table table = tables.get(spawn.biome);
+        long chunk = chunkOf(spawn.col, spawn.row);
+        int[] count = population.get(chunk);
+        if (table == null || (count == null ? 0 : count[0]) >= chunkCap) {
+            droppedCount++;
+            return false;
+        }
+
+        Entry entry = table.pick(getRandom());
+        Enemy enemy = pool.acquire(entry.type, Enemy.class);
+        boolean pooled = enemy != null;
+        if (pooled) {
+            enemy.respawn(spawn.col, spawn.row, entry.scaling, spawn.biome);
+        } else {
+            enemy = entry.archetype.create(spawn.col, spawn.row, entry.scaling, spawn.biome);
+        }
+        addToWorld.accept(enemy);
+        GameEvents.enemySpawned(entry.type, spawn.biome, pooled);
+
+        if (count == null) {
+            count = new int[1];
+            population.put(chunk, count);
+            GameEvents.chunkActivated(chunk >> 32, (int) chunk, spawn.biome, population.size());
+        }
+        count[0]++;
+        living.add(new Spawned(enemy, chunk));
+        spawnedCount++;
+        return true;
+    }
+
+    /**
+     * Build enemies of the prepared biomes into the pool, up to its low water
+     * marks.
+     */
+    private void warm(int budget) {
+        for (String biome : warming) {
+            for (Entry entry : tables.get(biome).entries) {
+                if (budget == 0) {
+                    return;
+                }
+                budget -= pool.prewarm(entry.type, () -> entry.archetype.create(0, 0, entry.scaling, biome), budget);
+            }
+        }
+    }
+
+    private SplittableRandom getRandom() {
+        if (random == null) {
+            random = GameManager.getManagerFromInstance(RandomManager.class).newStream();
+        }
+        return random;
+    }
+
+    private long chunkOf(float col, float row) {
+        long chunkCol = Math.floorDiv(Math.round(col), chunkSize);
+        long chunkRow = Math.floorDiv(Math.round(row), chunkSize);
+        return (chunkCol << 32) | (chunkRow & 0xffffffffL);
+    }
+
+    /**
+     * Get the number of living enemies this director spawned in a chunk.
+     *
+     * @param col the x-coordinate of a tile in the chunk.
+     * @param row the y-coordinate of a tile in the chunk.
+     * @return the number of living enemies.
+     */
+    public int getPopulation(float col, float row) {
+        int[] count = population.get(chunkOf(col, row));
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * Get the number of chunks with living enemies this director spawned.
+     *
+     * @return the number of active chunks.
+     */
+    public int getActiveChunkCount() {
+        return population.size();
+    }
+
+    /**
+     * Get the number of spawns waiting in the queue.
+     *
+     * @return the number of queued spawns.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Get the number of enemies spawned since the director was made.
+     *
+     * @return the number of spawns.
+     */
+    public long getSpawnedCount() {
+        return spawnedCount;
+    }
+
+    /**
+     * Get the number of spawns dropped because their chunk was full or their
+     * biome had no spawn table.
+     *
+     * @return the number of dropped spawns.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+}
@@ -0,0 +1,188 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.entities.enemies.Enemy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test spawns are spread over ticks, kept under their chunk caps and picked
+ * from the biome's spawn table.
+ */
+public class SpawnDirectorTest {
+
+    private EnemyPoolManager pool;
+    private List<Enemy> world;
+    private SpawnDirector director;
+    private int scoutsBuilt;
+    private int heaviesBuilt;
+
+    @Before
+    public void setUp() {
+        pool = new EnemyPoolManager();
+        world = new ArrayList<>();
+        director = new SpawnDirector(pool, world::add, new SplittableRandom(1));
+        scoutsBuilt = 0;
+        heaviesBuilt = 0;
+
+        director.addSpawn("forest", Enemy.EnemyType.SCOUT, (col, row, scaling, biome) -> {
+            scoutsBuilt++;
+            return enemy(Enemy.EnemyType.SCOUT);
+        }, 1f, 1);
+        director.addSpawn("forest", Enemy.EnemyType.HEAVY, (col, row, scaling, biome) -> {
+            heaviesBuilt++;
+            return enemy(Enemy.EnemyType.HEAVY);
+        }, 1f, 3);
+    }
+
+    private static Enemy enemy(Enemy.EnemyType type) {
+        Enemy enemy = mock(Enemy.class);
+        when(enemy.getEnemyType()).thenReturn(type);
+        return enemy;
+    }
+
+    /**
+     * Test a burst of spawns is carried out a few at a time.
+     */
+    @Test
+    public void budgetTest() {
+        director.setTickBudget(2);
+        pool.setWaterMarks(Enemy.EnemyType.SCOUT, 0, 0);
+        pool.setWaterMarks(Enemy.EnemyType.HEAVY, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            director.request("forest", i * 20f, 0f);
+        }
+
+        director.onTick(1);
+        Assert.assertEquals(2, world.size());
+        Assert.assertEquals(3, director.getPendingCount());
+        director.onTick(2);
+        director.onTick(3);
+        Assert.assertEquals(5, world.size());
+        Assert.assertEquals(5, director.getSpawnedCount());
+    }
+
+    /**
+     * Test a full chunk drops spawns until one of its enemies dies.
+     */
+    @Test
+    public void chunkCapTest() {
+        director.setTickBudget(10);
+        director.setChunkCap(10, 2);
+        for (int i = 0; i < 4; i++) {
+            director.request("forest", 1f, 1f);
+        }
+        director.request("desert", 30f, 30f);
+        director.onTick(1);
+
+        Assert.assertEquals(2, world.size());
+        Assert.assertEquals(2, director.getPopulation(5f, 5f));
+        Assert.assertEquals(3, director.getDroppedCount());
+
+        when(world.get(0).isDead()).thenReturn(true);
+        director.request("forest", 2f, 2f);
+        director.onTick(2);
+        Assert.assertEquals(3, world.size());
+        Assert.assertEquals(2, director.getPopulation(1f, 1f));
+    }
+
+    /**
+     * Test chunks count as active while they have living enemies.
+     */
+    @Test
+    public void activeChunksTest() {
+        director.setTickBudget(10);
+        director.setChunkCap(10, 2);
+        director.request("forest", 1f, 1f);
+        director.request("forest", 2f, 2f);
+        director.request("forest", -5f, 1f);
+        director.onTick(1);
+        Assert.assertEquals(2, director.getActiveChunkCount());
+
+        when(world.get(2).isDead()).thenReturn(true);
+        director.onTick(2);
+        Assert.assertEquals(1, director.getActiveChunkCount());
+    }
+
+    /**
+     * Test an enemy that died and was spawned again from the pool before the
+     * director looked is only counted where it was spawned last.
+     */
+    @Test
+    public void respawnedTest() {
+        director.setTickBudget(10);
+        director.setChunkCap(10, 1);
+        director.request("forest", 1f, 1f);
+        director.onTick(1);
+        Assert.assertEquals(1, director.getPopulation(1f, 1f));
+
+        // Back out of the pool elsewhere, and alive again
+        Enemy enemy = world.get(0);
+        when(enemy.getLife()).thenReturn(1);
+        director.request("forest", 2f, 2f);
+        director.onTick(2);
+
+        Assert.assertEquals(1, director.getPopulation(1f, 1f));
+        Assert.assertEquals(1, director.getActiveChunkCount());
+        Assert.assertEquals(2, director.getSpawnedCount());
+
+        when(world.get(1).isDead()).thenReturn(true);
+        director.onTick(3);
+        Assert.assertEquals(0, director.getPopulation(1f, 1f));
+        Assert.assertEquals(0, director.getActiveChunkCount());
+    }
+
+    /**
+     * Test archetypes are picked by their weights.
+     */
+    @Test
+    public void weightTest() {
+        director.setTickBudget(400);
+        director.setChunkCap(1, 1);
+        pool.setWaterMarks(Enemy.EnemyType.SCOUT, 0, 0);
+        pool.setWaterMarks(Enemy.EnemyType.HEAVY, 0, 0);
+        for (int i = 0; i < 400; i++) {
+            director.request("forest", i, 0f);
+        }
+        director.onTick(1);
+
+        Assert.assertEquals(400, scoutsBuilt + heaviesBuilt);
+        Assert.assertTrue(heaviesBuilt > 2 * scoutsBuilt);
+        Assert.assertTrue(scoutsBuilt > 50);
+    }
+
+    /**
+     * Test spare ticks build enemies ahead of time, which later spawns reuse.
+     */
+    @Test
+    public void prewarmTest() {
+        director.setTickBudget(2);
+        pool.setWaterMarks(Enemy.EnemyType.SCOUT, 1, 4);
+        pool.setWaterMarks(Enemy.EnemyType.HEAVY, 1, 4);
+        director.prepare("forest");
+        director.prepare("nowhere");
+
+        director.onTick(1);
+        Assert.assertEquals(1, pool.getPooledCount(Enemy.EnemyType.SCOUT));
+        Assert.assertEquals(1, pool.getPooledCount(Enemy.EnemyType.HEAVY));
+        Assert.assertTrue(world.isEmpty());
+
+        director.request("forest", 0f, 0f);
+        director.onTick(2);
+        Assert.assertEquals(1, world.size());
+        verify(world.get(0)).respawn(0f, 0f, 1f, "forest");
+
+        // The spare spawn this tick tops the pool back up
+        Assert.assertEquals(3, scoutsBuilt + heaviesBuilt);
+        Assert.assertEquals(1, pool.getPooledCount(Enemy.EnemyType.SCOUT));
+        Assert.assertEquals(1, pool.getPooledCount(Enemy.EnemyType.HEAVY));
+    }
+}
@@ -0,0 +1,340 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.util.GameEvents;
+import deco2800.skyfall.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Times named scopes of the tick, such as AI, sound or a kind of entity, to
+ * find what a slow tick spent its time on. Code to be timed asks for a scope id
+ * once with {@link #scope} or {@link #entityScope}, then wraps the work in
+ * {@link #begin()} and {@link #end}. The time spent in each scope is added up
+ * over a tick, and at the end of the tick each scope's total goes into its own
+ * {@link LatencyHistogram}, so memory stays fixed however long the game runs.
+ *
+ * While disabled, begin and end only read a flag, so the calls can be left in
+ * production builds. Only the game thread may time scopes.
+ *
+ * The game manager ticks the profiler once per game tick, and each tick is
+ * closed off, in the profiler and the flight recorder, when the next one is.
+ * A tick so runs from one call of {@link #onTick} to the next, holding one
+ * whole game tick wherever the profiler comes among the managers.
+ *
+ * The overlay lists the scopes taking the most time per tick and the slowest
+ * kinds of entity, and is toggled with {@link #toggleOverlay()}.
+ */
+public class TickProfiler extends TickableManager {
+
+    // Most scopes that can be made
+    public static final int MAX_SCOPES = 128;
+
+    // Lines listed in each part of the overlay
+    public static final int OVERLAY_LINES = 5;
+
+    // Scope names and ids, shared by every profiler so ids can be kept in statics
+    private static final Map<String, Integer> SCOPE_IDS = new HashMap<>();
+    private static final String[] SCOPE_NAMES = new String[MAX_SCOPES];
+    private static final boolean[] ENTITY_SCOPES = new boolean[MAX_SCOPES];
+    private static int scopeCount = 0;
+
+    /**
+     * The time a scope took per tick.
+     */
+    public static final class Summary {
+        private final String name;
+        private final double meanNanos;
+        private final long p99Nanos;
+        private final long ticks;
+
+        private Summary(String name, LatencyHistogram histogram) {
+            this.name = name;
+            this.meanNanos = histogram.getMean();
+            this.p99Nanos = histogram.getPercentile(0.99);
+            this.ticks = histogram.getCount();
+        }
+
+        /**
+         * Get the name of the scope.
+         *
+         * @return the name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the mean time the scope took per tick it ran in.
+         *
+         * @return the mean time, in nanoseconds.
+         */
+        public double getMeanNanos() {
+            return meanNanos;
+        }
+
+        /**
+         * Get the time per tick 99% of the scope's ticks were within.
+         *
+         * @return the 99th percentile time, in nanoseconds.
+         */
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        /**
+         * Get the number of ticks the scope ran in.
+         *
+         * @return the number of ticks.
+         */
+        public long getTicks() {
+            return ticks;
+        }
+    }
+
+    private volatile boolean enabled = false;
+    private boolean overlayVisible = false;
+
+    // Time spent in each scope so far this tick, and the scopes with time
+    private final long[] tickNanos = new long[MAX_SCOPES];
+    private final int[] touched = new int[MAX_SCOPES];
+    private int touchedCount = 0;
+
+    // Time per tick of each scope, made the first time the scope is timed
+    private final LatencyHistogram[] histograms = new LatencyHistogram[MAX_SCOPES];
+
+    private long tickCount = 0;
+
+    // The tick being recorded for the flight recorder, and the game tick it began in
+    private GameEvents.Tick tickEvent;
+    private long eventTick;
+
+    /**
+     * Get the id of a scope of the tick, such as a subsystem, making it the
+     * first time it is asked for.
+     *
+     * @param name the name of the scope.
+     * @return the id of the scope.
+     */
+    public static int scope(String name) {
+        return register(name, false);
+    }
+
+    /**
+     * Get the id of a scope timing one kind of entity, making it the first time
+     * it is asked for. These are listed apart from the other scopes.
+     *
+     * @param name the name of the kind of entity.
+     * @return the id of the scope.
+     */
+    public static int entityScope(String name) {
+        return register(name, true);
+    }
+
+    private static synchronized int register(String name, boolean entity) {
+        Integer id = SCOPE_IDS.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (scopeCount == MAX_SCOPES) {
+            throw new IllegalStateException("Too many profiler scopes");
+        }
+        SCOPE_NAMES[scopeCount] = name;
+        ENTITY_SCOPES[scopeCount] = entity;
+        SCOPE_IDS.put(name, scopeCount);
+        return scopeCount++;
+    }
+
+    /**
+     * Turn timing on or off. Timing starts afresh when turned on.
+     *
+     * @param enabled whether scopes are timed.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            reset();
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Check whether scopes are being timed.
+     *
+     * @return true if timing is on.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Show or hide the overlay, timing while it shows.
+     */
+    public void toggleOverlay() {
+        overlayVisible = !overlayVisible;
+        setEnabled(overlayVisible);
+    }
+
+    /**
+     * Check whether the overlay should be drawn.
+     *
+     * @return true if the overlay is showing.
+     */
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    /**
+     * Start timing a scope.
+     *
+     * @return the start time to hand to {@link #end}, or 0 if timing is off.
+     */
+    public long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Stop timing a scope, adding the time since it began to this tick.
+     *
+     * @param scope the id of the scope.
+     * @param start the time returned by {@link #begin()}.
+     */
+    public void end(int scope, long start) {
+        if (start == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (tickNanos[scope] == 0) {
+            touched[touchedCount++] = scope;
+        }
+        // Keep the scope marked as touched even if no time could be measured
+        tickNanos[scope] += Math.max(1, elapsed);
+    }
+
+    /**
+     * Closes off the tick since the last call and starts the next.
+     *
+     * @param i the current game tick.
+     */
+    @Override
+    public void onTick(long i) {
+        if (tickEvent != null) {
+            GameEvents.endTick(tickEvent, eventTick);
+        }
+        endTick();
+        tickEvent = GameEvents.beginTick();
+        eventTick = i;
+    }
+
+    /**
+     * Put the time each scope took this tick into its histogram. Called from
+     * {@link #onTick} every game tick.
+     */
+    public void endTick() {
+        if (touchedCount == 0) {
+            return;
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            int scope = touched[i];
+            if (histograms[scope] == null) {
+                histograms[scope] = new LatencyHistogram();
+            }
+            histograms[scope].record(tickNanos[scope]);
+            tickNanos[scope] = 0;
+        }
+        touchedCount = 0;
+        tickCount++;
+    }
+
+    /**
+     * Forget every time recorded.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            if (histogram != null) {
+                histogram.reset();
+            }
+        }
+        Arrays.fill(tickNanos, 0);
+        touchedCount = 0;
+        tickCount = 0;
+    }
+
+    /**
+     * Get the number of ticks timed since timing started.
+     *
+     * @return the number of ticks.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Get the time per tick of a scope.
+     *
+     * @param scope the id of the scope.
+     * @return the histogram of the scope's time per tick, in nanoseconds, or
+     * null if it has not been timed.
+     */
+    public LatencyHistogram getHistogram(int scope) {
+        return histograms[scope];
+    }
+
+    /**
+     * Get the subsystem scopes taking the most time per tick on average.
+     *
+     * @param count the most scopes to list.
+     * @return the scopes, slowest first.
+     */
+    public List<Summary> getTopScopes(int count) {
+        return slowest(false, count);
+    }
+
+    /**
+     * Get the kinds of entity taking the most time per tick on average.
+     *
+     * @param count the most kinds to list.
+     * @return the kinds of entity, slowest first.
+     */
+    public List<Summary> getSlowestEntityTypes(int count) {
+        return slowest(true, count);
+    }
+
+    private List<Summary> slowest(boolean entities, int count) {
+        List<Summary> summaries = new ArrayList<>();
+        for (int scope = 0; scope < MAX_SCOPES; scope++) {
+            LatencyHistogram histogram = histograms[scope];
+            if (histogram != null && histogram.getCount() > 0 && ENTITY_SCOPES[scope] == entities) {
+                summaries.add(new Summary(SCOPE_NAMES[scope], histogram));
+            }
+        }
+        summaries.sort(Comparator.comparingDouble((Summary summary) -> -summary.meanNanos));
+        return summaries.size() > count ? summaries.subList(0, count) : summaries;
+    }
+
+    /**
+     * Get the text of the overlay, the slowest subsystems then the slowest
+     * kinds of entity, with their mean and 99th percentile time per tick.
+     *
+     * @return the lines of the overlay.
+     */
+    public List<String> getOverlayLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "Profiler, %d ticks (mean / p99 ms)", tickCount));
+        addLines(lines, "Subsystems", getTopScopes(OVERLAY_LINES));
+        addLines(lines, "Entities", getSlowestEntityTypes(OVERLAY_LINES));
+        return lines;
+    }
+
+    private static void addLines(List<String> lines, String heading, List<Summary> summaries) {
+        lines.add(heading);
+        for (Summary summary : summaries) {
+            lines.add(String.format(Locale.ROOT, "  %-20s %7.3f / %7.3f", summary.name,
+                    summary.meanNanos / 1e6, summary.p99Nanos / 1e6));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package deco2800.skyfall.managers;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Test the tick profiler adds up scopes per tick and lists the slowest.
+ */
+public class TickProfilerTest {
+
+    private static final int FAST = TickProfiler.scope("test.fast");
+    private static final int SLOW = TickProfiler.scope("test.slow");
+    private static final int ENTITY = TickProfiler.entityScope("TestEntity");
+
+    private TickProfiler profiler;
+
+    @Before
+    public void setUp() {
+        profiler = new TickProfiler();
+    }
+
+    /**
+     * Spin until the clock has moved on by at least some nanoseconds.
+     */
+    private static void busy(long nanos) {
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < nanos) {
+            // Wait
+        }
+    }
+
+    /**
+     * Test each game tick closes off the time since the last one.
+     */
+    @Test
+    public void onTickTest() {
+        profiler.setEnabled(true);
+        profiler.onTick(0);
+        Assert.assertEquals(0, profiler.getTickCount());
+
+        for (int tick = 1; tick <= 2; tick++) {
+            long start = profiler.begin();
+            busy(1000);
+            profiler.end(FAST, start);
+            profiler.onTick(tick);
+        }
+        Assert.assertEquals(2, profiler.getTickCount());
+        Assert.assertEquals(2, profiler.getHistogram(FAST).getCount());
+    }
+
+    /**
+     * Test scopes are only timed while the profiler is on.
+     */
+    @Test
+    public void disabledTest() {
+        Assert.assertEquals(0, profiler.begin());
+        profiler.end(FAST, profiler.begin());
+        profiler.endTick();
+        Assert.assertNull(profiler.getHistogram(FAST));
+        Assert.assertEquals(0, profiler.getTickCount());
+    }
+
+    /**
+     * Test the time in a scope is added up over a tick and recorded once.
+     */
+    @Test
+    public void perTickTest() {
+        profiler.setEnabled(true);
+        for (int tick = 0; tick < 3; tick++) {
+            for (int call = 0; call < 4; call++) {
+                long start = profiler.begin();
+                busy(1000);
+                profiler.end(FAST, start);
+            }
+            profiler.endTick();
+        }
+
+        Assert.assertEquals(3, profiler.getTickCount());
+        Assert.assertEquals(3, profiler.getHistogram(FAST).getCount());
+        Assert.assertTrue(profiler.getHistogram(FAST).getMean() >= 4000);
+
+        // Turning timing back on starts afresh
+        profiler.setEnabled(false);
+        profiler.setEnabled(true);
+        Assert.assertEquals(0, profiler.getHistogram(FAST).getCount());
+    }
+
+    /**
+     * Test the overlay lists subsystems and entities apart, slowest first.
+     */
+    @Test
+    public void overlayTest() {
+        profiler.toggleOverlay();
+        Assert.assertTrue(profiler.isOverlayVisible());
+        Assert.assertTrue(profiler.isEnabled());
+
+        long start = profiler.begin();
+        busy(1000);
+        profiler.end(FAST, start);
+        start = profiler.begin();
+        busy(100_000);
+        profiler.end(SLOW, start);
+        start = profiler.begin();
+        profiler.end(ENTITY, start);
+        profiler.endTick();
+
+        List<TickProfiler.Summary> top = profiler.getTopScopes(1);
+        Assert.assertEquals(1, top.size());
+        Assert.assertEquals("test.slow", top.get(0).getName());
+        Assert.assertEquals(2, profiler.getTopScopes(5).size());
+        Assert.assertEquals("TestEntity", profiler.getSlowestEntityTypes(5).get(0).getName());
+
+        List<String> lines = profiler.getOverlayLines();
+        Assert.assertTrue(lines.get(2).contains("test.slow"));
+        Assert.assertTrue(lines.get(lines.size() - 1).contains("TestEntity"));
+
+        profiler.toggleOverlay();
+        Assert.assertFalse(profiler.isEnabled());
+    }
+}
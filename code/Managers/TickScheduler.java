@@ -0,0 +1,183 @@
+package deco2800.skyfall.managers;
+
+import deco2800.skyfall.util.LatencyHistogram;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Runs the game tick at a fixed step from the real time that has passed. The
+ * render loop hands {@link RuntimeServices#frame} the time since its last frame,
+ * which passes it on to {@link #update}. It is added to an accumulator, and a
+ * tick is run for every whole step in it. A slow frame
+ * is caught up on the next by running several ticks, so the simulation keeps to
+ * real time, but at most a set number of ticks and only while the frame's
+ * overrun budget lasts, so a long stall cannot make the game spiral.
+ *
+ * Timers in tickables add {@link #getTickMillis()} each tick rather than
+ * assuming how long a tick is. How long each tick takes to run is recorded in
+ * a histogram.
+ */
+public class TickScheduler extends AbstractManager {
+
+    // Length of a tick the game was written for
+    public static final int DEFAULT_STEP_MILLIS = 20;
+
+    // Most ticks run in one update to catch up
+    public static final int DEFAULT_MAX_CATCH_UP_STEPS = 5;
+
+    // Time one update may spend running ticks before it stops catching up
+    public static final long DEFAULT_OVERRUN_BUDGET_NANOS = 50_000_000L;
+
+    private int stepMillis = DEFAULT_STEP_MILLIS;
+    private long stepNanos = DEFAULT_STEP_MILLIS * 1_000_000L;
+    private int maxCatchUpSteps = DEFAULT_MAX_CATCH_UP_STEPS;
+    private long overrunBudgetNanos = DEFAULT_OVERRUN_BUDGET_NANOS;
+
+    // Real time not yet run as ticks
+    private long accumulatorNanos = 0;
+
+    // Number of the next tick to run
+    private long nextTick = 0;
+
+    // Real time passed in the last update
+    private long frameNanos = 0;
+
+    // Ticks skipped because catching up was cut short, since the scheduler was made
+    private long droppedTicks = 0;
+
+    private final LatencyHistogram tickDurations = new LatencyHistogram();
+
+    /**
+     * Set the length of a tick.
+     *
+     * @param stepMillis the length of a tick, in milliseconds.
+     */
+    public void setStepMillis(int stepMillis) {
+        if (stepMillis < 1) {
+            throw new IllegalArgumentException("Tick step must be at least a millisecond");
+        }
+        this.stepMillis = stepMillis;
+        this.stepNanos = stepMillis * 1_000_000L;
+    }
+
+    /**
+     * Set how far the scheduler catches up after a slow frame.
+     *
+     * @param maxCatchUpSteps    the most ticks run in one update.
+     * @param overrunBudgetNanos the time one update may spend running ticks.
+     */
+    public void setCatchUpLimits(int maxCatchUpSteps, long overrunBudgetNanos) {
+        if (maxCatchUpSteps < 1 || overrunBudgetNanos < 0) {
+            throw new IllegalArgumentException("Invalid catch up limits");
+        }
+        this.maxCatchUpSteps = maxCatchUpSteps;
+        this.overrunBudgetNanos = overrunBudgetNanos;
+    }
+
+    /**
+     * Run the ticks due after some real time has passed.
+     *
+     * @param elapsedNanos the real time since the last update, in nanoseconds.
+     * @param tick         runs one tick, given the tick number.
+     * @return the number of ticks run.
+     */
+    public int update(long elapsedNanos, LongConsumer tick) {
+        frameNanos = Math.max(0, elapsedNanos);
+        accumulatorNanos += frameNanos;
+
+        long start = System.nanoTime();
+        int steps = 0;
+        while (accumulatorNanos >= stepNanos) {
+            if (steps == maxCatchUpSteps || (steps > 0 && System.nanoTime() - start > overrunBudgetNanos)) {
+                // Give up on the time we cannot catch up on, keeping the part tick
+                long behind = accumulatorNanos / stepNanos;
+                droppedTicks += behind;
+                accumulatorNanos -= behind * stepNanos;
+                break;
+            }
+
+            runTick(tick);
+
+            accumulatorNanos -= stepNanos;
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Run a number of ticks back to back without waiting for real time, e.g. to
+     * step a headless simulation as fast as it will go.
+     *
+     * @param count the number of ticks to run.
+     * @param tick  runs one tick, given the tick number.
+     */
+    public void runTicks(int count, LongConsumer tick) {
+        for (int n = 0; n < count; n++) {
+            runTick(tick);
+        }
+    }
+
+    /**
+     * Run the next tick, timing it.
+     */
+    private void runTick(LongConsumer tick) {
+        long tickStart = System.nanoTime();
+        tick.accept(nextTick++);
+        tickDurations.record(System.nanoTime() - tickStart);
+    }
+
+    /**
+     * Get the game time a tick covers. Timers should add this every tick.
+     *
+     * @return the length of a tick, in milliseconds.
+     */
+    public int getTickMillis() {
+        return stepMillis;
+    }
+
+    /**
+     * Get the real time that passed before the last update.
+     *
+     * @return the last frame time, in nanoseconds.
+     */
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+
+    /**
+     * Get how far the accumulated time is into the next tick, e.g. to
+     * interpolate rendering between ticks.
+     *
+     * @return the fraction of a tick, from 0 to 1.
+     */
+    public float getAlpha() {
+        return (float) accumulatorNanos / stepNanos;
+    }
+
+    /**
+     * Get the number of the next tick to run.
+     *
+     * @return the next tick number.
+     */
+    public long getNextTick() {
+        return nextTick;
+    }
+
+    /**
+     * Get the number of ticks skipped because catching up was cut short.
+     *
+     * @return the number of dropped ticks.
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    /**
+     * Get the histogram of how long ticks took to run.
+     *
+     * @return the tick duration histogram, in nanoseconds.
+     */
+    public LatencyHistogram getTickDurations() {
+        return tickDurations;
+    }
+}
@@ -0,0 +1,93 @@
+package deco2800.skyfall.managers;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test the fixed step tick scheduler.
+ */
+public class TickSchedulerTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    private TickScheduler scheduler;
+    private List<Long> ticks;
+
+    @Before
+    public void setUp() {
+        scheduler = new TickScheduler();
+        ticks = new ArrayList<>();
+    }
+
+    /**
+     * Test ticks run once per whole step of real time, carrying the remainder.
+     */
+    @Test
+    public void fixedStepTest() {
+        Assert.assertEquals(0, scheduler.update(15 * MILLI, ticks::add));
+        Assert.assertEquals(1, scheduler.update(15 * MILLI, ticks::add));
+        Assert.assertEquals(0.5f, scheduler.getAlpha(), 0.001f);
+        Assert.assertEquals(2, scheduler.update(30 * MILLI, ticks::add));
+
+        Assert.assertEquals(3, ticks.size());
+        Assert.assertEquals(2L, (long) ticks.get(2));
+        Assert.assertEquals(20, scheduler.getTickMillis());
+        Assert.assertEquals(3, scheduler.getTickDurations().getCount());
+    }
+
+    /**
+     * Test a stall is only caught up on up to the step limit.
+     */
+    @Test
+    public void catchUpLimitTest() {
+        scheduler.setCatchUpLimits(3, Long.MAX_VALUE);
+        Assert.assertEquals(3, scheduler.update(205 * MILLI, ticks::add));
+        Assert.assertEquals(7, scheduler.getDroppedTicks());
+        Assert.assertEquals(0.25f, scheduler.getAlpha(), 0.001f);
+
+        Assert.assertEquals(1, scheduler.update(15 * MILLI, ticks::add));
+    }
+
+    /**
+     * Test catching up stops once the overrun budget is spent.
+     */
+    @Test
+    public void overrunBudgetTest() {
+        scheduler.setCatchUpLimits(10, 0);
+        Assert.assertEquals(1, scheduler.update(100 * MILLI, tick -> {
+            long start = System.nanoTime();
+            while (System.nanoTime() == start) {
+                // Make sure the tick takes some time
+            }
+        }));
+        Assert.assertEquals(4, scheduler.getDroppedTicks());
+    }
+
+    /**
+     * Test the tick length can be changed.
+     */
+    @Test
+    public void stepLengthTest() {
+        scheduler.setStepMillis(10);
+        Assert.assertEquals(10, scheduler.getTickMillis());
+        Assert.assertEquals(4, scheduler.update(40 * MILLI, ticks::add));
+    }
+
+    /**
+     * Test ticks can be run back to back, carrying on the tick numbers.
+     */
+    @Test
+    public void runTicksTest() {
+        scheduler.update(20 * MILLI, ticks::add);
+        scheduler.runTicks(100, ticks::add);
+
+        Assert.assertEquals(101, ticks.size());
+        Assert.assertEquals(100L, (long) ticks.get(100));
+        Assert.assertEquals(101, scheduler.getNextTick());
+        Assert.assertEquals(0, scheduler.getDroppedTicks());
+    }
+}
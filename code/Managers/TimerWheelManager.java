@@ -0,0 +1,265 @@
+package deco2800.skyfall.managers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fires callbacks a number of ticks from now, so entities do not have to count
+ * down their own timers every tick. Timers are kept in a hashed wheel: a ring
+ * of slots, one per tick, with each timer linked into the slot its deadline
+ * falls in. Each tick only the current slot is visited, so the cost of a tick
+ * depends on the timers in that slot rather than on every timer alive.
+ *
+ * An entity makes a {@link Timer} once for each countdown it has, then
+ * schedules, reschedules and cancels it as needed. A timer fires once each time
+ * it is scheduled.
+ */
+public class TimerWheelManager extends TickableManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerWheelManager.class);
+
+    // Number of slots in the wheel, a power of two
+    public static final int DEFAULT_SLOTS = 512;
+
+    /**
+     * A callback that can be scheduled on the wheel.
+     */
+    public static final class Timer {
+        private final Runnable callback;
+        private long deadline;
+        private boolean pending;
+
+        // Taken off the wheel to fire this tick, but not fired yet
+        private boolean firing;
+
+        // Neighbours in the slot list
+        private Timer previous;
+        private Timer next;
+
+        private Timer(Runnable callback) {
+            this.callback = callback;
+        }
+
+        /**
+         * Get whether this timer is scheduled and has not fired yet.
+         *
+         * @return whether the timer is pending.
+         */
+        public boolean isPending() {
+            return pending || firing;
+        }
+
+        /**
+         * Get the wheel tick this timer fires on, if it is pending.
+         *
+         * @return the deadline of the timer.
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+
+    private final Timer[] slots;
+    private final int mask;
+
+    // Number of ticks the wheel has advanced
+    private long now = 0;
+
+    private int pendingCount = 0;
+
+    // Timers due this tick, reused every tick
+    private final List<Timer> due = new ArrayList<>();
+
+    /**
+     * Creates a wheel with {@link #DEFAULT_SLOTS} slots.
+     */
+    public TimerWheelManager() {
+        this(DEFAULT_SLOTS);
+    }
+
+    /**
+     * Creates a wheel with the given number of slots. Timers further away than
+     * the number of slots still work, but are passed over once per lap.
+     *
+     * @param slots the number of slots, a power of two.
+     */
+    public TimerWheelManager(int slots) {
+        if (slots < 1 || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("Timer wheel size must be a power of two");
+        }
+        this.slots = new Timer[slots];
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Make a timer that runs a callback when it fires. The timer is not
+     * scheduled until {@link #schedule(Timer, long)} is called.
+     *
+     * @param callback runs on the game thread when the timer fires.
+     * @return the new timer.
+     */
+    public Timer newTimer(Runnable callback) {
+        return new Timer(callback);
+    }
+
+    /**
+     * Run a callback once, a number of ticks from now.
+     *
+     * @param delayTicks the number of ticks to wait, at least 1.
+     * @param callback   runs on the game thread when the timer fires.
+     * @return the scheduled timer, which can be cancelled.
+     */
+    public Timer schedule(long delayTicks, Runnable callback) {
+        Timer timer = newTimer(callback);
+        schedule(timer, delayTicks);
+        return timer;
+    }
+
+    /**
+     * Schedule a timer a number of ticks from now. A pending timer is moved to
+     * the new deadline.
+     *
+     * @param timer      the timer.
+     * @param delayTicks the number of ticks to wait, at least 1.
+     */
+    public void schedule(Timer timer, long delayTicks) {
+        if (timer.pending) {
+            unlink(timer);
+        }
+        timer.firing = false;
+        timer.deadline = now + Math.max(1, delayTicks);
+        link(timer);
+    }
+
+    /**
+     * Cancel a timer so that it does not fire.
+     *
+     * @param timer the timer.
+     * @return whether the timer was pending.
+     */
+    public boolean cancel(Timer timer) {
+        if (timer.firing) {
+            timer.firing = false;
+            return true;
+        }
+        if (!timer.pending) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    /**
+     * Get the number of ticks that pass before a game time is over, with the
+     * current tick length. Matches timers that count up the tick length every
+     * tick and end once they pass the time.
+     *
+     * @param millis the game time, in milliseconds.
+     * @return the number of ticks.
+     */
+    public static long ticksAfter(long millis) {
+        return millis / GameManager.getManagerFromInstance(TickScheduler.class).getTickMillis() + 1;
+    }
+
+    /**
+     * Get the number of ticks that make up a game time, with the current tick
+     * length.
+     *
+     * @param millis the game time, in milliseconds.
+     * @return the number of ticks, at least 1.
+     */
+    public static long ticksFor(long millis) {
+        return Math.max(1, millis / GameManager.getManagerFromInstance(TickScheduler.class).getTickMillis());
+    }
+
+    /**
+     * Advances the wheel by a tick.
+     *
+     * @param i the current game tick.
+     */
+    @Override
+    public void onTick(long i) {
+        advance();
+    }
+
+    /**
+     * Move the wheel on a tick and fire every timer due.
+     */
+    public void advance() {
+        now++;
+
+        // Take the due timers out first, as callbacks may schedule or cancel others
+        Timer timer = slots[(int) now & mask];
+        while (timer != null) {
+            Timer next = timer.next;
+            if (timer.deadline <= now) {
+                unlink(timer);
+                timer.firing = true;
+                due.add(timer);
+            }
+            timer = next;
+        }
+
+        for (Timer fired : due) {
+            if (!fired.firing) {
+                // Cancelled or rescheduled by an earlier callback
+                continue;
+            }
+            fired.firing = false;
+            try {
+                fired.callback.run();
+            } catch (RuntimeException e) {
+                logger.error("Timer callback failed", e);
+            }
+        }
+        due.clear();
+    }
+
+    /**
+     * Get the number of ticks the wheel has advanced.
+     *
+     * @return the current wheel tick.
+     */
+    public long getCurrentTick() {
+        return now;
+    }
+
+    /**
+     * Get the number of timers waiting to fire.
+     *
+     * @return the number of pending timers.
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    private void link(Timer timer) {
+        int slot = (int) timer.deadline & mask;
+        timer.previous = null;
+        timer.next = slots[slot];
+        if (slots[slot] != null) {
+            slots[slot].previous = timer;
+        }
+        slots[slot] = timer;
+        timer.pending = true;
+        pendingCount++;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            slots[(int) timer.deadline & mask] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.pending = false;
+        pendingCount--;
+    }
+}
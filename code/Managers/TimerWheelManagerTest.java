@@ -0,0 +1,110 @@
+package deco2800.skyfall.managers;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test timers fire on the right tick from the timer wheel.
+ */
+public class TimerWheelManagerTest {
+
+    private TimerWheelManager wheel;
+    private List<String> fired;
+
+    @Before
+    public void setUp() {
+        wheel = new TimerWheelManager(8);
+        fired = new ArrayList<>();
+    }
+
+    private void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.advance();
+        }
+    }
+
+    /**
+     * Test timers fire once on their deadline, including ones more than a lap
+     * of the wheel away.
+     */
+    @Test
+    public void fireTest() {
+        wheel.schedule(3, () -> fired.add("short"));
+        wheel.schedule(19, () -> fired.add("long"));
+        Assert.assertEquals(2, wheel.getPendingCount());
+
+        advance(2);
+        Assert.assertTrue(fired.isEmpty());
+        advance(1);
+        Assert.assertEquals(1, fired.size());
+
+        advance(15);
+        Assert.assertEquals(1, fired.size());
+        advance(1);
+        Assert.assertEquals("long", fired.get(1));
+
+        advance(20);
+        Assert.assertEquals(2, fired.size());
+        Assert.assertEquals(0, wheel.getPendingCount());
+    }
+
+    /**
+     * Test timers can be cancelled and moved.
+     */
+    @Test
+    public void cancelAndRescheduleTest() {
+        TimerWheelManager.Timer cancelled = wheel.schedule(2, () -> fired.add("cancelled"));
+        TimerWheelManager.Timer moved = wheel.newTimer(() -> fired.add("moved"));
+        wheel.schedule(moved, 2);
+
+        Assert.assertTrue(wheel.cancel(cancelled));
+        Assert.assertFalse(wheel.cancel(cancelled));
+        advance(1);
+        wheel.schedule(moved, 4);
+        Assert.assertEquals(5, moved.getDeadline());
+
+        advance(3);
+        Assert.assertTrue(fired.isEmpty());
+        Assert.assertTrue(moved.isPending());
+        advance(1);
+        Assert.assertEquals(1, fired.size());
+        Assert.assertFalse(moved.isPending());
+    }
+
+    /**
+     * Test a callback can cancel a timer due on the same tick, and reschedule
+     * its own timer.
+     */
+    @Test
+    public void callbackTest() {
+        TimerWheelManager.Timer[] timers = new TimerWheelManager.Timer[2];
+        timers[0] = wheel.newTimer(() -> {
+            fired.add("first");
+            wheel.cancel(timers[1]);
+            wheel.schedule(timers[0], 1);
+        });
+        timers[1] = wheel.newTimer(() -> fired.add("second"));
+        wheel.schedule(timers[1], 1);
+        wheel.schedule(timers[0], 1);
+
+        advance(1);
+        Assert.assertEquals(1, fired.size());
+        advance(1);
+        Assert.assertEquals(2, fired.size());
+        Assert.assertFalse(fired.contains("second"));
+    }
+
+    /**
+     * Test game times are turned into the ticks old countdown timers took.
+     */
+    @Test
+    public void ticksAfterTest() {
+        Assert.assertEquals(18, TimerWheelManager.ticksAfter(340));
+        Assert.assertEquals(21, TimerWheelManager.ticksAfter(400));
+        Assert.assertEquals(100, TimerWheelManager.ticksFor(2000));
+    }
+}
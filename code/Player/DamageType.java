@@ -0,0 +1,9 @@
+package deco2800.skyfall.entities;
+
+/**
+ * The kinds of damage an attack can deal. A combat entity's resistance
+ * attributes are indexed by the ordinal of these values.
+ */
+public enum DamageType {
+    PHYSICAL, RANGED, MAGIC, FIRE
+}
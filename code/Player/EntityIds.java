@@ -0,0 +1,36 @@
+package deco2800.skyfall.entities;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out world-unique ids for entities. Ids are never reused within a run
+ * and are handed out in order, so a run that creates entities in the same
+ * order gives them the same ids.
+ */
+public final class EntityIds {
+
+    // Ids below this are never handed out, so 0 can mean "no entity"
+    public static final long FIRST_ID = 1;
+
+    private static final AtomicLong nextId = new AtomicLong(FIRST_ID);
+
+    private EntityIds() {
+        // Static allocator only
+    }
+
+    /**
+     * Get a new id.
+     *
+     * @return an id no other entity has been given.
+     */
+    public static long next() {
+        return nextId.getAndIncrement();
+    }
+
+    /**
+     * Start handing out ids from the beginning again, for a fresh world.
+     */
+    public static void reset() {
+        nextId.set(FIRST_ID);
+    }
+}
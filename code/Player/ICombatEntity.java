@@ -1,5 +1,8 @@
 package deco2800.skyfall.entities;
 
+import deco2800.skyfall.managers.DamageManager;
+import deco2800.skyfall.managers.GameManager;
+
 /**
  * Defines an entity that participates in combat.
  * Created by chris-poli on 26/7/17.
@@ -16,6 +19,21 @@ public interface ICombatEntity extends HasHealth {
      */
     void dealDamage(MainCharacter mc);
 
+    /**
+     * Attack another ICombatEntity. The damage is queued and applied, after
+     * resistances, when the damage manager next resolves its queue.
+     *
+     * @param target the entity to attack.
+     */
+    default void dealDamage(ICombatEntity target) {
+        if (this instanceof Identifiable && target instanceof Identifiable && target instanceof AbstractEntity) {
+            GameManager.getManagerFromInstance(DamageManager.class).enqueue(((Identifiable) this).getWorldId(),
+                    (AbstractEntity) target, getDamage(), DamageType.PHYSICAL);
+        } else {
+            target.takeDamage(getDamage());
+        }
+    }
+
     /**
      * Some combat entities will only be able to be attacked.
      */
@@ -29,7 +47,9 @@ public interface ICombatEntity extends HasHealth {
     int getDamage();
 
     /**
-     * Get an array of the resistance attributes.
+     * Get an array of the resistance attributes, the percentage of each
+     * {@link DamageType} blocked, indexed by its ordinal. Missing entries block
+     * nothing. The array may be shared and must not be modified.
      *
      * @return A array containing the resistance attributes of the combat entity.
      */
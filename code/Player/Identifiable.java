@@ -0,0 +1,14 @@
+package deco2800.skyfall.entities;
+
+/**
+ * An entity with a world-unique numeric id, handed out by {@link EntityIds}.
+ */
+public interface Identifiable {
+
+    /**
+     * Get the world-unique id of this entity.
+     *
+     * @return the id of this entity.
+     */
+    long getWorldId();
+}
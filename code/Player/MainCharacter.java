@@ -1,20 +1,20 @@
 package deco2800.skyfall.entities;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Filter;
 import com.badlogic.gdx.physics.box2d.Fixture;
-import deco2800.skyfall.GameScreen;
 import deco2800.skyfall.Tickable;
 import deco2800.skyfall.animation.Animatable;
-import deco2800.skyfall.animation.AnimationLinker;
+import deco2800.skyfall.animation.AnimationTable;
 import deco2800.skyfall.animation.AnimationRole;
 import deco2800.skyfall.animation.Direction;
+import deco2800.skyfall.animation.DirectionUtil;
 import deco2800.skyfall.buildings.BuildingType;
 import deco2800.skyfall.buildings.DesertPortal;
 import deco2800.skyfall.buildings.ForestPortal;
 import deco2800.skyfall.buildings.MountainPortal;
+import deco2800.skyfall.entities.spells.Shield;
 import deco2800.skyfall.entities.spells.Spell;
 import deco2800.skyfall.entities.spells.SpellCaster;
 import deco2800.skyfall.entities.spells.SpellFactory;
@@ -37,6 +37,7 @@ import deco2800.skyfall.resources.items.Hatchet;
 import deco2800.skyfall.resources.items.PickAxe;
 import deco2800.skyfall.saving.AbstractMemento;
 import deco2800.skyfall.saving.Save;
+import deco2800.skyfall.util.GameEvents;
 import deco2800.skyfall.util.HexVector;
 import deco2800.skyfall.util.WorldUtil;
 import deco2800.skyfall.worlds.Tile;
@@ -53,7 +54,7 @@ import static deco2800.skyfall.buildings.BuildingType.*;
  * Main character in the game
  */
 public class MainCharacter extends Peon
-        implements KeyDownObserver, KeyUpObserver, TouchDownObserver, Tickable, Animatable {
+        implements KeyDownObserver, KeyUpObserver, TouchDownObserver, Tickable, Animatable, Identifiable {
 
     public static final String ANIMATION_MAIN_CHARACTER_E_ANIM_0 = "__ANIMATION_MainCharacterE_Anim:0";
     public static final String CONSTRUCTION_TABLE = "constructionTable";
@@ -64,49 +65,95 @@ public class MainCharacter extends Peon
     public static final String PICK_AXE = "Pick Axe";
     public static final String HATCHET = "Hatchet";
     private static MainCharacter mainCharacterInstance = null;
+
+    // Profiler scopes of the character's tick
+    private static final int PROFILE_CHARACTER = TickProfiler.entityScope("MainCharacter");
+    private static final int PROFILE_MOVEMENT = TickProfiler.scope("player.movement");
+    private static final int PROFILE_CAMERA = TickProfiler.scope("camera");
+    private static final int PROFILE_TIMERS = TickProfiler.scope("player.timers");
+    private static final int PROFILE_MELEE = TickProfiler.scope("player.melee");
+    private static final int PROFILE_ANIMATION = TickProfiler.scope("animation");
+    private static final int PROFILE_UI = TickProfiler.scope("ui");
     private boolean residualFromPopUp = false;
 
     /**
      * Removes the stored main character instance so that the next call to any of
      * the {@code getInstance} methods will create a new {@code MainCharacter}.
+     * The old instance leaves the {@link PlayerRegistry}.
      */
     public static void resetInstance() {
+        PlayerRegistry registry = players();
+        if (mainCharacterInstance != null && registry != null) {
+            registry.unregister(mainCharacterInstance);
+        }
         mainCharacterInstance = null;
     }
 
+    // The getInstance methods give the player of a single player game, which is
+    // registered with the PlayerRegistry when made. Games with more players
+    // create and register each MainCharacter themselves, and code working on a
+    // player should be handed it or find it through the registry.
+
     public static MainCharacter getInstance(float col, float row, float speed, String name, int health,
             String[] textures) {
         if (mainCharacterInstance == null) {
-            mainCharacterInstance = new MainCharacter(col, row, speed, name, health, textures);
+            mainCharacterInstance = register(new MainCharacter(col, row, speed, name, health, textures));
         }
         return mainCharacterInstance;
     }
 
     public static MainCharacter getInstance(float col, float row, float speed, String name, int health) {
         if (mainCharacterInstance == null) {
-            mainCharacterInstance = new MainCharacter(col, row, speed, name, health);
+            mainCharacterInstance = register(new MainCharacter(col, row, speed, name, health));
         }
         return mainCharacterInstance;
     }
 
     public static MainCharacter getInstance() {
         if (mainCharacterInstance == null) {
-            mainCharacterInstance = new MainCharacter(0, 0, 0.05f, "Main Piece", 50);
+            mainCharacterInstance = register(new MainCharacter(0, 0, 0.05f, "Main Piece", 50));
         }
         return mainCharacterInstance;
     }
 
     public static void loadMainCharacter(MainCharacterMemento memento, Save save) {
         if (mainCharacterInstance == null) {
-            mainCharacterInstance = new MainCharacter(memento, save);
+            mainCharacterInstance = register(new MainCharacter(memento, save));
         } else {
             mainCharacterInstance.load(memento);
         }
     }
 
+    /**
+     * Add a player to the world's {@link PlayerRegistry}.
+     *
+     * @param player the player.
+     * @return the player.
+     */
+    private static MainCharacter register(MainCharacter player) {
+        PlayerRegistry registry = players();
+        if (registry != null) {
+            registry.register(player);
+        }
+        return player;
+    }
+
+    /**
+     * Get the players in the world. Null where the game manager is mocked out.
+     *
+     * @return the player registry.
+     */
+    private static PlayerRegistry players() {
+        return GameManager.getManagerFromInstance(PlayerRegistry.class);
+    }
+
     // The id of the character for storing in a database
     private long id;
 
+    // World-unique id of the character while the game runs. Not saved, as
+    // the entities it was unique among are not saved either
+    private final long worldId = EntityIds.next();
+
     /**
      * Sets the save of the main character
      *
@@ -176,8 +223,20 @@ public class MainCharacter extends Peon
     // Level/point system for the Main Character to be recorded as game goes on
     private int level;
 
-    // Amount of time reviving to update health
-    private int revive;
+    // Game time the hurt, recovery and death before game over last
+    private static final long HURT_MILLIS = 400;
+    private static final long RECOVER_MILLIS = 1000;
+    private static final long DEATH_MILLIS = 500;
+
+    // Game time between each point of health restored while alive
+    private static final long REVIVE_MILLIS = 100L * TickScheduler.DEFAULT_STEP_MILLIS;
+
+    // Timers on the world timer wheel, made on first use
+    private TimerWheelManager.Timer hurtTimer;
+    private TimerWheelManager.Timer recoverTimer;
+    private TimerWheelManager.Timer deathTimer;
+    private TimerWheelManager.Timer manaTimer;
+    private TimerWheelManager.Timer reviveTimer;
 
     /*
      * Food is from 100 to 0 and goes down as the Player does actions such as: -
@@ -389,8 +448,7 @@ public class MainCharacter extends Peon
     private void setupHealthBar() {
         // If the health bar does not equal null, create it
         if (this.healthBar != null) {
-            this.healthBar = (HealthCircle) GameManager.getManagerFromInstance(GameMenuManager.class)
-                    .getUIElement("healthCircle");
+            this.healthBar = (HealthCircle) services().getUi().getUIElement("healthCircle");
         }
     }
 
@@ -398,15 +456,11 @@ public class MainCharacter extends Peon
      * Set up the game over screen.
      */
     private void setupGameOverScreen() {
-        // If the gameMenuManager does not equal null, create the game over screen
         // The GUI PopUp for the character
-        GameMenuManager gameMenuManager = GameManager.getManagerFromInstance(GameMenuManager.class);
-        if (gameMenuManager != null) {
-            gameMenuManager.hideOpened();
-            gameMenuManager.setPopUp("gameOverTable");
-            gameMenuManager.getPopUp("gameOverTable");
-            logger.info("Game Over");
-        }
+        RuntimeServices.Ui ui = services().getUi();
+        ui.hideOpened();
+        ui.showPopUp("gameOverTable");
+        logger.info("Game Over");
     }
 
     /**
@@ -577,23 +631,25 @@ public class MainCharacter extends Peon
 
         // Add the projectile entity to the game world.
         GameManager.get().getWorld().addEntity(currentProjectile);
+        GameEvents.projectileFired(equippedItem.getName(), currentAttackIsMelee, range);
 
         // Play weapon attackEntity sound
+        RuntimeServices.Audio audio = services().getAudio();
         switch ((equippedItem).getName()) {
         case SWORD:
-            SoundManager.playSound(SWORD);
+            audio.play(SWORD);
             break;
         case SPEAR:
-            SoundManager.playSound(SPEAR);
+            audio.play(SPEAR);
             break;
         case BOW:
-            SoundManager.playSound(BOWATTACK);
+            audio.play(BOWATTACK);
             break;
         case AXE:
-            SoundManager.playSound(AXEATTACK);
+            audio.play(AXEATTACK);
             break;
         default:
-            SoundManager.playSound(HURT_SOUND_NAME);
+            audio.play(HURT_SOUND_NAME);
             break;
         }
 
@@ -611,12 +667,17 @@ public class MainCharacter extends Peon
 
         // Create the spell using the factory.
         Spell spell = SpellFactory.createSpell(spellType, mousePosition);
+        if (spell instanceof Shield) {
+            ((Shield) spell).setCaster(this);
+        }
 
-        String spellName = spellType.name();
-        logger.info("Spell Case: {}", spellName);
+        GameManager.getManagerFromInstance(CombatEventLog.class).record(CombatEventLog.Type.SPELL_CAST, worldId, 0,
+                spellType.ordinal());
 
         int manaCost = spell.getManaCost();
 
+        GameEvents.spellCast(spellType, manaCost, mana >= manaCost);
+
         // Check if there is enough mana to attack.
         if (mana < manaCost) {
             return;
@@ -701,6 +762,8 @@ public class MainCharacter extends Peon
         // If the player isn't recovering, set hurt
         // and change health/animations
         if (!isRecovering) {
+            GameManager.getManagerFromInstance(CombatEventLog.class).record(CombatEventLog.Type.HURT, 0, worldId,
+                    damage);
             setHurt(true);
             changeHealth(-damage);
             updateHealth();
@@ -708,12 +771,15 @@ public class MainCharacter extends Peon
 
             // Check if player died and run kill method
             if (this.getHealth() < 1) {
-                logger.info("Player died.");
+                GameManager.getManagerFromInstance(CombatEventLog.class).record(CombatEventLog.Type.DEATH, 0,
+                        worldId, 0);
                 kill();
             } else {
                 hurtTime = 0;
                 recoverTime = 0;
-                SoundManager.playSound(HURT_SOUND_NAME);
+                timers().schedule(hurtTimer, TimerWheelManager.ticksAfter(HURT_MILLIS));
+                GameManager.getManagerFromInstance(SoundEventBus.class).request(HURT_SOUND_NAME,
+                        SoundEventBus.PRIORITY_HIGH);
 
                 if (hurtTime >= 400) {
                     setRecovering(true);
@@ -723,20 +789,32 @@ public class MainCharacter extends Peon
     }
 
     /**
-     * Checks if the players hurt is over
+     * Checks if the players hurt is over. The hurt timer ends the hurt on its
+     * own, this counts it down by hand.
      */
     public void checkIfHurtEnded() {
-        hurtTime += 20; // playerHurt for 1 second
+        hurtTime += GameManager.getManagerFromInstance(TickScheduler.class).getTickMillis(); // playerHurt for 1 second
 
-        if (hurtTime > 400) {
-            logger.info("Hurt ended");
-            setHurt(false);
-            setRecovering(true);
-            setTexChanging(true);
-            hurtTime = 0;
+        if (hurtTime > HURT_MILLIS) {
+            endHurt();
         }
     }
 
+    /**
+     * End the player's hurt and start them recovering.
+     */
+    private void endHurt() {
+        GameManager.getManagerFromInstance(CombatEventLog.class).record(CombatEventLog.Type.HURT_ENDED, 0,
+                worldId, 0);
+        setHurt(false);
+        setRecovering(true);
+        setTexChanging(true);
+        changeCollideability(false);
+        hurtTime = 0;
+        recoverTime = 0;
+        timers().schedule(recoverTimer, TimerWheelManager.ticksAfter(RECOVER_MILLIS));
+    }
+
     /**
      * Helper function to update healthBar outside of class.
      */
@@ -770,19 +848,73 @@ public class MainCharacter extends Peon
     }
 
     /**
-     * Check if player has recovered
+     * Check if player has recovered. The recover timer ends the recovery on its
+     * own, this counts it down by hand.
      */
     public void checkIfRecovered() {
-        recoverTime += 20;
+        recoverTime += GameManager.getManagerFromInstance(TickScheduler.class).getTickMillis();
         this.changeCollideability(false);
 
-        if (recoverTime > 1000) {
-            logger.info("Recovered");
-            setRecovering(false);
-            setTexChanging(false);
-            changeCollideability(true);
-            recoverTime = 0;
+        if (recoverTime > RECOVER_MILLIS) {
+            endRecovery();
+        }
+    }
+
+    /**
+     * End the player's recovery so they can be hurt again.
+     */
+    private void endRecovery() {
+        GameManager.getManagerFromInstance(CombatEventLog.class).record(CombatEventLog.Type.RECOVERED, 0,
+                worldId, 0);
+        timers().cancel(recoverTimer);
+        setRecovering(false);
+        setTexChanging(false);
+        changeCollideability(true);
+        recoverTime = 0;
+    }
+
+    /**
+     * Get the timer wheel, making this character's timers the first time.
+     *
+     * @return the timer wheel.
+     */
+    private TimerWheelManager timers() {
+        TimerWheelManager wheel = GameManager.getManagerFromInstance(TimerWheelManager.class);
+        if (hurtTimer == null) {
+            hurtTimer = wheel.newTimer(this::endHurt);
+            recoverTimer = wheel.newTimer(this::endRecovery);
+            deathTimer = wheel.newTimer(() -> GameManager.setPaused(true));
+            manaTimer = wheel.newTimer(this::regenerateMana);
+            reviveTimer = wheel.newTimer(this::regenerateHealth);
+        }
+        return wheel;
+    }
+
+    /**
+     * Restore mana and wait for the next restore.
+     */
+    private void regenerateMana() {
+        restoreMana();
+        timers().schedule(manaTimer, manaCooldownTicks());
+    }
+
+    /**
+     * Get the ticks between mana restores. The cooldown is counted in ticks of
+     * the default length, so the mana rate does not change with the tick length.
+     */
+    private long manaCooldownTicks() {
+        return TimerWheelManager.ticksAfter((long) totalManaCooldown * TickScheduler.DEFAULT_STEP_MILLIS);
+    }
+
+    /**
+     * Restore a point of health while alive and wait for the next restore.
+     */
+    private void regenerateHealth() {
+        if (!this.isDead()) {
+            changeHealth(1);
+            updateHealth();
         }
+        timers().schedule(reviveTimer, TimerWheelManager.ticksFor(REVIVE_MILLIS));
     }
 
     /**
@@ -790,9 +922,11 @@ public class MainCharacter extends Peon
      * any actions in game anymore. Once game is retried, quests are reset.
      */
     public void kill() {
-        SoundManager.playSound(DIED_SOUND_NAME);
+        GameManager.getManagerFromInstance(SoundEventBus.class).request(DIED_SOUND_NAME,
+                SoundEventBus.PRIORITY_HIGH);
         setCurrentState(AnimationRole.DEAD);
         deadTime = 0;
+        timers().schedule(deathTimer, TimerWheelManager.ticksAfter(DEATH_MILLIS));
         setDead(true);
 
         // Show game over screen
@@ -812,6 +946,15 @@ public class MainCharacter extends Peon
     @SuppressWarnings("WeakerAccess")
     public void setHurt(boolean isHurt) {
         this.isHurt = isHurt;
+        // Make sure a hurt started from outside also ends
+        if (isHurt) {
+            TimerWheelManager wheel = timers();
+            if (!hurtTimer.isPending()) {
+                wheel.schedule(hurtTimer, TimerWheelManager.ticksAfter(HURT_MILLIS));
+            }
+        } else if (hurtTimer != null) {
+            timers().cancel(hurtTimer);
+        }
     }
 
     /**
@@ -874,22 +1017,22 @@ public class MainCharacter extends Peon
     public void notifyTouchDown(int screenX, int screenY, int pointer, int button) {
         // only allow left clicks to move player
 
-        if (GameScreen.getIsPaused()) {
+        RuntimeServices services = services();
+        if (services.getUi().isPaused()) {
             return;
         }
 
         // Check if player wants to place a building
         if (button == 0) {
 
-            float[] mouse = WorldUtil.screenToWorldCoordinates(Gdx.input.getX(), Gdx.input.getY());
+            float[] mouse = services.getInput().getPointer();
             float[] clickedPosition = WorldUtil.worldCoordinatesToColRow(mouse[0], mouse[1]);
 
-            // Check we have permission to build
-            if (toBuild) {
-                GameMenuManager gmm = GameManager.getManagerFromInstance(GameMenuManager.class);
+            // Check we have permission to build, and a construction table to build from
+            ConstructionTable bs = (ConstructionTable) services.getUi().getPopUp(CONSTRUCTION_TABLE);
+            if (toBuild && bs != null) {
                 QuestManager qm = GameManager.getManagerFromInstance(QuestManager.class);
 
-                ConstructionTable bs = (ConstructionTable) gmm.getPopUp(CONSTRUCTION_TABLE);
                 bs.build(GameManager.get().getWorld(), (int) clickedPosition[0], (int) clickedPosition[1]);
                 qm.addBuilding(bs.selectBuilding(bs.getBuildingID(), 0, 0).getBuildingType());
                 toBuild = false;
@@ -963,77 +1106,82 @@ public class MainCharacter extends Peon
      */
     @Override
     public void onTick(long i) {
+        TickProfiler profiler = GameManager.getManagerFromInstance(TickProfiler.class);
+        long tickStart = profiler.begin();
+
+        long start = profiler.begin();
         onTickNotPaused();
         this.movementSound();
+        profiler.end(PROFILE_MOVEMENT, start);
+
+        start = profiler.begin();
         this.centreCameraAuto();
+        profiler.end(PROFILE_CAMERA, start);
 
-        // Mana restoration.
-        this.manaCD++;
-        if (this.manaCD > totalManaCooldown) {
-            this.restoreMana();
+        // Mana and health restoration run on timers, started on the first tick
+        start = profiler.begin();
+        TimerWheelManager wheel = timers();
+        if (!manaTimer.isPending()) {
+            wheel.schedule(manaTimer, manaCooldownTicks());
         }
-
-        if (currentProjectile != null && !(currentProjectile.beenDestroyed) && currentAttackIsMelee) {
-            final float radius = 1.5f;
-            float currentAngle = currentProjectile.getAngle();
-            currentProjectile.setAngle(currentAngle + 12.f);
-
-            currentProjectile.setPosition((currentProjectile.getPosition()
-                    .add(new HexVector((float) (radius * Math.cos(Math.toRadians(currentAngle))),
-                            (float) (radius * Math.sin(Math.toRadians(currentAngle)))))).subtract(
-                                    new HexVector((float) (radius * Math.cos(Math.toRadians(currentAngle + 12.f))),
-                                            (float) (radius * Math.sin(Math.toRadians(currentAngle + 12.f))))));
+        if (!reviveTimer.isPending()) {
+            wheel.schedule(reviveTimer, TimerWheelManager.ticksFor(REVIVE_MILLIS));
         }
+        profiler.end(PROFILE_TIMERS, start);
 
-        if (isHurt) {
-            checkIfHurtEnded();
-        } else if (isRecovering) {
-            checkIfRecovered();
-        }
-        this.updateAnimation();
+        start = profiler.begin();
+        this.updateMeleeSwing();
+        profiler.end(PROFILE_MELEE, start);
 
-        if (isDead()) {
-            if (deadTime < 500) {
-                deadTime += 20;
-            } else {
-                GameManager.setPaused(true);
+        start = profiler.begin();
+        this.updateAnimation();
+        profiler.end(PROFILE_ANIMATION, start);
+
+        start = profiler.begin();
+        if (services().getInput().isKeyJustPressed(Input.Keys.B)) {
+            RuntimeServices.Ui ui = services().getUi();
+            ConstructionTable bs = (ConstructionTable) ui.getPopUp(CONSTRUCTION_TABLE);
+            if (bs != null) {
+                bs.updateBlueprintShopPanel();
             }
+            ui.showPopUp(CONSTRUCTION_TABLE);
         }
-
-        if (Gdx.input.isKeyJustPressed(Input.Keys.B)) {
-            GameMenuManager gmm = GameManager.getManagerFromInstance(GameMenuManager.class);
-            ConstructionTable bs = (ConstructionTable) gmm.getPopUp(CONSTRUCTION_TABLE);
-            bs.updateBlueprintShopPanel();
-            gmm.setPopUp(CONSTRUCTION_TABLE);
-        }
+        profiler.end(PROFILE_UI, start);
 
         // After death, check if health is restored after restart
         if (getHealth() < 1) {
             updateHealth();
         }
 
-        // Add to revive if character is not dead
-        if (!this.isDead()) {
-            revive += 1;
-        }
+        profiler.end(PROFILE_CHARACTER, tickStart);
+    }
 
-        // Revive health if character has revived for 100 ticks
-        if (revive == 100) {
-            changeHealth(1);
-            updateHealth();
-            revive = 0;
-        }
+    /**
+     * Swing the current melee attack a step further around its arc about the
+     * character. Ranged attacks fly on their own and are left alone.
+     */
+    public void updateMeleeSwing() {
+        if (currentProjectile != null && !(currentProjectile.beenDestroyed) && currentAttackIsMelee) {
+            final float radius = 1.5f;
+            float currentAngle = currentProjectile.getAngle();
+            currentProjectile.setAngle(currentAngle + 12.f);
 
+            currentProjectile.setPosition((currentProjectile.getPosition()
+                    .add(new HexVector((float) (radius * Math.cos(Math.toRadians(currentAngle))),
+                            (float) (radius * Math.sin(Math.toRadians(currentAngle)))))).subtract(
+                                    new HexVector((float) (radius * Math.cos(Math.toRadians(currentAngle + 12.f))),
+                                            (float) (radius * Math.sin(Math.toRadians(currentAngle + 12.f))))));
+        }
     }
 
     private void onTickNotPaused() {
-        if (!GameScreen.getIsPaused()) {
+        if (!services().getUi().isPaused()) {
             if (residualFromPopUp) {
                 residualInputsFromPopUp();
             }
             this.updatePosition();
         } else {
-            SoundManager.stopSound(WALK_NORMAL);
+            services().getAudio().stop(WALK_NORMAL);
             getBody().setLinearVelocity(0f, 0f);
             residualFromPopUp = true;
         }
@@ -1044,9 +1192,9 @@ public class MainCharacter extends Peon
         // Put specific collision logic here
     }
 
-    private Map<Direction, String> vehicleDirection = new EnumMap<>(Direction.class);
+    private Map<Direction, String> vehicleDirection;
 
-    private Map<Direction, String> vehicleDirection2 = new EnumMap<>(Direction.class);
+    private Map<Direction, String> vehicleDirection2;
 
     private String vehicleType = null;
 
@@ -1099,12 +1247,15 @@ public class MainCharacter extends Peon
         case Input.Keys.F:
             vehicleToUse();
             break;
+        case Input.Keys.F3:
+            GameManager.getManagerFromInstance(TickProfiler.class).toggleOverlay();
+            break;
         case Input.Keys.SHIFT_LEFT:
             isSprinting = true;
             maxSpeed *= 2.f;
             break;
         case Input.Keys.SPACE:
-            float[] mouse = WorldUtil.screenToWorldCoordinates(Gdx.input.getX(), Gdx.input.getY());
+            float[] mouse = services().getInput().getPointer();
             float[] clickedPosition = WorldUtil.worldCoordinatesToSubColRow(mouse[0], mouse[1]);
             HexVector mousePosition = new HexVector(clickedPosition[0], clickedPosition[1]);
 
@@ -1165,7 +1316,8 @@ public class MainCharacter extends Peon
      */
     private void notOnVehicle() {
         AbstractVehicle vehicle = null;
-        for (AbstractEntity ve : GameManager.get().getWorld().getEntities()) {
+        EntityIndexManager entityIndex = GameManager.getManagerFromInstance(EntityIndexManager.class);
+        for (AbstractVehicle ve : entityIndex.getWithinRadius(this.getPosition(), 3, AbstractVehicle.class)) {
             if (ve instanceof Bike && ve.distance(this) < 3) {
                 vehicle = (Bike) ve;
                 ((Bike) vehicle).removeBike();
@@ -1198,19 +1350,20 @@ public class MainCharacter extends Peon
     }
 
     public void residualInputsFromPopUp() {
-        if (Gdx.input.isKeyPressed(Input.Keys.W)) {
+        RuntimeServices.Input input = services().getInput();
+        if (input.isKeyPressed(Input.Keys.W)) {
             yInput += 1;
         }
 
-        if (Gdx.input.isKeyPressed(Input.Keys.A)) {
+        if (input.isKeyPressed(Input.Keys.A)) {
             xInput += -1;
         }
 
-        if (Gdx.input.isKeyPressed(Input.Keys.S)) {
+        if (input.isKeyPressed(Input.Keys.S)) {
             yInput += -1;
         }
 
-        if (Gdx.input.isKeyPressed(Input.Keys.D)) {
+        if (input.isKeyPressed(Input.Keys.D)) {
             xInput += 1;
         }
 
@@ -1250,7 +1403,7 @@ public class MainCharacter extends Peon
             maxSpeed /= 2.f;
             break;
         case Input.Keys.SPACE:
-            SoundManager.stopSound(WALK_NORMAL);
+            services().getAudio().stop(WALK_NORMAL);
             break;
         default:
             break;
@@ -1344,10 +1497,9 @@ public class MainCharacter extends Peon
      * Pouch.
      */
     public void addClosestGoldPiece() {
-        for (AbstractEntity entity : GameManager.get().getWorld().getEntities()) {
-            if (entity instanceof GoldPiece && this.getPosition().distance(entity.getPosition()) <= 1) {
-                this.addGold((GoldPiece) entity, 1);
-            }
+        EntityIndexManager entityIndex = GameManager.getManagerFromInstance(EntityIndexManager.class);
+        for (GoldPiece gold : entityIndex.getWithinRadius(this.getPosition(), 1, GoldPiece.class)) {
+            this.addGold(gold, 1);
         }
     }
 
@@ -1400,8 +1552,7 @@ public class MainCharacter extends Peon
             valid = false;
         }
 
-        if (tile != null && (tile.getTextureName().contains("water") || tile.getTextureName().contains("lake")
-                || tile.getTextureName().contains("ocean")) && !canSwim) {
+        if (tile != null && FlowFieldManager.isWater(tile) && !canSwim) {
             valid = false;
         }
 
@@ -1508,43 +1659,20 @@ public class MainCharacter extends Peon
     }
 
     /**
-     * Converts the current players direction into a cardinal direction North,
-     * South-West, etc.
-     *
-     * @return new texture to use
+     * Turns the player to face the cardinal direction North, South-West, etc.
+     * they are heading in, from their key input or otherwise their last movement.
      */
-    private String getPlayerDirectionCardinal() {
-        double playerDirectionAngle = getPlayerDirectionAngle();
-        int playerDirectionIndex = Math.floorMod((int) Math.floor((playerDirectionAngle + 90.0) / 45), 8);
-
-        switch (playerDirectionIndex) {
-        case 0:
-            setCurrentDirection(Direction.NORTH);
-            return "North";
-        case 1:
-            setCurrentDirection(Direction.NORTH_EAST);
-            return "North-East";
-        case 2:
-            setCurrentDirection(Direction.EAST);
-            return "East";
-        case 3:
-            setCurrentDirection(Direction.SOUTH_EAST);
-            return "South-East";
-        case 4:
-            setCurrentDirection(Direction.SOUTH);
-            return "South";
-        case 5:
-            setCurrentDirection(Direction.SOUTH_WEST);
-            return "South-West";
-        case 6:
-            setCurrentDirection(Direction.WEST);
-            return "West";
-        case 7:
-            setCurrentDirection(Direction.NORTH_WEST);
-            return "North-West";
-        default:
-            return "Invalid";
+    private void updatePlayerDirection() {
+        float x = 0;
+        float y = 0;
+        if (xInput != 0 || yInput != 0) {
+            x = xInput;
+            y = yInput;
+        } else if (velHistoryX != null && velHistoryY != null && velHistoryX.size() > 1 && velHistoryY.size() > 1) {
+            x = velHistoryX.get(0);
+            y = velHistoryY.get(0);
         }
+        setCurrentDirection(DirectionUtil.playerDirection(x, y));
     }
 
     /**
@@ -1592,13 +1720,13 @@ public class MainCharacter extends Peon
         if (!isMoving && vel != 0) {
             // Runs when the player starts moving
             isMoving = true;
-            SoundManager.loopSound(WALK_NORMAL);
+            services().getAudio().loop(WALK_NORMAL);
         }
 
         if (isMoving && vel == 0) {
             // Runs when the player stops moving
             isMoving = false;
-            SoundManager.stopSound(WALK_NORMAL);
+            services().getAudio().stop(WALK_NORMAL);
         }
     }
 
@@ -1788,103 +1916,114 @@ public class MainCharacter extends Peon
      */
     @Override
     public void configureAnimations() {
-
-        // Walk animation
-        addAnimations(AnimationRole.MOVE, Direction.NORTH_WEST,
-                new AnimationLinker("MainCharacterNW_Anim",
-                        AnimationRole.MOVE, Direction.NORTH_WEST, true, true));
-
-        addAnimations(AnimationRole.MOVE, Direction.NORTH_EAST,
-                new AnimationLinker("MainCharacterNE_Anim",
-                        AnimationRole.MOVE, Direction.NORTH_WEST, true, true));
-
-        addAnimations(AnimationRole.MOVE, Direction.SOUTH_WEST,
-                new AnimationLinker("MainCharacterSW_Anim",
-                        AnimationRole.MOVE, Direction.SOUTH_WEST, true, true));
-
-        addAnimations(AnimationRole.MOVE, Direction.SOUTH_EAST,
-                new AnimationLinker("MainCharacterSE_Anim",
-                        AnimationRole.MOVE, Direction.SOUTH_EAST, true, true));
-
-        addAnimations(AnimationRole.MOVE, Direction.EAST,
-                new AnimationLinker("MainCharacterE_Anim",
-                        AnimationRole.MOVE, Direction.EAST, true, true));
-
-        addAnimations(AnimationRole.MOVE, Direction.NORTH,
-                new AnimationLinker("MainCharacterN_Anim",
-                        AnimationRole.MOVE, Direction.NORTH, true, true));
-
-        addAnimations(AnimationRole.MOVE, Direction.WEST,
-                new AnimationLinker("MainCharacterW_Anim",
-                        AnimationRole.MOVE, Direction.WEST, true, true));
-
-        addAnimations(AnimationRole.MOVE, Direction.SOUTH,
-                new AnimationLinker("MainCharacterS_Anim",
-                        AnimationRole.MOVE, Direction.SOUTH, true, true));
-
-        // Attack animation
-        addAnimations(AnimationRole.ATTACK, Direction.DEFAULT,
-                new AnimationLinker("MainCharacter_Attack_E_Anim",
-                AnimationRole.ATTACK, Direction.DEFAULT, false, true));
-
-        // Hurt animation
-        addAnimations(AnimationRole.HURT, Direction.EAST,
-                new AnimationLinker("MainCharacter_Hurt_E_Anim",
-                        AnimationRole.HURT, Direction.EAST, true, true));
-
-        addAnimations(AnimationRole.HURT, Direction.WEST,
-                new AnimationLinker("MainCharacter_Hurt_W_Anim",
-                        AnimationRole.HURT, Direction.EAST, true, true));
-
-        // Dead animation
-        addAnimations(AnimationRole.DEAD, Direction.DEFAULT,
-                new AnimationLinker("MainCharacter_Dead_E_Anim",
-                        AnimationRole.DEAD, Direction.DEFAULT, false, true));
-
-        // Dead animation
-        addAnimations(AnimationRole.STILL, Direction.DEFAULT,
-                new AnimationLinker("MainCharacter_Dead_E_Still",
-                        AnimationRole.STILL, Direction.DEFAULT, false, true));
+        for (AnimationTable.Entry entry : getAnimationTable().getEntries()) {
+            addAnimations(entry.getRole(), entry.getDirection(), entry.newLinker());
+        }
     }
 
-    private Map<Direction, String> defaultMainCharacterTextureMap = new EnumMap<>(Direction.class);
+    private Map<Direction, String> defaultMainCharacterTextureMap;
 
     /**
      * Sets default direction textures uses the get index for Animation feature as
-     * described in the animation documentation section 4.
+     * described in the animation documentation section 4. The maps are shared by
+     * every main character.
      */
     @Override
     public void setDirectionTextures() {
-
-        defaultMainCharacterTextureMap.put(Direction.EAST, ANIMATION_MAIN_CHARACTER_E_ANIM_0);
-        defaultMainCharacterTextureMap.put(Direction.NORTH, "__ANIMATION_MainCharacterN_Anim:0");
-        defaultMainCharacterTextureMap.put(Direction.WEST, "__ANIMATION_MainCharacterW_Anim:0");
-        defaultMainCharacterTextureMap.put(Direction.SOUTH, "__ANIMATION_MainCharacterS_Anim:0");
-        defaultMainCharacterTextureMap.put(Direction.NORTH_EAST, "__ANIMATION_MainCharacterNE_Anim:0");
-        defaultMainCharacterTextureMap.put(Direction.NORTH_WEST, "__ANIMATION_MainCharacterNW_Anim:0");
-        defaultMainCharacterTextureMap.put(Direction.SOUTH_EAST, "__ANIMATION_MainCharacterSE_Anim:0");
-        defaultMainCharacterTextureMap.put(Direction.SOUTH_WEST, "__ANIMATION_MainCharacterSW_Anim:0");
-        // Bike
-        vehicleDirection.put(Direction.SOUTH, "bikeSOUTH");
-        vehicleDirection.put(Direction.EAST, "bikeEAST");
-        vehicleDirection.put(Direction.NORTH, "bikeNORTH");
-        vehicleDirection.put(Direction.WEST, "bikeWEST");
-        vehicleDirection.put(Direction.NORTH_EAST, "__ANIMATION_MainCharacterNE_Anim:0");
-        vehicleDirection.put(Direction.NORTH_WEST, "__ANIMATION_MainCharacterNW_Anim:0");
-        vehicleDirection.put(Direction.SOUTH_EAST, "__ANIMATION_MainCharacterSE_Anim:0");
-        vehicleDirection.put(Direction.SOUTH_WEST, "__ANIMATION_MainCharacterSW_Anim:0");
-        // Sand Car
-        vehicleDirection2.put(Direction.NORTH, "sand_car_NORTH");
-        vehicleDirection2.put(Direction.SOUTH, "sand_car_SOUTH");
-        vehicleDirection2.put(Direction.EAST, "sand_car_EAST");
-        vehicleDirection2.put(Direction.WEST, "sand_car_WEST");
-        vehicleDirection2.put(Direction.NORTH_EAST, "sand_car_NORTHEAST");
-        vehicleDirection2.put(Direction.NORTH_WEST, "sand_car_NORTHWEST");
-        vehicleDirection2.put(Direction.SOUTH_EAST, "sand_car_SOUTHEAST");
-        vehicleDirection2.put(Direction.SOUTH_WEST, "sand_car_SOUTHWEST");
+        defaultMainCharacterTextureMap = getAnimationTable().getDirectionTextures();
+        vehicleDirection = AnimationTable.get("MainCharacterBike", MainCharacter::buildBikeTable)
+                .getDirectionTextures();
+        vehicleDirection2 = AnimationTable.get("MainCharacterSandCar", MainCharacter::buildSandCarTable)
+                .getDirectionTextures();
         defaultDirectionTextures = defaultMainCharacterTextureMap;
     }
 
+    /**
+     * Get the animation table shared by every main character.
+     *
+     * @return the main character's animation table.
+     */
+    private static AnimationTable getAnimationTable() {
+        return AnimationTable.get("MainCharacter", MainCharacter::buildAnimationTable);
+    }
+
+    /**
+     * Build the main character's walking, attack, hurt and dead animations and
+     * default textures. Only called once.
+     *
+     * @return the main character's animation table.
+     */
+    private static AnimationTable buildAnimationTable() {
+        return AnimationTable.builder()
+                // Default textures
+                .directionTexture(Direction.EAST, ANIMATION_MAIN_CHARACTER_E_ANIM_0)
+                .directionTexture(Direction.NORTH, "__ANIMATION_MainCharacterN_Anim:0")
+                .directionTexture(Direction.WEST, "__ANIMATION_MainCharacterW_Anim:0")
+                .directionTexture(Direction.SOUTH, "__ANIMATION_MainCharacterS_Anim:0")
+                .directionTexture(Direction.NORTH_EAST, "__ANIMATION_MainCharacterNE_Anim:0")
+                .directionTexture(Direction.NORTH_WEST, "__ANIMATION_MainCharacterNW_Anim:0")
+                .directionTexture(Direction.SOUTH_EAST, "__ANIMATION_MainCharacterSE_Anim:0")
+                .directionTexture(Direction.SOUTH_WEST, "__ANIMATION_MainCharacterSW_Anim:0")
+
+                // Walk animation
+                .animation("MainCharacterNW_Anim", AnimationRole.MOVE, Direction.NORTH_WEST, true, true)
+                .animation("MainCharacterNE_Anim", AnimationRole.MOVE, Direction.NORTH_WEST, true, true)
+                .animation("MainCharacterSW_Anim", AnimationRole.MOVE, Direction.SOUTH_WEST, true, true)
+                .animation("MainCharacterSE_Anim", AnimationRole.MOVE, Direction.SOUTH_EAST, true, true)
+                .animation("MainCharacterE_Anim", AnimationRole.MOVE, Direction.EAST, true, true)
+                .animation("MainCharacterN_Anim", AnimationRole.MOVE, Direction.NORTH, true, true)
+                .animation("MainCharacterW_Anim", AnimationRole.MOVE, Direction.WEST, true, true)
+                .animation("MainCharacterS_Anim", AnimationRole.MOVE, Direction.SOUTH, true, true)
+
+                // Attack animation
+                .animation("MainCharacter_Attack_E_Anim", AnimationRole.ATTACK, Direction.DEFAULT, false, true)
+
+                // Hurt animation
+                .animation("MainCharacter_Hurt_E_Anim", AnimationRole.HURT, Direction.EAST, true, true)
+                .animation("MainCharacter_Hurt_W_Anim", AnimationRole.HURT, Direction.EAST, true, true)
+
+                // Dead animation
+                .animation("MainCharacter_Dead_E_Anim", AnimationRole.DEAD, Direction.DEFAULT, false, true)
+                .animation("MainCharacter_Dead_E_Still", AnimationRole.STILL, Direction.DEFAULT, false, true)
+                .build();
+    }
+
+    /**
+     * Build the default textures used while riding a bike. Only called once.
+     *
+     * @return the bike animation table.
+     */
+    private static AnimationTable buildBikeTable() {
+        return AnimationTable.builder()
+                .directionTexture(Direction.SOUTH, "bikeSOUTH")
+                .directionTexture(Direction.EAST, "bikeEAST")
+                .directionTexture(Direction.NORTH, "bikeNORTH")
+                .directionTexture(Direction.WEST, "bikeWEST")
+                .directionTexture(Direction.NORTH_EAST, "__ANIMATION_MainCharacterNE_Anim:0")
+                .directionTexture(Direction.NORTH_WEST, "__ANIMATION_MainCharacterNW_Anim:0")
+                .directionTexture(Direction.SOUTH_EAST, "__ANIMATION_MainCharacterSE_Anim:0")
+                .directionTexture(Direction.SOUTH_WEST, "__ANIMATION_MainCharacterSW_Anim:0")
+                .build();
+    }
+
+    /**
+     * Build the default textures used while driving a sand car. Only called once.
+     *
+     * @return the sand car animation table.
+     */
+    private static AnimationTable buildSandCarTable() {
+        return AnimationTable.builder()
+                .directionTexture(Direction.NORTH, "sand_car_NORTH")
+                .directionTexture(Direction.SOUTH, "sand_car_SOUTH")
+                .directionTexture(Direction.EAST, "sand_car_EAST")
+                .directionTexture(Direction.WEST, "sand_car_WEST")
+                .directionTexture(Direction.NORTH_EAST, "sand_car_NORTHEAST")
+                .directionTexture(Direction.NORTH_WEST, "sand_car_NORTHWEST")
+                .directionTexture(Direction.SOUTH_EAST, "sand_car_SOUTHEAST")
+                .directionTexture(Direction.SOUTH_WEST, "sand_car_SOUTHWEST")
+                .build();
+    }
+
     private boolean isOnVehicle = false;
 
     /**
@@ -1892,7 +2031,7 @@ public class MainCharacter extends Peon
      * Also sets the direction
      */
     public void updateAnimation() {
-        getPlayerDirectionCardinal();
+        updatePlayerDirection();
 
         /* Short Animations */
         if (!isOnVehicle) {
@@ -1996,7 +2135,7 @@ public class MainCharacter extends Peon
     private void centreCameraAuto() {
         if (cameraLock) {
             float[] coords = WorldUtil.colRowToWorldCords(this.getCol(), this.getRow());
-            GameManager.get().getCamera().position.set(coords[0], coords[1], 0);
+            services().getCamera().moveTo(coords[0], coords[1]);
 
         }
     }
@@ -2006,7 +2145,17 @@ public class MainCharacter extends Peon
      */
     private void centreCameraManual() {
         float[] coords = WorldUtil.colRowToWorldCords(this.getCol(), this.getRow());
-        GameManager.get().getCamera().position.set(coords[0], coords[1], 0);
+        services().getCamera().moveTo(coords[0], coords[1]);
+    }
+
+    /**
+     * Get the input, camera, UI and audio the character talks to, which are
+     * stand ins when the game runs headless.
+     *
+     * @return the runtime services.
+     */
+    private static RuntimeServices services() {
+        return GameManager.getManagerFromInstance(RuntimeServices.class);
     }
 
     /**
@@ -2028,6 +2177,17 @@ public class MainCharacter extends Peon
 
     }
 
+    /**
+     * Returns the world-unique id of this character. Unlike {@link #getID()},
+     * this is not saved.
+     *
+     * @return the world id of this character
+     */
+    @Override
+    public long getWorldId() {
+        return this.worldId;
+    }
+
     /**
      * Returns the save this character is for
      *
@@ -2046,15 +2206,27 @@ public class MainCharacter extends Peon
     }
 
     public MainCharacterMemento save() {
-        return new MainCharacterMemento(this);
+        GameEvents.SaveLoad event = GameEvents.beginSaveLoad();
+        MainCharacterMemento memento = new MainCharacterMemento(this);
+        GameEvents.endSaveLoad(event, "save", "MainCharacter");
+        return memento;
     }
 
+    /**
+     * Restore the character from a save. The character keeps the world id it
+     * was given when made, so it cannot clash with an entity already in the
+     * world.
+     *
+     * @param memento the saved character.
+     */
     public void load(MainCharacterMemento memento) {
+        GameEvents.SaveLoad event = GameEvents.beginSaveLoad();
         this.id = memento.mainCharacterID;
         this.level = memento.level;
         this.foodLevel = memento.foodLevel;
         this.foodAccum = memento.foodAccum;
         this.goldPouch = memento.goldPouch;
+        GameEvents.endSaveLoad(event, "load", "MainCharacter");
     }
 
     public static class MainCharacterMemento extends AbstractMemento implements Serializable {
@@ -10,7 +10,6 @@ import deco2800.skyfall.animation.AnimationRole;
 import deco2800.skyfall.animation.Direction;
 import deco2800.skyfall.entities.weapons.Sword;
 import deco2800.skyfall.managers.*;
-import deco2800.skyfall.managers.database.DataBaseConnector;
 import deco2800.skyfall.resources.GoldPiece;
 import deco2800.skyfall.resources.Item;
 import deco2800.skyfall.resources.items.Stone;
@@ -24,26 +23,11 @@ import deco2800.skyfall.worlds.world.WorldDirector;
 
 import org.junit.*;
 import org.lwjgl.Sys;
-import org.mockito.Mock;
-
-import org.junit.runner.RunWith;
-import org.mockito.stubbing.Answer;
-import org.powermock.core.classloader.annotations.PrepareForTest;
-import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.util.HashMap;
-import java.util.Random;
 
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.*;
-import static org.powermock.api.mockito.PowerMockito.mock;
-import static org.powermock.api.mockito.PowerMockito.mockStatic;
-import static org.powermock.api.mockito.PowerMockito.when;
-import static org.powermock.api.mockito.PowerMockito.whenNew;
-
-@RunWith(PowerMockRunner.class)
-@PrepareForTest({ WorldBuilder.class, WorldDirector.class, DatabaseManager.class, DataBaseConnector.class,
-        GameManager.class })
+
 public class MainCharacterTest {
 
     private MainCharacter testCharacter;
@@ -52,9 +36,6 @@ public class MainCharacterTest {
     private InventoryManager inventoryManager;
     private World w = null;
 
-    @Mock
-    private GameManager mockGM;
-
     // A hashmap for testing player's animations
     private HashMap testMap = new HashMap();
 
@@ -63,31 +44,25 @@ public class MainCharacterTest {
      * Sets up all variables to be used for testing
      */
     public void setup() throws Exception {
-	// for giving random numbers for stats
-        Random random = new Random(0);
-        whenNew(Random.class).withAnyArguments().thenReturn(random);
-
-	// reset and instantiate new character stats after each test
-        MainCharacter.resetInstance();
-        testCharacter = MainCharacter.getInstance();
+	// run without a window, with scripted input and recording camera, UI and audio
+        GameManager.getManagerFromInstance(RuntimeServices.class).useHeadless();
 
-	// set character position to x=0 y=0
-        testTile = new Tile(null, 0f, 0f);
+	// seed the world's random streams and restart entity ids so stats are reproducible
+        EntityIds.reset();
+        GameManager.getManagerFromInstance(RandomManager.class).setSeed(0);
 
 	// build the world for character to walk on
         WorldBuilder builder = new WorldBuilder();
         WorldDirector.constructTestWorld(builder, 0);
         w = builder.getWorld();
+        GameManager.get().setWorld(w);
 
-	// mock the entire class instead of calling it directly 
-        mockGM = mock(GameManager.class);
-        mockStatic(GameManager.class);
-
-        physics = new PhysicsManager();
-        when(mockGM.getManager(PhysicsManager.class)).thenReturn(physics);
+	// reset and instantiate new character stats after each test
+        MainCharacter.resetInstance();
+        testCharacter = MainCharacter.getInstance();
 
-        when(GameManager.get()).thenReturn(mockGM);
-        when(mockGM.getWorld()).thenReturn(w);
+	// set character position to x=0 y=0
+        testTile = new Tile(null, 0f, 0f);
     }
 
     @After
@@ -294,4 +269,28 @@ public class MainCharacterTest {
         s = testCharacter.getDefaultTexture();
         Assert.assertEquals(s, "__ANIMATION_MainCharacterN_Anim:0");
     }
+
+    /**
+     * Test a loaded character keeps its own world id rather than the saved
+     * one, which another entity may already hold
+     */
+    @Test
+    public void loadWorldIdTest() {
+        MainCharacter.MainCharacterMemento memento = testCharacter.save();
+        long savedId = testCharacter.getWorldId();
+
+        // Start a new world in which another entity is given the saved id
+        EntityIds.reset();
+        for (long id = EntityIds.FIRST_ID; id < savedId; id++) {
+            EntityIds.next();
+        }
+        MainCharacter other = new MainCharacter(0f, 0f, 0.05f, "Other", 50);
+        Assert.assertEquals(savedId, other.getWorldId());
+
+        MainCharacter loaded = new MainCharacter(0f, 0f, 0.05f, "Loaded", 50);
+        long loadedId = loaded.getWorldId();
+        loaded.load(memento);
+        Assert.assertEquals(loadedId, loaded.getWorldId());
+        Assert.assertNotEquals(other.getWorldId(), loaded.getWorldId());
+    }
 }
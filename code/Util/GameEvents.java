@@ -0,0 +1,361 @@
+package deco2800.skyfall.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for what the game is doing, so GC, lock and
+ * allocation data in a recording can be lined up with ticks, spawns, deaths,
+ * damage, attacks and saves. They show under "Skyfall" in JDK Mission Control.
+ *
+ * Events are made and committed through the static methods here. Each checks
+ * whether its event is being recorded before filling in any fields, so while
+ * recording is off, or the event is turned off in the recording settings, a
+ * call costs next to nothing.
+ */
+public final class GameEvents {
+
+    private GameEvents() {
+    }
+
+    /**
+     * A game tick.
+     */
+    @Name("skyfall.Tick")
+    @Label("Tick")
+    @Category({ "Skyfall", "Tick" })
+    @StackTrace(false)
+    public static final class Tick extends Event {
+        @Label("Tick")
+        private long tick;
+    }
+
+    /**
+     * A phase of a tick, such as deciding what every enemy does.
+     */
+    @Name("skyfall.TickPhase")
+    @Label("Tick Phase")
+    @Category({ "Skyfall", "Tick" })
+    @StackTrace(false)
+    public static final class TickPhase extends Event {
+        @Label("Phase")
+        private String phase;
+
+        @Label("Tick")
+        private long tick;
+
+        @Label("Count")
+        @Description("Number of entities the phase worked on")
+        private int count;
+    }
+
+    /**
+     * An enemy spawned into the world.
+     */
+    @Name("skyfall.EnemySpawn")
+    @Label("Enemy Spawn")
+    @Category({ "Skyfall", "Enemy" })
+    @StackTrace(false)
+    public static final class EnemySpawn extends Event {
+        @Label("Enemy Type")
+        private String enemyType;
+
+        @Label("Biome")
+        private String biome;
+
+        @Label("Pooled")
+        @Description("Whether a parked enemy was reused rather than a new one built")
+        private boolean pooled;
+    }
+
+    /**
+     * An enemy died.
+     */
+    @Name("skyfall.EnemyDeath")
+    @Label("Enemy Death")
+    @Category({ "Skyfall", "Enemy" })
+    @StackTrace(false)
+    public static final class EnemyDeath extends Event {
+        @Label("Enemy Type")
+        private String enemyType;
+
+        @Label("Biome")
+        private String biome;
+    }
+
+    /**
+     * The damage a target took in one resolve of the damage queue.
+     */
+    @Name("skyfall.Damage")
+    @Label("Damage Applied")
+    @Category({ "Skyfall", "Combat" })
+    @StackTrace(false)
+    public static final class Damage extends Event {
+        @Label("Target Type")
+        private String targetType;
+
+        @Label("Damage")
+        private int damage;
+
+        @Label("Hits")
+        @Description("Number of queued hits added up into the damage")
+        private int hits;
+    }
+
+    /**
+     * The main character cast a spell.
+     */
+    @Name("skyfall.SpellCast")
+    @Label("Spell Cast")
+    @Category({ "Skyfall", "Combat" })
+    public static final class SpellCast extends Event {
+        @Label("Spell Type")
+        private String spellType;
+
+        @Label("Mana Cost")
+        private int manaCost;
+
+        @Label("Cast")
+        @Description("Whether there was enough mana for the spell to go off")
+        private boolean cast;
+    }
+
+    /**
+     * The main character fired a projectile or swung a weapon.
+     */
+    @Name("skyfall.ProjectileFired")
+    @Label("Projectile Fired")
+    @Category({ "Skyfall", "Combat" })
+    public static final class ProjectileFired extends Event {
+        @Label("Weapon")
+        private String weapon;
+
+        @Label("Melee")
+        private boolean melee;
+
+        @Label("Range")
+        private int range;
+    }
+
+    /**
+     * Saving or loading the state of an entity.
+     */
+    @Name("skyfall.SaveLoad")
+    @Label("Save or Load")
+    @Category({ "Skyfall", "Saving" })
+    public static final class SaveLoad extends Event {
+        @Label("Operation")
+        private String operation;
+
+        @Label("Entity Type")
+        private String entityType;
+    }
+
+    /**
+     * A chunk of the world became active, gaining its first living enemy.
+     */
+    @Name("skyfall.ChunkActivation")
+    @Label("Chunk Activation")
+    @Category({ "Skyfall", "World" })
+    @StackTrace(false)
+    public static final class ChunkActivation extends Event {
+        @Label("Chunk Column")
+        private long chunkCol;
+
+        @Label("Chunk Row")
+        private long chunkRow;
+
+        @Label("Biome")
+        private String biome;
+
+        @Label("Active Chunks")
+        private int activeChunks;
+    }
+
+    /**
+     * Start timing a tick.
+     *
+     * @return the event, to hand to {@link #endTick}.
+     */
+    public static Tick beginTick() {
+        Tick event = new Tick();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finish timing a tick, committing it if ticks are recorded.
+     *
+     * @param event the event from {@link #beginTick()}.
+     * @param tick  the number of the tick.
+     */
+    public static void endTick(Tick event, long tick) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = tick;
+            event.commit();
+        }
+    }
+
+    /**
+     * Start timing a phase of a tick.
+     *
+     * @return the event, to hand to {@link #endPhase}.
+     */
+    public static TickPhase beginPhase() {
+        TickPhase event = new TickPhase();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finish timing a phase of a tick, committing it if phases are recorded.
+     *
+     * @param event the event from {@link #beginPhase()}.
+     * @param phase the name of the phase.
+     * @param tick  the number of the tick.
+     * @param count the number of entities the phase worked on.
+     */
+    public static void endPhase(TickPhase event, String phase, long tick, int count) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.tick = tick;
+            event.count = count;
+            event.commit();
+        }
+    }
+
+    /**
+     * Record an enemy spawning.
+     *
+     * @param enemyType the type of the enemy.
+     * @param biome     the biome it spawned in.
+     * @param pooled    whether a parked enemy was reused.
+     */
+    public static void enemySpawned(Object enemyType, String biome, boolean pooled) {
+        EnemySpawn event = new EnemySpawn();
+        if (event.isEnabled()) {
+            event.enemyType = String.valueOf(enemyType);
+            event.biome = biome;
+            event.pooled = pooled;
+            event.commit();
+        }
+    }
+
+    /**
+     * Record an enemy dying.
+     *
+     * @param enemyType the type of the enemy.
+     * @param biome     the biome it was in.
+     */
+    public static void enemyDied(Object enemyType, String biome) {
+        EnemyDeath event = new EnemyDeath();
+        if (event.isEnabled()) {
+            event.enemyType = String.valueOf(enemyType);
+            event.biome = biome;
+            event.commit();
+        }
+    }
+
+    /**
+     * Record the damage a target took.
+     *
+     * @param target the entity hurt.
+     * @param damage the damage after resistances.
+     * @param hits   the number of hits added up into the damage.
+     */
+    public static void damageApplied(Object target, int damage, int hits) {
+        Damage event = new Damage();
+        if (event.isEnabled()) {
+            event.targetType = target.getClass().getSimpleName();
+            event.damage = damage;
+            event.hits = hits;
+            event.commit();
+        }
+    }
+
+    /**
+     * Record a spell cast.
+     *
+     * @param spellType the type of spell.
+     * @param manaCost  the mana the spell costs.
+     * @param cast      whether there was mana enough to cast it.
+     */
+    public static void spellCast(Object spellType, int manaCost, boolean cast) {
+        SpellCast event = new SpellCast();
+        if (event.isEnabled()) {
+            event.spellType = String.valueOf(spellType);
+            event.manaCost = manaCost;
+            event.cast = cast;
+            event.commit();
+        }
+    }
+
+    /**
+     * Record a projectile fired.
+     *
+     * @param weapon the name of the weapon.
+     * @param melee  whether it was a melee swing.
+     * @param range  the range of the projectile.
+     */
+    public static void projectileFired(String weapon, boolean melee, int range) {
+        ProjectileFired event = new ProjectileFired();
+        if (event.isEnabled()) {
+            event.weapon = weapon;
+            event.melee = melee;
+            event.range = range;
+            event.commit();
+        }
+    }
+
+    /**
+     * Start timing a save or load.
+     *
+     * @return the event, to hand to {@link #endSaveLoad}.
+     */
+    public static SaveLoad beginSaveLoad() {
+        SaveLoad event = new SaveLoad();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finish timing a save or load, committing it if saves are recorded.
+     *
+     * @param event      the event from {@link #beginSaveLoad()}.
+     * @param operation  "save" or "load".
+     * @param entityType the kind of entity saved or loaded.
+     */
+    public static void endSaveLoad(SaveLoad event, String operation, String entityType) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.entityType = entityType;
+            event.commit();
+        }
+    }
+
+    /**
+     * Record a chunk becoming active.
+     *
+     * @param chunkCol     the column of the chunk.
+     * @param chunkRow     the row of the chunk.
+     * @param biome        the biome of the enemy that activated it.
+     * @param activeChunks the number of active chunks afterwards.
+     */
+    public static void chunkActivated(long chunkCol, long chunkRow, String biome, int activeChunks) {
+        ChunkActivation event = new ChunkActivation();
+        if (event.isEnabled()) {
+            event.chunkCol = chunkCol;
+            event.chunkRow = chunkRow;
+            event.biome = biome;
+            event.activeChunks = activeChunks;
+            event.commit();
+        }
+    }
+}
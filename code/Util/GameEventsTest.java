@@ -0,0 +1,75 @@
+package deco2800.skyfall.util;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+public class GameEventsTest {
+
+    /**
+     * Test events are recorded with their fields while recording is on.
+     */
+    @Test
+    public void recordedTest() throws IOException {
+        Path file = Files.createTempFile("skyfall", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("skyfall.EnemySpawn");
+            recording.enable("skyfall.TickPhase").withThreshold(Duration.ZERO);
+            recording.start();
+
+            GameEvents.enemySpawned("SCOUT", "forest", true);
+            GameEvents.TickPhase phase = GameEvents.beginPhase();
+            GameEvents.endPhase(phase, "ai.decide", 7, 12);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        Assert.assertEquals(2, events.size());
+
+        RecordedEvent spawn = events.stream().filter(e -> e.getEventType().getName().equals("skyfall.EnemySpawn"))
+                .findFirst().get();
+        Assert.assertEquals("SCOUT", spawn.getString("enemyType"));
+        Assert.assertEquals("forest", spawn.getString("biome"));
+        Assert.assertTrue(spawn.getBoolean("pooled"));
+
+        RecordedEvent decide = events.stream().filter(e -> e.getEventType().getName().equals("skyfall.TickPhase"))
+                .findFirst().get();
+        Assert.assertEquals("ai.decide", decide.getString("phase"));
+        Assert.assertEquals(7, decide.getLong("tick"));
+        Assert.assertEquals(12, decide.getInt("count"));
+    }
+
+    /**
+     * Test nothing is recorded for events that are turned off.
+     */
+    @Test
+    public void disabledTest() throws IOException {
+        Path file = Files.createTempFile("skyfall", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.disable("skyfall.EnemyDeath");
+            recording.disable("skyfall.ChunkActivation");
+            recording.start();
+
+            GameEvents.enemyDied("HEAVY", "desert");
+            GameEvents.chunkActivated(1, 2, "desert", 1);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        Assert.assertTrue(events.isEmpty());
+    }
+}
@@ -0,0 +1,137 @@
+package deco2800.skyfall.util;
+
+import java.util.Arrays;
+
+/**
+ * Counts durations, in nanoseconds, into buckets so percentiles can be read
+ * without keeping every sample. Buckets double in width every sixteen
+ * buckets, so any recorded duration is off by at most about a sixteenth of
+ * itself. Recording never allocates.
+ *
+ * Not thread safe, each thread should record into its own histogram.
+ */
+public class LatencyHistogram {
+
+    // Buckets per doubling of the duration, a power of two
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    // Enough buckets to cover every positive long
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long total = 0;
+    private long max = 0;
+
+    /**
+     * Record a duration.
+     *
+     * @param nanos the duration, in nanoseconds. Negative durations count as 0.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[bucketOf(nanos)]++;
+        count++;
+        total += nanos;
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    /**
+     * Get the number of durations recorded.
+     *
+     * @return the number of samples.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the longest duration recorded.
+     *
+     * @return the longest duration, in nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Get the mean duration recorded.
+     *
+     * @return the mean duration, in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Get the duration below which a fraction of the samples fall.
+     *
+     * @param fraction the fraction of samples, from 0 to 1, e.g. 0.99.
+     * @return the upper bound of the bucket holding that sample, in
+     * nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long wanted = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= wanted) {
+                return Math.min(upperBoundOf(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Add the samples of another histogram to this one.
+     *
+     * @param other the histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] += other.counts[bucket];
+        }
+        count += other.count;
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Forget every sample.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        // The highest set bit picks the doubling, the bits below it the sub-bucket
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int sub = (int) (nanos >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
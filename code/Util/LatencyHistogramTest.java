@@ -0,0 +1,52 @@
+package deco2800.skyfall.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the latency histogram.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Test percentiles fall within the bucket precision of the samples.
+     */
+    @Test
+    public void percentileTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(1_000_000, histogram.getMax());
+        Assert.assertEquals(500_500, histogram.getMean(), 0.001);
+
+        long median = histogram.getPercentile(0.5);
+        Assert.assertTrue(median >= 500_000 && median <= 500_000 * 17 / 16);
+        long p99 = histogram.getPercentile(0.99);
+        Assert.assertTrue(p99 >= 990_000 && p99 <= 1_000_000);
+        Assert.assertEquals(1_000_000, histogram.getPercentile(1));
+    }
+
+    /**
+     * Test histograms can be merged and reset.
+     */
+    @Test
+    public void addAndResetTest() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(5);
+        second.record(7);
+        second.record(-3);
+
+        first.add(second);
+        Assert.assertEquals(3, first.getCount());
+        Assert.assertEquals(7, first.getMax());
+        Assert.assertEquals(0, first.getPercentile(0.1));
+
+        first.reset();
+        Assert.assertEquals(0, first.getCount());
+        Assert.assertEquals(0, first.getPercentile(0.5));
+    }
+}
@@ -0,0 +1,56 @@
+package deco2800.skyfall.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the primitive long keyed map.
+ */
+public class LongMapTest {
+
+    /**
+     * Test putting, replacing and getting values, including the reserved key.
+     */
+    @Test
+    public void putGetTest() {
+        LongMap<String> map = new LongMap<>(4);
+        Assert.assertTrue(map.isEmpty());
+
+        Assert.assertNull(map.put(1L, "one"));
+        Assert.assertNull(map.put(-5L, "minus five"));
+        Assert.assertNull(map.put(Long.MIN_VALUE, "min"));
+        Assert.assertEquals("one", map.put(1L, "uno"));
+
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals("uno", map.get(1L));
+        Assert.assertEquals("minus five", map.get(-5L));
+        Assert.assertEquals("min", map.get(Long.MIN_VALUE));
+        Assert.assertNull(map.get(2L));
+        Assert.assertFalse(map.containsKey(2L));
+    }
+
+    /**
+     * Test the map grows and removing keys keeps colliding keys reachable.
+     */
+    @Test
+    public void resizeAndRemoveTest() {
+        LongMap<Long> map = new LongMap<>(2);
+        for (long key = 0; key < 1000; key++) {
+            map.put(key * 31, key);
+        }
+        Assert.assertEquals(1000, map.size());
+
+        for (long key = 0; key < 1000; key += 2) {
+            Assert.assertEquals(Long.valueOf(key), map.remove(key * 31));
+        }
+        Assert.assertEquals(500, map.size());
+
+        for (long key = 0; key < 1000; key++) {
+            Assert.assertEquals(key % 2 == 1, map.containsKey(key * 31));
+        }
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(31L));
+    }
+}
@@ -0,0 +1,187 @@
+package deco2800.skyfall.util;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid of points, rebuilt from scratch each tick, for finding the
+ * points near a position without checking every point. Used to keep crowds of
+ * enemies apart by steering rather than by physics contacts.
+ *
+ * Points are added, then {@link #build()} sorts them by grid cell into flat
+ * arrays, so queries walk a few short runs of memory and never allocate. Cells
+ * are hashed into a fixed table, so the grid covers the whole world; points of
+ * cells sharing a slot are told apart by their distance.
+ *
+ * Not thread safe to build, but once built any number of threads may query it
+ * until it is cleared.
+ */
+public class SeparationGrid {
+
+    // Number of hash slots for cells, a power of two
+    private static final int SLOTS = 1024;
+
+    private final float cellSize;
+
+    private float[] xs = new float[64];
+    private float[] ys = new float[64];
+    private int count = 0;
+
+    // Points sorted by slot, with the first point of each slot
+    private float[] sortedXs = new float[64];
+    private float[] sortedYs = new float[64];
+    private final int[] slotStarts = new int[SLOTS + 1];
+    private final int[] slotNext = new int[SLOTS];
+    private int[] slots = new int[64];
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param cellSize the width of a cell, at least the largest query radius
+     *                 for queries to visit only the nine cells around them.
+     */
+    public SeparationGrid(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Remove every point.
+     */
+    public void clear() {
+        count = 0;
+        Arrays.fill(slotStarts, 0);
+    }
+
+    /**
+     * Add a point. It is not found by queries until the grid is built.
+     *
+     * @param x the x-coordinate.
+     * @param y the y-coordinate.
+     */
+    public void add(float x, float y) {
+        if (count == xs.length) {
+            int capacity = count * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            sortedXs = new float[capacity];
+            sortedYs = new float[capacity];
+            slots = new int[capacity];
+        }
+        xs[count] = x;
+        ys[count] = y;
+        count++;
+    }
+
+    /**
+     * Sort the points added into their cells, ready to be queried.
+     */
+    public void build() {
+        Arrays.fill(slotStarts, 0);
+        for (int i = 0; i < count; i++) {
+            slots[i] = slotOf(cell(xs[i]), cell(ys[i]));
+            slotStarts[slots[i] + 1]++;
+        }
+        for (int s = 0; s < SLOTS; s++) {
+            slotStarts[s + 1] += slotStarts[s];
+        }
+
+        // Counting sort, filling each slot from its start
+        System.arraycopy(slotStarts, 0, slotNext, 0, SLOTS);
+        for (int i = 0; i < count; i++) {
+            int at = slotNext[slots[i]]++;
+            sortedXs[at] = xs[i];
+            sortedYs[at] = ys[i];
+        }
+    }
+
+    /**
+     * Get the number of points in the grid.
+     *
+     * @return the number of points.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Work out the pushes a position gets from the points around it. Points at
+     * the position itself are taken to be the one asking and are left out.
+     *
+     * @param x      the x-coordinate of the position.
+     * @param y      the y-coordinate of the position.
+     * @param radius how far away points are counted, at most the cell size.
+     * @param out    receives, in order, the push away from the nearby points,
+     *               growing from 0 at the radius to 1 for each point on top of
+     *               the position, and the offset to the middle of the nearby
+     *               points, as a fraction of the radius.
+     * @return the number of nearby points.
+     */
+    public int steer(float x, float y, float radius, float[] out) {
+        Arrays.fill(out, 0, 4, 0f);
+        float radiusSquared = radius * radius;
+        float sumX = 0;
+        float sumY = 0;
+        int near = 0;
+
+        int cellX = cell(x);
+        int cellY = cell(y);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                int slot = slotOf(cellX + dx, cellY + dy);
+                if (isVisited(slot, cellX, cellY, dx, dy)) {
+                    continue;
+                }
+                for (int i = slotStarts[slot]; i < slotStarts[slot + 1]; i++) {
+                    float offsetX = x - sortedXs[i];
+                    float offsetY = y - sortedYs[i];
+                    float distanceSquared = offsetX * offsetX + offsetY * offsetY;
+                    if (distanceSquared >= radiusSquared || distanceSquared < 1e-8f) {
+                        continue;
+                    }
+                    float distance = (float) Math.sqrt(distanceSquared);
+                    float strength = (1 - distance / radius) / distance;
+                    out[0] += offsetX * strength;
+                    out[1] += offsetY * strength;
+                    sumX += sortedXs[i];
+                    sumY += sortedYs[i];
+                    near++;
+                }
+            }
+        }
+
+        if (near > 0) {
+            out[2] = (sumX / near - x) / radius;
+            out[3] = (sumY / near - y) / radius;
+        }
+        return near;
+    }
+
+    /**
+     * Check whether a neighbouring cell hashes to a slot an earlier cell of the
+     * same query has already visited, so its points are not counted twice.
+     */
+    private boolean isVisited(int slot, int cellX, int cellY, int dx, int dy) {
+        for (int ex = -1; ex <= dx; ex++) {
+            for (int ey = -1; ey <= 1; ey++) {
+                if (ex == dx && ey == dy) {
+                    return false;
+                }
+                if (slotOf(cellX + ex, cellY + ey) == slot) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static int slotOf(int cellX, int cellY) {
+        int hash = cellX * 0x9E3779B1 ^ cellY * 0x85EBCA6B;
+        return (hash ^ (hash >>> 16)) & (SLOTS - 1);
+    }
+}
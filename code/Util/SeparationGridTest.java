@@ -0,0 +1,63 @@
+package deco2800.skyfall.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the separation grid finds nearby points and pushes away from them.
+ */
+public class SeparationGridTest {
+
+    /**
+     * Test only points within the radius push, away from themselves, and the
+     * position itself is left out.
+     */
+    @Test
+    public void steerTest() {
+        SeparationGrid grid = new SeparationGrid(2f);
+        grid.add(0f, 0f);
+        grid.add(0.5f, 0f);
+        grid.add(0f, -1.5f);
+        grid.add(5f, 5f);
+        grid.build();
+
+        float[] out = new float[4];
+        Assert.assertEquals(1, grid.steer(0f, 0f, 1f, out));
+        Assert.assertEquals(-0.5f, out[0], 0.0001f);
+        Assert.assertEquals(0f, out[1], 0.0001f);
+        Assert.assertEquals(0.5f, out[2], 0.0001f);
+        Assert.assertEquals(0f, out[3], 0.0001f);
+
+        Assert.assertEquals(2, grid.steer(0f, 0f, 2f, out));
+        Assert.assertTrue(out[0] < 0);
+        Assert.assertTrue(out[1] > 0);
+
+        Assert.assertEquals(0, grid.steer(10f, 10f, 2f, out));
+        Assert.assertEquals(0f, out[0], 0f);
+    }
+
+    /**
+     * Test points are found across cell borders and negative cells, and the
+     * grid can be cleared and grown.
+     */
+    @Test
+    public void rebuildTest() {
+        SeparationGrid grid = new SeparationGrid(1f);
+        for (int i = 0; i < 200; i++) {
+            grid.add(-0.1f, i * 10f);
+        }
+        grid.add(0.1f, 0f);
+        grid.build();
+        Assert.assertEquals(201, grid.size());
+
+        float[] out = new float[4];
+        Assert.assertEquals(1, grid.steer(0.1f, 0f, 1f, out));
+        Assert.assertEquals(0, grid.steer(-0.1f, 1990f, 1f, out));
+
+        grid.clear();
+        Assert.assertEquals(0, grid.steer(0.1f, 0f, 1f, out));
+        grid.add(0.3f, 0f);
+        grid.build();
+        Assert.assertEquals(1, grid.steer(0.1f, 0f, 1f, out));
+    }
+}